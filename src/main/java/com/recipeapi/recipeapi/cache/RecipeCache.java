@@ -0,0 +1,92 @@
+package com.recipeapi.recipeapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipeapi.recipeapi.model.Recipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of recipes by ID.
+ *
+ * <p>Backed by Caffeine, whose W-TinyLFU policy keeps the frequently read
+ * recipes when the cache is full. Entries are bounded by
+ * {@code recipes.cache.maximum-size} and expire after
+ * {@code recipes.cache.time-to-live}, which bounds how long a change made
+ * outside this process can go unnoticed. Local writes invalidate the recipes
+ * they touched; an invalidation waits for a load of the same recipe in
+ * progress, so a value read before a write is never left in the cache.</p>
+ *
+ * <p>Hits, misses, evictions and the size are published as the Micrometer
+ * {@code cache.*} metrics with the tag {@code cache=recipes}.</p>
+ *
+ * <p>Cached recipes are shared between requests and must not be modified.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class RecipeCache {
+
+    private final Cache<String, Recipe> cache;
+
+    /**
+     * Creates a new RecipeCache.
+     *
+     * @param meterRegistry Registry the cache metrics are published to
+     * @param maximumSize The maximum number of cached recipes
+     * @param timeToLive How long a recipe stays cached after being loaded
+     */
+    public RecipeCache(MeterRegistry meterRegistry,
+                       @Value("${recipes.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${recipes.cache.time-to-live:10m}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recipes");
+    }
+
+    /**
+     * Returns a recipe, loading it on a miss.
+     *
+     * @param id the recipe ID
+     * @param loader loads the recipe, returning null if there is none
+     * @return the recipe, or null if the loader found none; a missing recipe is not cached
+     */
+    public Recipe get(String id, Function<String, Recipe> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Drops a recipe after a write.
+     *
+     * @param id the ID of the written recipe
+     */
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drops recipes after a bulk write.
+     *
+     * @param ids the IDs of the written recipes
+     */
+    public void invalidateAll(Collection<String> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    /**
+     * Drops every recipe, for writes whose targets are not known.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,80 @@
+package com.recipeapi.recipeapi.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters from which list responses derive their ETags.
+ *
+ * <p>Every recipe write bumps a counter for the whole collection and one for
+ * each category it touched. Bulk writes, which may touch any category, bump
+ * a separate counter that is part of every category's state. A list ETag is
+ * a digest of the relevant counters and the request, so a client polling an
+ * unchanged list can be answered with 304 (Not Modified) without querying
+ * MongoDB.</p>
+ *
+ * <p>The counters live in memory and restart from zero, so each process mixes
+ * a start-up epoch into its ETags: an ETag from an earlier process never
+ * matches. Writes made by other processes are not seen.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class RecipeChangeTracker {
+
+    private final String epoch = Long.toString(System.nanoTime(), 36);
+    private final AtomicLong collectionChanges = new AtomicLong();
+    private final AtomicLong bulkChanges = new AtomicLong();
+    private final Map<String, AtomicLong> categoryChanges = new ConcurrentHashMap<>();
+
+    /**
+     * Records a write to a single recipe.
+     *
+     * @param previousCategory the category before the write, or null if the recipe is new
+     * @param newCategory the category after the write, or null if the recipe was deleted
+     */
+    public void onWrite(String previousCategory, String newCategory) {
+        collectionChanges.incrementAndGet();
+        if (previousCategory != null) {
+            categoryChanges.computeIfAbsent(previousCategory, category -> new AtomicLong()).incrementAndGet();
+        }
+        if (newCategory != null && !newCategory.equals(previousCategory)) {
+            categoryChanges.computeIfAbsent(newCategory, category -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a write that may have touched recipes of any category.
+     */
+    public void onBulkWrite() {
+        collectionChanges.incrementAndGet();
+        bulkChanges.incrementAndGet();
+    }
+
+    /**
+     * Derives the weak ETag of a list response.
+     *
+     * @param category the category the list is restricted to, or null for lists over the whole collection
+     * @param request the request path and its query parameters, in a canonical order
+     * @return the ETag, which changes whenever the list may have changed
+     */
+    public String eTag(String category, String request) {
+        String state;
+        if (category == null) {
+            state = Long.toString(collectionChanges.get());
+        } else {
+            // Reading does not create a counter, so unknown categories cannot grow the map
+            AtomicLong changes = categoryChanges.get(category);
+            state = bulkChanges.get() + "." + (changes != null ? changes.get() : 0);
+        }
+        String digest = DigestUtils.md5DigestAsHex(
+                (epoch + '\u0000' + state + '\u0000' + request).getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + digest + "\"";
+    }
+}
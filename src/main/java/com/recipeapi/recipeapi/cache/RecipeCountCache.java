@@ -0,0 +1,164 @@
+package com.recipeapi.recipeapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of recipe totals used by paginated responses.
+ *
+ * <p>Counting the documents behind a filter often costs more than fetching
+ * the page itself. This cache keeps:
+ * <ul>
+ *   <li>Per-category counts, dropped when a recipe enters or leaves the category</li>
+ *   <li>Per-search counts, dropped on every write since any recipe may start or stop matching</li>
+ * </ul>
+ * The unfiltered total comes from the collection metadata via {@code estimatedDocumentCount},
+ * which does not scan the collection at all.
+ * </p>
+ *
+ * <p>A count is run outside of any lock and only stored if no write touched
+ * its key while it ran, which is tracked by generation counters that writes
+ * bump before dropping the key. A count that may or may not include a
+ * concurrent write is therefore never cached. Counts also expire after
+ * {@code recipes.count-cache.time-to-live}, which bounds how long a write
+ * missed by this process can go unnoticed.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class RecipeCountCache {
+
+    // Upper bound on cached search totals; arbitrary search terms must not grow the cache without limit
+    private static final int MAX_SEARCH_ENTRIES = 1000;
+
+    private final RecipeRepository recipeRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private final Cache<String, Long> categoryCounts;
+    private final Cache<String, Long> searchCounts;
+
+    // Bumped before the cached counts they guard are dropped
+    private final Map<String, Long> categoryGenerations = new ConcurrentHashMap<>();
+    private final AtomicLong searchGeneration = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates a new RecipeCountCache.
+     *
+     * @param recipeRepository Repository used to count on a cache miss
+     * @param mongoTemplate Template used for the estimated collection count
+     * @param timeToLive How long a count stays cached after being stored
+     */
+    public RecipeCountCache(RecipeRepository recipeRepository, MongoTemplate mongoTemplate,
+                            @Value("${recipes.count-cache.time-to-live:60s}") Duration timeToLive) {
+        this.recipeRepository = recipeRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.categoryCounts = Caffeine.newBuilder().expireAfterWrite(timeToLive).build();
+        this.searchCounts = Caffeine.newBuilder()
+                .maximumSize(MAX_SEARCH_ENTRIES)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    /**
+     * Returns the estimated number of recipes in the collection.
+     *
+     * @return the estimated total
+     */
+    public long countAll() {
+        return mongoTemplate.estimatedCount(Recipe.class);
+    }
+
+    /**
+     * Returns the number of recipes in a category.
+     *
+     * @param category the category
+     * @return the number of recipes in the category
+     */
+    public long countByCategory(String category) {
+        Long cached = categoryCounts.getIfPresent(category);
+        if (cached != null) {
+            return cached;
+        }
+
+        long allGeneration = generation.get();
+        long categoryGeneration = categoryGenerations.getOrDefault(category, 0L);
+        long count = recipeRepository.countByCategory(category);
+        categoryCounts.asMap().compute(category, (key, current) ->
+                generation.get() == allGeneration && categoryGenerations.getOrDefault(key, 0L) == categoryGeneration
+                        ? Long.valueOf(count) : current);
+        return count;
+    }
+
+    /**
+     * Returns the number of recipes matching an advanced search.
+     *
+     * @param searchTerm the search term
+     * @param maxCookingTime the maximum cooking time
+     * @return the number of matching recipes
+     */
+    public long countBySearch(String searchTerm, Integer maxCookingTime) {
+        String key = searchTerm + '\u0000' + maxCookingTime;
+        Long cached = searchCounts.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long allGeneration = searchGeneration.get();
+        long count = recipeRepository.countBySearchTermAndMaxCookingTime(searchTerm, maxCookingTime);
+        searchCounts.asMap().compute(key, (k, current) ->
+                searchGeneration.get() == allGeneration ? Long.valueOf(count) : current);
+        return count;
+    }
+
+    /**
+     * Drops the cached totals a recipe write may have changed.
+     *
+     * @param previousCategory the category before the write, or null if the recipe is new
+     * @param newCategory the category after the write, or null if the recipe was deleted
+     */
+    public void onWrite(String previousCategory, String newCategory) {
+        searchGeneration.incrementAndGet();
+        searchCounts.invalidateAll();
+
+        if (Objects.equals(previousCategory, newCategory)) {
+            return;
+        }
+        if (previousCategory != null) {
+            invalidateCategory(previousCategory);
+        }
+        if (newCategory != null) {
+            invalidateCategory(newCategory);
+        }
+    }
+
+    /**
+     * Drops every cached total, for writes that may have touched any category.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        searchGeneration.incrementAndGet();
+        categoryCounts.invalidateAll();
+        searchCounts.invalidateAll();
+    }
+
+    // Bump the generation and drop the count under the key's lock, so a count stored concurrently is dropped too
+    private void invalidateCategory(String category) {
+        categoryCounts.asMap().compute(category, (key, current) -> {
+            categoryGenerations.merge(key, 1L, Long::sum);
+            return null;
+        });
+    }
+}
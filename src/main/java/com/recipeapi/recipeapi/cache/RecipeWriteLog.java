@@ -0,0 +1,92 @@
+package com.recipeapi.recipeapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Recipe writes made by this process, so that their change stream events can be skipped.
+ *
+ * <p>A save is remembered by the recipe ID and the version it wrote, and a
+ * delete by the recipe ID alone. Versions only grow and IDs are never reused,
+ * so no write made elsewhere has the same key. Each entry is consumed by the
+ * first event that matches it and expires after
+ * {@code recipes.change-stream.local-write-ttl} otherwise, e.g. when the event
+ * was applied before the write was recorded.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class RecipeWriteLog {
+
+    // Upper bound on remembered writes; a burst of local writes must not grow the log without limit
+    private static final int MAX_ENTRIES = 100000;
+
+    private final Cache<String, Boolean> writes;
+
+    /**
+     * Creates a new RecipeWriteLog.
+     *
+     * @param timeToLive How long a write is remembered if no event matches it
+     */
+    public RecipeWriteLog(@Value("${recipes.change-stream.local-write-ttl:5m}") Duration timeToLive) {
+        this.writes = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    /**
+     * Records a recipe inserted or updated by this process.
+     *
+     * @param id the recipe ID
+     * @param version the version the write stored; writes without a version are not recorded
+     */
+    public void onSaved(String id, Long version) {
+        if (version != null) {
+            writes.put(savedKey(id, version), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Records a recipe deleted by this process.
+     *
+     * @param id the recipe ID
+     */
+    public void onDeleted(String id) {
+        writes.put(deletedKey(id), Boolean.TRUE);
+    }
+
+    /**
+     * Tells whether a save was made by this process, forgetting it.
+     *
+     * @param id the recipe ID
+     * @param version the version the save stored, or null if unknown
+     * @return true if this process made the save
+     */
+    public boolean consumeSaved(String id, Long version) {
+        return version != null && writes.asMap().remove(savedKey(id, version)) != null;
+    }
+
+    /**
+     * Tells whether a delete was made by this process, forgetting it.
+     *
+     * @param id the recipe ID
+     * @return true if this process made the delete
+     */
+    public boolean consumeDeleted(String id) {
+        return writes.asMap().remove(deletedKey(id)) != null;
+    }
+
+    private static String savedKey(String id, long version) {
+        return id + '\u0000' + version;
+    }
+
+    private static String deletedKey(String id) {
+        return id + '\u0000' + "deleted";
+    }
+}
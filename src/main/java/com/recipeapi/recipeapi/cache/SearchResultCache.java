@@ -0,0 +1,178 @@
+package com.recipeapi.recipeapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipeapi.recipeapi.search.Tokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of advanced search result pages.
+ *
+ * <p>A page is cached as the IDs of its recipes, in result order, and the
+ * total number of matches, so the recipes themselves are read by ID (one
+ * indexed query) and a cached page never holds stale recipe contents.</p>
+ *
+ * <p>Entries are keyed by the search term, the maximum cooking time, the page,
+ * its size and its sort. Ranked searches use the term's normalized tokens, so
+ * "Chicken " and "chicken" share an entry; the regex fallback, which matches
+ * the raw term, uses it as given.</p>
+ *
+ * <p>Any recipe write can change any search result, so every write moves the
+ * cache to a new generation. The generation is part of the key and is read
+ * before a search runs, so a result computed while a write was in progress is
+ * stored under the old generation and never served. Entries are bounded by
+ * {@code recipes.search-cache.maximum-size} and expire after
+ * {@code recipes.search-cache.time-to-live}, which bounds how long a change
+ * made outside this process can go unnoticed.</p>
+ *
+ * <p>Hits, misses, evictions and the size are published as the Micrometer
+ * {@code cache.*} metrics with the tag {@code cache=searches}.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, CachedSearch> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates a new SearchResultCache.
+     *
+     * @param meterRegistry Registry the cache metrics are published to
+     * @param maximumSize The maximum number of cached pages
+     * @param timeToLive How long a page stays cached after being stored
+     */
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${recipes.search-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${recipes.search-cache.time-to-live:5m}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "searches");
+    }
+
+    /**
+     * Builds the key of a search in the current generation.
+     *
+     * <p>Take the key before running the search, so that a write made in
+     * between invalidates the result.</p>
+     *
+     * @param searchTerm the search term
+     * @param ranked true for a ranked search, whose term is normalized, false for the regex fallback
+     * @param maxCookingTime the maximum cooking time in minutes, or null
+     * @param pageable the requested page
+     * @return the key
+     */
+    public Key key(String searchTerm, boolean ranked, Integer maxCookingTime, Pageable pageable) {
+        String term = ranked ? String.join(" ", Tokenizer.tokenize(searchTerm)) : searchTerm;
+        return new Key(generation.get(), ranked, term, maxCookingTime,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+    }
+
+    /**
+     * Returns a cached page.
+     *
+     * @param key the key of the search
+     * @return the cached page, or null if there is none
+     */
+    public CachedSearch get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores a page.
+     *
+     * @param key the key taken before the search ran
+     * @param recipeIds the IDs of the recipes on the page, in result order
+     * @param total the total number of matches
+     */
+    public void put(Key key, List<String> recipeIds, long total) {
+        cache.put(key, new CachedSearch(List.copyOf(recipeIds), total));
+    }
+
+    /**
+     * Drops every page after a recipe write.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Identifies a search page within a cache generation.
+     */
+    public static final class Key {
+
+        private final long generation;
+        private final boolean ranked;
+        private final String term;
+        private final Integer maxCookingTime;
+        private final int page;
+        private final int size;
+        private final String sort;
+
+        private Key(long generation, boolean ranked, String term, Integer maxCookingTime,
+                    int page, int size, String sort) {
+            this.generation = generation;
+            this.ranked = ranked;
+            this.term = term;
+            this.maxCookingTime = maxCookingTime;
+            this.page = page;
+            this.size = size;
+            this.sort = sort;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return generation == other.generation && ranked == other.ranked && page == other.page
+                    && size == other.size && Objects.equals(term, other.term)
+                    && Objects.equals(maxCookingTime, other.maxCookingTime) && sort.equals(other.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(generation, ranked, term, maxCookingTime, page, size, sort);
+        }
+    }
+
+    /**
+     * A cached search page: the recipe IDs in result order and the total number of matches.
+     */
+    public static class CachedSearch {
+
+        private final List<String> recipeIds;
+        private final long total;
+
+        public CachedSearch(List<String> recipeIds, long total) {
+            this.recipeIds = recipeIds;
+            this.total = total;
+        }
+
+        public List<String> getRecipeIds() {
+            return recipeIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
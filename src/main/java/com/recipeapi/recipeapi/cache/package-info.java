@@ -0,0 +1,22 @@
+/**
+ * Cache package for the Recipe API application.
+ *
+ * <p>This package contains in-process caches that spare MongoDB from repeated
+ * work. Caches are updated or invalidated by the services on every write,
+ * so they never serve data older than the last local change. Writes made by
+ * other instances reach them through
+ * {@link com.recipeapi.recipeapi.service.RecipeChangeStreamListener}.</p>
+ *
+ * <p>Key components in this package include:</p>
+ * <ul>
+ *   <li>{@link com.recipeapi.recipeapi.cache.RecipeCache} - Read-through cache of recipes by ID</li>
+ *   <li>{@link com.recipeapi.recipeapi.cache.RecipeCountCache} - Cached totals for paginated responses</li>
+ *   <li>{@link com.recipeapi.recipeapi.cache.RecipeChangeTracker} - Change counters behind the ETags of list responses</li>
+ *   <li>{@link com.recipeapi.recipeapi.cache.SearchResultCache} - Recipe IDs of advanced search result pages</li>
+ *   <li>{@link com.recipeapi.recipeapi.cache.RecipeWriteLog} - Local writes whose change stream events are skipped</li>
+ * </ul>
+ *
+ * @author Your Name
+ * @version 1.0
+ */
+package com.recipeapi.recipeapi.cache;
\ No newline at end of file
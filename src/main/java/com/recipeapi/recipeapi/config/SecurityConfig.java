@@ -73,6 +73,7 @@ public class SecurityConfig {
                         auth
                                 .requestMatchers("/api/auth/**").permitAll()
                                 .requestMatchers("/api/public/**").permitAll()
+                                .requestMatchers("/api/recipes/admin/**").hasRole("ADMIN")
                                 .requestMatchers("/api/recipes/**").permitAll() // Allow all operations on recipes (GET, POST, PUT, DELETE)
                                 .anyRequest().authenticated()
                 )
@@ -64,9 +64,9 @@ public class AuthController {
                     )
             );
 
-            // Generate JWT token
+            // Generate JWT token, with the roles and token version as claims
             final UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            final String jwt = jwtService.generateToken(userDetails.getUsername());
+            final String jwt = jwtService.generateToken(userDetails);
 
             // Return the token
             Map<String, String> response = new HashMap<>();
@@ -1,18 +1,37 @@
 package com.recipeapi.recipeapi.controller;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeapi.recipeapi.model.BulkImportResult;
+import com.recipeapi.recipeapi.model.CursorPage;
+import com.recipeapi.recipeapi.model.PantryMatch;
 import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import com.recipeapi.recipeapi.model.RecipePatch;
+import com.recipeapi.recipeapi.model.RecipeSummary;
+import com.recipeapi.recipeapi.service.RecipeBulkImporter;
 import com.recipeapi.recipeapi.service.RecipeService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 /**
  * REST controller for recipe operations.
@@ -25,6 +44,24 @@ import java.util.Map;
  * </ul>
  * </p>
  *
+ * <p>Listing and search endpoints accept {@code view=summary} to return only the
+ * ID, title, category and cooking time of each recipe, which are the only fields
+ * then read from the database. The default, {@code view=full}, returns complete recipes.</p>
+ *
+ * <p>Every endpoint returning recipes also accepts a sparse fieldset such as
+ * {@code fields=id,title}. Only those fields are read from the database and
+ * returned, and the parameter takes precedence over {@code view}.</p>
+ *
+ * <p>Pages hold at most {@value #MAX_PAGE_SIZE} recipes. The whole collection
+ * is available as a stream from {@code /export}, and recipes can be created in
+ * bulk by streaming them to {@code /bulk}. Administrators can update or delete
+ * every recipe matching a filter under {@code /admin}.</p>
+ *
+ * <p>A single recipe carries its version as a strong ETag. The recipe listing,
+ * category and advanced search responses carry a weak ETag derived from
+ * in-memory change counters, so a repeated request with {@code If-None-Match}
+ * gets an empty 304 (Not Modified) without any database access.</p>
+ *
  * @author ReinaKazan
  * @version 1.0
  */
@@ -32,15 +69,28 @@ import java.util.Map;
 @RequestMapping("/api/recipes")
 public class RecipeController {
 
+    /**
+     * Largest page size accepted by paginated endpoints.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final RecipeService recipeService;
+    private final RecipeBulkImporter bulkImporter;
+    private final ObjectMapper objectMapper;
 
     /**
      * Creates a new RecipeController with the necessary dependencies.
      *
      * @param recipeService Service for recipe operations
+     * @param bulkImporter Importer for streamed bulk creates
+     * @param objectMapper Mapper used to write streamed exports
      */
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, RecipeBulkImporter bulkImporter, ObjectMapper objectMapper) {
         this.recipeService = recipeService;
+        this.bulkImporter = bulkImporter;
+        this.objectMapper = objectMapper;
     }
 
     // Create a new recipe
@@ -58,6 +108,23 @@ public class RecipeController {
         return new ResponseEntity<>(createdRecipe, HttpStatus.CREATED);
     }
 
+    // Create recipes in bulk
+    /**
+     * Creates recipes from a streamed JSON array or newline-delimited JSON body.
+     *
+     * <p>Records are validated and inserted as they are read, so the body can be
+     * arbitrarily large. Invalid records are skipped and reported by their
+     * position in the body, starting from 0.</p>
+     *
+     * @param body The recipes to create
+     * @return ResponseEntity containing the counts of inserted and failed records, with the errors
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<BulkImportResult> importRecipes(InputStream body) throws IOException {
+        return new ResponseEntity<>(bulkImporter.importRecipes(body), HttpStatus.OK);
+    }
+
     // Helper method to create response map from Page object (to avoid code duplication)
     /**
      * Helper method to create a pagination response.
@@ -65,93 +132,365 @@ public class RecipeController {
      * <p>Formats a Page object into a Map containing pagination metadata and recipe content.</p>
      *
      * @param recipePage The Page object to format
+     * @param fields The fields to return, or null for the recipes as read
      * @return A map containing recipes and pagination metadata
      */
-    private Map<String, Object> createPaginationResponse(Page<Recipe> recipePage) {
+    private Map<String, Object> createPaginationResponse(Page<? extends RecipeSummary> recipePage,
+                                                         RecipeFields fields) {
         Map<String, Object> response = new HashMap<>();
-        response.put("recipes", recipePage.getContent());
+        response.put("recipes", content(recipePage.getContent(), fields));
         response.put("currentPage", recipePage.getNumber());
         response.put("totalItems", recipePage.getTotalElements());
         response.put("totalPages", recipePage.getTotalPages());
         return response;
     }
 
+    // Helper method to create response map from a Slice object
+    /**
+     * Helper method to create a count-free pagination response.
+     *
+     * <p>Formats a Slice into a Map containing the recipes, the page number and
+     * whether a next page exists, without any totals.</p>
+     *
+     * @param recipeSlice The Slice object to format
+     * @param fields The fields to return, or null for the recipes as read
+     * @return A map containing recipes and slice metadata
+     */
+    private Map<String, Object> createSliceResponse(Slice<? extends RecipeSummary> recipeSlice,
+                                                    RecipeFields fields) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("recipes", content(recipeSlice.getContent(), fields));
+        response.put("currentPage", recipeSlice.getNumber());
+        response.put("hasNext", recipeSlice.hasNext());
+        return response;
+    }
+
+    // Helper method to create response map from a CursorPage object
+    /**
+     * Helper method to create a cursor pagination response.
+     *
+     * <p>Formats a CursorPage into a Map containing the recipes and the cursor
+     * for the next page (null on the last page). No totals are included.</p>
+     *
+     * @param recipePage The CursorPage object to format
+     * @param fields The fields to return, or null for the recipes as read
+     * @return A map containing recipes and the next cursor
+     */
+    private Map<String, Object> createCursorResponse(CursorPage<? extends RecipeSummary> recipePage,
+                                                     RecipeFields fields) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("recipes", content(recipePage.getContent(), fields));
+        response.put("nextCursor", recipePage.getNextCursor());
+        response.put("hasNext", recipePage.hasNext());
+        return response;
+    }
+
+    // Helper method to resolve the view parameter of list endpoints
+    /**
+     * Helper method to resolve the requested view of a recipe list.
+     *
+     * <p>With a sparse fieldset, summaries are read first and the remaining
+     * fields, if any, are loaded afterwards (see {@link #content(List, RecipeFields)}).</p>
+     *
+     * @param view "full" for complete recipes, or "summary" for the fields of {@link RecipeSummary}
+     * @param fields The requested fields, or null
+     * @return The type to read the recipes as
+     * @throws IllegalArgumentException if the view is neither "full" nor "summary"
+     */
+    private static Class<? extends RecipeSummary> viewType(String view, RecipeFields fields) {
+        if (fields != null) {
+            return RecipeSummary.class;
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return Recipe.class;
+        }
+        if ("summary".equalsIgnoreCase(view)) {
+            return RecipeSummary.class;
+        }
+        throw new IllegalArgumentException("View must be 'summary' or 'full'");
+    }
+
+    // Helper method to set the ETag of a recipe
+    /**
+     * Helper method to add a recipe's version to a response as its strong ETag.
+     *
+     * <p>A recipe stored before recipes were versioned is at version 0.</p>
+     *
+     * @param builder The response being built
+     * @param recipe The recipe returned in the response
+     * @return The builder, with the recipe's ETag
+     */
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Recipe recipe) {
+        return builder.eTag("\"" + (recipe.getVersion() == null ? 0L : recipe.getVersion()) + "\"");
+    }
+
+    // Helper method to read the version named by an If-Match header
+    /**
+     * Helper method to read the recipe version named by an {@code If-Match} header.
+     *
+     * <p>If-Match uses strong comparison, so a weak ETag, a list of ETags or
+     * anything other than a quoted version yields a version no recipe has,
+     * and the precondition fails.</p>
+     *
+     * @param ifMatch The header value, or null if absent
+     * @return The expected version, or null if any version is accepted
+     */
+    private static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of our ETags
+            }
+        }
+        return -1L;
+    }
+
+    // Helper method to answer conditional list requests
+    /**
+     * Helper method to answer a conditional request for a list from the change counters.
+     *
+     * <p>The weak ETag of the list is derived from the request path and query
+     * parameters and from in-memory change counters, so an unchanged list is
+     * recognized without querying MongoDB. The ETag is also set on the response.</p>
+     *
+     * @param request The request
+     * @param category The category the list is restricted to, or null for the whole collection
+     * @return true if a 304 (Not Modified) response has been prepared and the list must not be returned
+     */
+    private boolean notModified(ServletWebRequest request, String category) {
+        StringBuilder key = new StringBuilder(request.getRequest().getRequestURI());
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+                key.append('&').append(name).append('=').append(String.join(",", values)));
+
+        String eTag = recipeService.getListETag(category, key.toString());
+        return eTag != null && request.checkNotModified(eTag);
+    }
+
+    // Helper method to validate the page size
+    /**
+     * Helper method to reject page sizes that would load too much at once.
+     *
+     * @param size The requested page size
+     * @throws IllegalArgumentException if the size is not between 1 and {@link #MAX_PAGE_SIZE}
+     */
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE
+                    + "; use /api/recipes/export to read every recipe");
+        }
+    }
+
+    // Helper method to validate the limit of unpaged endpoints
+    /**
+     * Helper method to reject result limits that would load too much at once.
+     *
+     * @param limit The requested maximum number of results
+     * @throws IllegalArgumentException if the limit is not between 1 and {@link #MAX_PAGE_SIZE}
+     */
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Helper method to parse the fields parameter
+    /**
+     * Helper method to parse the sparse fieldset of a request.
+     *
+     * @param fields The comma-separated field names, or null
+     * @return The parsed fieldset, or null if none was requested
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    private static RecipeFields parseFields(String fields) {
+        return fields != null ? RecipeFields.parse(fields) : null;
+    }
+
+    // Helper method to narrow recipes to the requested fields
+    /**
+     * Helper method to narrow a list of recipes to the requested fields.
+     *
+     * @param recipes The recipes as read
+     * @param fields The fields to return, or null to return the recipes as read
+     * @return The recipes, or a map of the requested fields per recipe
+     */
+    private List<?> content(List<? extends RecipeSummary> recipes, RecipeFields fields) {
+        return fields != null ? recipeService.selectFields(recipes, fields) : recipes;
+    }
+
     // Get all recipes with pagination and sorting
     /**
      * Retrieves all recipes with pagination and sorting.
      *
-     * <p>This endpoint returns recipes with optional pagination and sorting parameters.</p>
+     * <p>This endpoint returns recipes with optional pagination and sorting parameters.
+     * When the {@code after} parameter is present (use an empty value for the first page),
+     * cursor pagination is used instead of page numbers: the response carries a
+     * {@code nextCursor} to pass back as {@code after}, and no totals are computed.
+     * With {@code totals=false}, the response only reports whether a next page exists.</p>
      *
      * @param page The page number (0-indexed)
      * @param size The page size
      * @param sortBy The field to sort by
      * @param direction The sort direction ("asc" or "desc")
-     * @return ResponseEntity containing recipes and pagination metadata
+     * @param after The cursor of the previous page (optional, enables cursor pagination)
+     * @param totals Whether to include totalItems and totalPages
+     * @param view The view of each recipe ("full" or "summary")
+     * @param fields The comma-separated fields to return (optional)
+     * @param request The request, for conditional requests
+     * @return ResponseEntity containing recipes and pagination metadata, or null when not modified
      */
     @GetMapping
     public ResponseEntity<?> getAllRecipes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean totals,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
 
+        checkPageSize(size);
+        if (notModified(request, null)) {
+            return null;
+        }
         Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ?
                 Sort.Direction.DESC : Sort.Direction.ASC;
+        RecipeFields selected = parseFields(fields);
+        Class<? extends RecipeSummary> type = viewType(view, selected);
+
+        if (after != null) {
+            CursorPage<? extends RecipeSummary> recipePage =
+                    recipeService.getAllRecipes(sortBy, sortDirection, after, size, type);
+            return new ResponseEntity<>(createCursorResponse(recipePage, selected), HttpStatus.OK);
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<Recipe> recipePage = recipeService.getAllRecipes(pageable);
 
-        // Modified to return just recipes array when requested from client
-        if (size == Integer.MAX_VALUE || size >= 1000) {
-            // Client is requesting all recipes
-            return new ResponseEntity<>(recipePage.getContent(), HttpStatus.OK);
-        } else {
-            // Regular pagination response for web clients
-            return new ResponseEntity<>(createPaginationResponse(recipePage), HttpStatus.OK);
+        if (!totals) {
+            Slice<? extends RecipeSummary> recipeSlice = recipeService.getAllRecipesSlice(pageable, type);
+            return new ResponseEntity<>(createSliceResponse(recipeSlice, selected), HttpStatus.OK);
         }
+
+        Page<? extends RecipeSummary> recipePage = recipeService.getAllRecipes(pageable, type);
+
+        return new ResponseEntity<>(createPaginationResponse(recipePage, selected), HttpStatus.OK);
+    }
+
+    // Export all recipes as a stream
+    /**
+     * Exports every recipe as newline-delimited JSON.
+     *
+     * <p>Recipes are read through a database cursor and written to the response
+     * one line at a time as they arrive, so the export uses the same memory
+     * whatever the size of the collection. Recipes are exported in ID order.</p>
+     *
+     * @param fields The comma-separated fields to export (optional)
+     * @return ResponseEntity streaming one JSON recipe per line
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(@RequestParam(required = false) String fields) {
+        RecipeFields selected = parseFields(fields);
+
+        StreamingResponseBody body = out -> {
+            try (Stream<?> recipes = recipeService.streamAllRecipes(selected)) {
+                Iterator<?> iterator = recipes.iterator();
+                while (iterator.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     // Get a recipe by ID
     /**
      * Retrieves a recipe by ID.
      *
+     * <p>The full recipe carries its version as a strong {@code ETag}. A request
+     * whose {@code If-None-Match} header names the current version gets an
+     * empty 304 (Not Modified) response.</p>
+     *
      * @param id The ID of the recipe to retrieve
+     * @param fields The comma-separated fields to return (optional)
      * @return ResponseEntity containing the recipe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Recipe> getRecipeById(@PathVariable String id) {
+    public ResponseEntity<?> getRecipeById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return new ResponseEntity<>(recipeService.getRecipeFields(id, RecipeFields.parse(fields)), HttpStatus.OK);
+        }
+
+        // A 304 for a matching If-None-Match is sent by Spring MVC from the ETag
         Recipe recipe = recipeService.getRecipeById(id);
-        return new ResponseEntity<>(recipe, HttpStatus.OK);
+        return withETag(ResponseEntity.ok(), recipe).body(recipe);
     }
 
     // Update a recipe
     /**
      * Updates a recipe.
      *
-     * <p>This endpoint updates an existing recipe with new data.</p>
+     * <p>This endpoint updates an existing recipe with new data. With an
+     * {@code If-Match} header, the update only happens if the recipe is still
+     * at that version, and fails with 412 (Precondition Failed) otherwise.
+     * An update that races with another one fails with 409 (Conflict).</p>
      *
      * @param id The ID of the recipe to update
      * @param recipe The updated recipe data
+     * @param ifMatch The ETag of the version being replaced (optional)
      * @return ResponseEntity containing the updated recipe
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Recipe> updateRecipe(@PathVariable String id, @Valid @RequestBody Recipe recipe) {
-        Recipe updatedRecipe = recipeService.updateRecipe(id, recipe);
-        return new ResponseEntity<>(updatedRecipe, HttpStatus.OK);
+    public ResponseEntity<Recipe> updateRecipe(@PathVariable String id, @Valid @RequestBody Recipe recipe,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                               String ifMatch) {
+        Recipe updatedRecipe = recipeService.updateRecipe(id, recipe, ifMatchVersion(ifMatch));
+        return withETag(ResponseEntity.ok(), updatedRecipe).body(updatedRecipe);
+    }
+
+    // Update some fields of a recipe
+    /**
+     * Partially updates a recipe.
+     *
+     * <p>Only the fields present in the body are changed, and a null value
+     * clears a field, as in a JSON merge patch. The change is applied
+     * atomically, so concurrent patches of different fields are all kept.</p>
+     *
+     * @param id The ID of the recipe to update
+     * @param changes The fields to change
+     * @return ResponseEntity containing the updated recipe
+     */
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<Recipe> patchRecipe(@PathVariable String id, @RequestBody Map<String, Object> changes) {
+        Recipe patchedRecipe = recipeService.patchRecipe(id, RecipePatch.parse(changes));
+        return withETag(ResponseEntity.ok(), patchedRecipe).body(patchedRecipe);
     }
 
     // Delete a recipe
     /**
      * Deletes a recipe.
      *
-     * <p>This endpoint deletes a recipe by ID.</p>
+     * <p>With an {@code If-Match} header, the recipe is only deleted if it is
+     * still at that version, and the request fails with 412 (Precondition
+     * Failed) otherwise.</p>
      *
      * @param id The ID of the recipe to delete
+     * @param ifMatch The ETag of the version being deleted (optional)
      * @return ResponseEntity confirming deletion
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Boolean>> deleteRecipe(@PathVariable String id) {
-        recipeService.deleteRecipe(id);
+    public ResponseEntity<Map<String, Boolean>> deleteRecipe(@PathVariable String id,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                     required = false) String ifMatch) {
+        recipeService.deleteRecipe(id, ifMatchVersion(ifMatch));
 
         Map<String, Boolean> response = new HashMap<>();
         response.put("deleted", Boolean.TRUE);
@@ -159,78 +498,327 @@ public class RecipeController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Set the category of the recipes matching a filter (admins only)
+    /**
+     * Sets the category of every recipe matching a filter.
+     *
+     * <p>The filter takes the same parameters as {@code /filter}, and at least
+     * one must be given. For example, {@code ?category=Supper&to=Dinner} moves
+     * every supper recipe to the dinner category. Restricted to administrators.</p>
+     *
+     * @param category The accepted categories (optional)
+     * @param createdBy The accepted creators (optional)
+     * @param minCookingTime The minimum cooking time in minutes (optional)
+     * @param maxCookingTime The maximum cooking time in minutes (optional)
+     * @param ingredient The ingredients every recipe must use (optional)
+     * @param to The new category
+     * @return ResponseEntity containing the number of recipes updated
+     */
+    @PatchMapping("/admin/category")
+    public ResponseEntity<Map<String, Long>> updateCategory(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> createdBy,
+            @RequestParam(required = false) Integer minCookingTime,
+            @RequestParam(required = false) Integer maxCookingTime,
+            @RequestParam(required = false) List<String> ingredient,
+            @RequestParam String to) {
+
+        RecipeFilter filter = new RecipeFilter(category, createdBy, minCookingTime, maxCookingTime, ingredient);
+        return new ResponseEntity<>(Map.of("updated", recipeService.updateCategory(filter, to)), HttpStatus.OK);
+    }
+
+    // Delete the recipes matching a filter (admins only)
+    /**
+     * Deletes every recipe matching a filter.
+     *
+     * <p>The filter takes the same parameters as {@code /filter}, and at least
+     * one must be given. For example, {@code ?createdBy=spammer} deletes every
+     * recipe of that user. Restricted to administrators.</p>
+     *
+     * @param category The accepted categories (optional)
+     * @param createdBy The accepted creators (optional)
+     * @param minCookingTime The minimum cooking time in minutes (optional)
+     * @param maxCookingTime The maximum cooking time in minutes (optional)
+     * @param ingredient The ingredients every recipe must use (optional)
+     * @return ResponseEntity containing the number of recipes deleted
+     */
+    @DeleteMapping("/admin")
+    public ResponseEntity<Map<String, Long>> deleteRecipes(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> createdBy,
+            @RequestParam(required = false) Integer minCookingTime,
+            @RequestParam(required = false) Integer maxCookingTime,
+            @RequestParam(required = false) List<String> ingredient) {
+
+        RecipeFilter filter = new RecipeFilter(category, createdBy, minCookingTime, maxCookingTime, ingredient);
+        return new ResponseEntity<>(Map.of("deleted", recipeService.deleteRecipes(filter)), HttpStatus.OK);
+    }
+
     // Get recipes by category with pagination
     /**
      * Retrieves recipes by category with pagination.
      *
+     * <p>When the {@code after} parameter is present, cursor pagination sorted
+     * by title is used instead of page numbers. With {@code totals=false}, the
+     * response only reports whether a next page exists.</p>
+     *
      * @param category The category to filter by
      * @param page The page number (0-indexed)
      * @param size The page size
-     * @return ResponseEntity containing matching recipes and pagination metadata
+     * @param after The cursor of the previous page (optional, enables cursor pagination)
+     * @param totals Whether to include totalItems and totalPages
+     * @param view The view of each recipe ("full" or "summary")
+     * @param fields The comma-separated fields to return (optional)
+     * @param request The request, for conditional requests
+     * @return ResponseEntity containing matching recipes and pagination metadata, or null when not modified
      */
     @GetMapping("/category/{category}")
     public ResponseEntity<Map<String, Object>> getRecipesByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean totals,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+
+        checkPageSize(size);
+        if (notModified(request, category)) {
+            return null;
+        }
+        RecipeFields selected = parseFields(fields);
+        Class<? extends RecipeSummary> type = viewType(view, selected);
+
+        if (after != null) {
+            CursorPage<? extends RecipeSummary> recipePage =
+                    recipeService.getRecipesByCategory(category, after, size, type);
+            return new ResponseEntity<>(createCursorResponse(recipePage, selected), HttpStatus.OK);
+        }
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Recipe> recipePage = recipeService.getRecipesByCategory(category, pageable);
 
-        return new ResponseEntity<>(createPaginationResponse(recipePage), HttpStatus.OK);
+        if (!totals) {
+            Slice<? extends RecipeSummary> recipeSlice =
+                    recipeService.getRecipesByCategorySlice(category, pageable, type);
+            return new ResponseEntity<>(createSliceResponse(recipeSlice, selected), HttpStatus.OK);
+        }
+
+        Page<? extends RecipeSummary> recipePage = recipeService.getRecipesByCategory(category, pageable, type);
+
+        return new ResponseEntity<>(createPaginationResponse(recipePage, selected), HttpStatus.OK);
     }
 
     // Add search endpoint for recipe titles
     /**
      * Searches for recipes by title.
      *
+     * <p>With {@code fuzzy=true}, a search that finds nothing is retried with
+     * misspelled words corrected. The title must have at least 3 characters,
+     * and at most 1000 recipes are returned.</p>
+     *
      * @param title The title substring to search for
+     * @param fuzzy Whether to tolerate typos
+     * @param view The view of each recipe ("full" or "summary")
+     * @param fields The comma-separated fields to return (optional)
      * @return ResponseEntity containing matching recipes
      */
     @GetMapping("/search/title")
-    public ResponseEntity<List<Recipe>> searchRecipesByTitle(@RequestParam String title) {
-        List<Recipe> recipes = recipeService.searchRecipesByTitle(title);
-        return new ResponseEntity<>(recipes, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchRecipesByTitle(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields) {
+        RecipeFields selected = parseFields(fields);
+        List<? extends RecipeSummary> recipes =
+                recipeService.searchRecipesByTitle(title, fuzzy, viewType(view, selected));
+        return new ResponseEntity<>(content(recipes, selected), HttpStatus.OK);
     }
 
     // Add search endpoint for ingredients
     /**
      * Searches for recipes by ingredient.
      *
+     * <p>With {@code fuzzy=true}, a search that finds nothing is retried with
+     * misspelled words corrected. At most 1000 recipes are returned.</p>
+     *
      * @param ingredient The ingredient to search for
+     * @param fuzzy Whether to tolerate typos
+     * @param view The view of each recipe ("full" or "summary")
+     * @param fields The comma-separated fields to return (optional)
      * @return ResponseEntity containing matching recipes
      */
     @GetMapping("/search/ingredient")
-    public ResponseEntity<List<Recipe>> searchRecipesByIngredient(@RequestParam String ingredient) {
-        List<Recipe> recipes = recipeService.searchRecipesByIngredient(ingredient);
-        return new ResponseEntity<>(recipes, HttpStatus.OK);
+    public ResponseEntity<List<?>> searchRecipesByIngredient(
+            @RequestParam String ingredient,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields) {
+        RecipeFields selected = parseFields(fields);
+        List<? extends RecipeSummary> recipes =
+                recipeService.searchRecipesByIngredient(ingredient, fuzzy, viewType(view, selected));
+        return new ResponseEntity<>(content(recipes, selected), HttpStatus.OK);
+    }
+
+    // Add autocomplete endpoint
+    /**
+     * Suggests completions for a partially typed search.
+     *
+     * <p>Completions are recipe titles, categories and ingredients starting with
+     * the prefix, the ones used by the most recipes first.</p>
+     *
+     * @param prefix The text typed so far
+     * @param limit The maximum number of completions, at most {@value #MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the completions
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        checkLimit(limit);
+        List<String> completions = recipeService.autocomplete(prefix, limit);
+        return new ResponseEntity<>(completions, HttpStatus.OK);
+    }
+
+    // Add spelling suggestion endpoint
+    /**
+     * Suggests corrections for a misspelled query.
+     *
+     * <p>The response contains the corrected query as {@code didYouMean} (null when
+     * every word is known or has no close match) and up to five suggestions for
+     * each unknown word.</p>
+     *
+     * @param query The query to check
+     * @return ResponseEntity containing the corrected query and per-word suggestions
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(@RequestParam String query) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("didYouMean", recipeService.didYouMean(query));
+        response.put("suggestions", recipeService.getSpellingSuggestions(query));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    // Add attribute filter endpoint
+    /**
+     * Filters recipes by any combination of attributes.
+     *
+     * <p>Repeated values of the same attribute are alternatives, except for
+     * ingredients, which must all be used. Different attributes must all match.
+     * For example, {@code ?category=Dinner&category=Lunch&maxCookingTime=30&ingredient=eggs}
+     * finds dinner or lunch recipes with eggs that take at most 30 minutes.</p>
+     *
+     * @param category The accepted categories (optional)
+     * @param createdBy The accepted creators (optional)
+     * @param minCookingTime The minimum cooking time in minutes (optional)
+     * @param maxCookingTime The maximum cooking time in minutes (optional)
+     * @param ingredient The ingredients every recipe must use (optional)
+     * @param page The page number (0-indexed)
+     * @param size The page size
+     * @param view The view of each recipe ("full" or "summary")
+     * @param fields The comma-separated fields to return (optional)
+     * @return ResponseEntity containing matching recipes and pagination metadata
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<Map<String, Object>> filterRecipes(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> createdBy,
+            @RequestParam(required = false) Integer minCookingTime,
+            @RequestParam(required = false) Integer maxCookingTime,
+            @RequestParam(required = false) List<String> ingredient,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields) {
+
+        checkPageSize(size);
+        RecipeFields selected = parseFields(fields);
+        RecipeFilter filter = new RecipeFilter(category, createdBy, minCookingTime, maxCookingTime, ingredient);
+        Page<? extends RecipeSummary> recipePage =
+                recipeService.filterRecipes(filter, PageRequest.of(page, size), viewType(view, selected));
+
+        return new ResponseEntity<>(createPaginationResponse(recipePage, selected), HttpStatus.OK);
+    }
+
+    // Add pantry matching endpoint
+    /**
+     * Finds the recipes that can be cooked with the ingredients on hand.
+     *
+     * <p>Recipes are ranked by coverage, the fraction of their ingredients
+     * found in the pantry, and each result lists the ingredients still missing.</p>
+     *
+     * @param ingredients The ingredients on hand, as repeated or comma-separated values
+     * @param limit The maximum number of recipes to return, at most {@value #MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the best covered recipes
+     */
+    @GetMapping("/pantry")
+    public ResponseEntity<List<PantryMatch>> findRecipesByPantry(
+            @RequestParam List<String> ingredients,
+            @RequestParam(defaultValue = "10") int limit) {
+        checkLimit(limit);
+        List<PantryMatch> matches = recipeService.findRecipesByPantry(ingredients, limit);
+        return new ResponseEntity<>(matches, HttpStatus.OK);
     }
 
     // Add advanced search endpoint
     /**
      * Advanced search for recipes with multiple criteria.
      *
-     * <p>This endpoint searches for recipes based on a search term and maximum cooking time.</p>
+     * <p>This endpoint searches for recipes based on a search term and maximum cooking time.
+     * Matches are ranked by relevance across title, category, ingredients and instructions.
+     * With {@code totals=false}, the response only reports whether a next page exists.
+     * With {@code facets=true}, the response also contains the number of matches per
+     * category and cooking time bucket and the most common ingredients.</p>
      *
      * @param term The search term (optional)
      * @param maxCookingTime The maximum cooking time in minutes (optional)
      * @param page The page number (0-indexed)
      * @param size The page size
-     * @return ResponseEntity containing matching recipes and pagination metadata
+     * @param totals Whether to include totalItems and totalPages
+     * @param facets Whether to include facet counts
+     * @param view The view of each recipe ("full" or "summary")
+     * @param fields The comma-separated fields to return (optional)
+     * @param request The request, for conditional requests
+     * @return ResponseEntity containing matching recipes and pagination metadata, or null when not modified
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchRecipes(
             @RequestParam(required = false) String term,
             @RequestParam(required = false) Integer maxCookingTime,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean totals,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
 
+        checkPageSize(size);
+        if (notModified(request, null)) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<Recipe> recipePage = recipeService.searchRecipes(
-                term != null ? term : "",
-                maxCookingTime != null ? maxCookingTime : Integer.MAX_VALUE,
-                pageable);
+        String searchTerm = term != null ? term : "";
+        Integer cookingTimeLimit = maxCookingTime != null ? maxCookingTime : Integer.MAX_VALUE;
+        RecipeFields selected = parseFields(fields);
+        Class<? extends RecipeSummary> type = viewType(view, selected);
 
-        return new ResponseEntity<>(createPaginationResponse(recipePage), HttpStatus.OK);
+        Map<String, Object> response;
+        if (totals) {
+            Page<? extends RecipeSummary> recipePage =
+                    recipeService.searchRecipes(searchTerm, cookingTimeLimit, pageable, type);
+            response = createPaginationResponse(recipePage, selected);
+        } else {
+            Slice<? extends RecipeSummary> recipeSlice =
+                    recipeService.searchRecipesSlice(searchTerm, cookingTimeLimit, pageable, type);
+            response = createSliceResponse(recipeSlice, selected);
+        }
+
+        if (facets) {
+            response.put("facets", recipeService.getSearchFacets(searchTerm, cookingTimeLimit));
+        }
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 }
\ No newline at end of file
@@ -1,4 +1,5 @@
 package com.recipeapi.recipeapi.exception;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -43,6 +44,77 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    // Handle invalid request arguments
+    /**
+     * Handles IllegalArgumentException.
+     *
+     * <p>This method creates a 400 (Bad Request) response when a request
+     * parameter, such as a pagination cursor, is invalid.</p>
+     *
+     * @param ex The IllegalArgumentException that was thrown
+     * @param request The web request during which the exception was thrown
+     * @return A ResponseEntity containing error details
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // Handle failed conditional requests
+    /**
+     * Handles PreconditionFailedException.
+     *
+     * <p>This method creates a 412 (Precondition Failed) response when an
+     * {@code If-Match} header names an outdated version of a recipe.</p>
+     *
+     * @param ex The PreconditionFailedException that was thrown
+     * @param request The web request during which the exception was thrown
+     * @return A ResponseEntity containing error details
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex,
+                                                                           WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Handle concurrent modifications
+    /**
+     * Handles OptimisticLockingFailureException.
+     *
+     * <p>This method creates a 409 (Conflict) response when a recipe was
+     * modified by another request between being read and being saved.</p>
+     *
+     * @param ex The OptimisticLockingFailureException that was thrown
+     * @param request The web request during which the exception was thrown
+     * @return A ResponseEntity containing error details
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex,
+                                                                                 WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "The recipe was modified concurrently; fetch it again and retry",
+                request.getDescription(false)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     // Handle validation exceptions
     /**
      * Handles validation exceptions.
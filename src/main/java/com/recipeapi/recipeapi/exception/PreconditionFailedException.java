@@ -0,0 +1,28 @@
+package com.recipeapi.recipeapi.exception;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+
+/**
+ * Exception thrown when a conditional request does not hold.
+ *
+ * <p>This exception is used when the version named by an {@code If-Match}
+ * header is not the current version of the recipe, meaning the client's copy
+ * is out of date.</p>
+ *
+ * <p>The exception is mapped to a 412 (Precondition Failed) HTTP response.</p>
+ *
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Creates a new PreconditionFailedException with the specified error message.
+     *
+     * @param message The error message
+     */
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,7 @@
  * <p>Key components in this package include:</p>
  * <ul>
  *   <li>{@link com.recipeapi.recipeapi.exception.NotFoundException} - Exception for resource not found errors</li>
+ *   <li>{@link com.recipeapi.recipeapi.exception.PreconditionFailedException} - Exception for outdated conditional requests</li>
  *   <li>{@link com.recipeapi.recipeapi.exception.ErrorResponse} - Model for standardized error responses</li>
  *   <li>{@link com.recipeapi.recipeapi.exception.GlobalExceptionHandler} - Central exception handler</li>
  * </ul>
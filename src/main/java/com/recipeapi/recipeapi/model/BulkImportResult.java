@@ -0,0 +1,100 @@
+package com.recipeapi.recipeapi.model;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk recipe import.
+ *
+ * <p>Records are numbered from 0 in the order they appear in the request body.
+ * Every record that was not inserted has an error giving its number and the
+ * reason, up to {@value #MAX_REPORTED_ERRORS} errors; the failed count covers
+ * all of them. The importer lists the errors in record order.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class BulkImportResult {
+
+    /**
+     * Largest number of record errors included in a result.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long received;
+    private long inserted;
+    private long failed;
+    private final List<RecordError> errors = new ArrayList<>();
+
+    /**
+     * Counts a record read from the request body.
+     */
+    public void recordReceived() {
+        received++;
+    }
+
+    /**
+     * Counts records written to the database.
+     *
+     * @param count The number of records inserted
+     */
+    public void recordInserted(long count) {
+        inserted += count;
+    }
+
+    /**
+     * Counts a record that was not inserted.
+     *
+     * @param index The number of the record in the request body
+     * @param message Why the record was rejected
+     */
+    public void recordFailed(long index, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RecordError(index, message));
+        }
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * A record of the request body that was not inserted.
+     */
+    public static class RecordError {
+
+        private final long index;
+        private final String message;
+
+        /**
+         * Creates a new RecordError.
+         *
+         * @param index The number of the record in the request body
+         * @param message Why the record was rejected
+         */
+        public RecordError(long index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.recipeapi.recipeapi.model;
+import java.util.List;
+
+/**
+ * A page of results from a keyset-paginated listing.
+ *
+ * <p>Unlike a numbered page, a cursor page carries no total count. Clients
+ * fetch the following page by passing {@code nextCursor} back to the API;
+ * a null cursor means there are no more results.</p>
+ *
+ * @param <T> the type of the page content
+ * @author Reina
+ * @version 1.0
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    /**
+     * Creates a new CursorPage.
+     *
+     * @param content The items on this page
+     * @param nextCursor The token for the following page, or null if this is the last page
+     */
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
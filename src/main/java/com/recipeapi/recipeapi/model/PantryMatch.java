@@ -0,0 +1,51 @@
+package com.recipeapi.recipeapi.model;
+import java.util.List;
+
+/**
+ * A recipe matched against the ingredients a user has on hand.
+ *
+ * <p>Coverage is the fraction of the recipe's distinct ingredients found in
+ * the pantry, from 0 to 1. The missing ingredients are the ones the user
+ * would still need to buy.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class PantryMatch {
+
+    private final Recipe recipe;
+    private final double coverage;
+    private final int matchedIngredients;
+    private final List<String> missingIngredients;
+
+    /**
+     * Creates a new PantryMatch.
+     *
+     * @param recipe The matched recipe
+     * @param coverage The fraction of the recipe's ingredients on hand
+     * @param matchedIngredients The number of the recipe's ingredients on hand
+     * @param missingIngredients The recipe's ingredients that are not on hand
+     */
+    public PantryMatch(Recipe recipe, double coverage, int matchedIngredients, List<String> missingIngredients) {
+        this.recipe = recipe;
+        this.coverage = coverage;
+        this.matchedIngredients = matchedIngredients;
+        this.missingIngredients = missingIngredients;
+    }
+
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public double getCoverage() {
+        return coverage;
+    }
+
+    public int getMatchedIngredients() {
+        return matchedIngredients;
+    }
+
+    public List<String> getMissingIngredients() {
+        return missingIngredients;
+    }
+}
@@ -1,5 +1,11 @@
 package com.recipeapi.recipeapi.model;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
 
@@ -8,17 +14,56 @@ import java.util.List;
  *
  * <p>This class maps to documents in the "recipes" collection in MongoDB.</p>
  *
+ * <p>Every repository query is backed by one of the indexes declared here, which
+ * is checked by running {@code explain()} on each query in the tests. Queries
+ * on an unanchored regex (title substring and advanced search) cannot seek in
+ * an index and read the index over its whole range. The compound
+ * indexes end with the ID so that keyset-paginated listings can seek directly to
+ * the position after a cursor.</p>
+ *
+ * <p>{@code normalizedIngredients} holds the canonical names of the ingredients
+ * (see {@code IngredientNormalizer}). It is set by the service on every write and
+ * carries a multikey index, so ingredients can be matched by equality.
+ * {@code normalizedIngredientTerms} holds the distinct words of those names,
+ * also indexed, so that ingredient searches match the same words whether they
+ * are answered from the in-memory index or from MongoDB. The words of all
+ * ingredients are pooled, so a search matches words across ingredients.</p>
+ *
+ * <p>List views can read a {@link RecipeSummary} projection instead of the
+ * full document.</p>
+ *
+ * <p>A recipe needs a title, and its cooking time cannot be negative. These
+ * constraints are checked on every create and update, and on each record of a
+ * bulk import.</p>
+ *
+ * <p>The version is incremented on every write. Saves are optimistically
+ * locked on it, and it serves as the recipe's ETag.</p>
+ *
  */
 @Document(collection = "recipes")
-public class Recipe {
+@CompoundIndexes({
+        @CompoundIndex(name = "title_id", def = "{'title': 1, '_id': 1}"),
+        @CompoundIndex(name = "cookingTime_id", def = "{'cookingTime': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_title_id", def = "{'category': 1, 'title': 1, '_id': 1}"),
+        @CompoundIndex(name = "createdBy_id", def = "{'createdBy': 1, '_id': 1}")
+})
+public class Recipe implements RecipeSummary {
     @Id
     private String id;
+    @NotBlank
     private String title;
     private List<String> ingredients;
+    @Indexed
+    private List<String> normalizedIngredients;
+    @Indexed
+    private List<String> normalizedIngredientTerms;
     private String instructions;
+    @PositiveOrZero
     private Integer cookingTime;
     private String category;
     private String createdBy; // Added field
+    @Version
+    private Long version;
 
     // Default constructor required by MongoDB
     public Recipe() {
@@ -45,6 +90,7 @@ public class Recipe {
     }
 
     // Getters and Setters
+    @Override
     public String getId() {
         return id;
     }
@@ -53,6 +99,7 @@ public class Recipe {
         this.id = id;
     }
 
+    @Override
     public String getTitle() {
         return title;
     }
@@ -69,6 +116,22 @@ public class Recipe {
         this.ingredients = ingredients;
     }
 
+    public List<String> getNormalizedIngredients() {
+        return normalizedIngredients;
+    }
+
+    public void setNormalizedIngredients(List<String> normalizedIngredients) {
+        this.normalizedIngredients = normalizedIngredients;
+    }
+
+    public List<String> getNormalizedIngredientTerms() {
+        return normalizedIngredientTerms;
+    }
+
+    public void setNormalizedIngredientTerms(List<String> normalizedIngredientTerms) {
+        this.normalizedIngredientTerms = normalizedIngredientTerms;
+    }
+
     public String getInstructions() {
         return instructions;
     }
@@ -77,6 +140,7 @@ public class Recipe {
         this.instructions = instructions;
     }
 
+    @Override
     public Integer getCookingTime() {
         return cookingTime;
     }
@@ -85,6 +149,7 @@ public class Recipe {
         this.cookingTime = cookingTime;
     }
 
+    @Override
     public String getCategory() {
         return category;
     }
@@ -101,6 +166,14 @@ public class Recipe {
         this.createdBy = createdBy;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of the recipe.
      *
@@ -112,10 +185,13 @@ public class Recipe {
                 "id='" + id + '\'' +
                 ", title='" + title + '\'' +
                 ", ingredients=" + ingredients +
+                ", normalizedIngredients=" + normalizedIngredients +
+                ", normalizedIngredientTerms=" + normalizedIngredientTerms +
                 ", instructions='" + instructions + '\'' +
                 ", cookingTime=" + cookingTime +
                 ", category='" + category + '\'' +
                 ", createdBy='" + createdBy + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.recipeapi.recipeapi.model;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Facet counts for a set of matching recipes.
+ *
+ * <p>Each map is ordered for display: categories and ingredients by descending
+ * count, cooking time buckets from shortest to longest.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class RecipeFacets {
+
+    /**
+     * Lower bounds, in minutes, of the cooking time buckets. The last bucket is open-ended.
+     */
+    public static final int[] COOKING_TIME_BOUNDARIES = {0, 15, 30, 60, 120};
+
+    private final Map<String, Long> categories;
+    private final Map<String, Long> cookingTimes;
+    private final Map<String, Long> ingredients;
+
+    /**
+     * Creates a new RecipeFacets.
+     *
+     * @param categories Number of matching recipes per category
+     * @param cookingTimes Number of matching recipes per cooking time bucket
+     * @param ingredients Number of matching recipes using each of the most common ingredients
+     */
+    public RecipeFacets(Map<String, Long> categories, Map<String, Long> cookingTimes, Map<String, Long> ingredients) {
+        this.categories = categories;
+        this.cookingTimes = cookingTimes;
+        this.ingredients = ingredients;
+    }
+
+    /**
+     * Returns the label of the bucket a cooking time falls into, such as "15-30" or "120+".
+     *
+     * @param cookingTime The cooking time in minutes
+     * @return The bucket label
+     */
+    public static String cookingTimeBucket(int cookingTime) {
+        int last = COOKING_TIME_BOUNDARIES.length - 1;
+        if (cookingTime >= COOKING_TIME_BOUNDARIES[last]) {
+            return COOKING_TIME_BOUNDARIES[last] + "+";
+        }
+
+        for (int i = last - 1; i >= 0; i--) {
+            if (cookingTime >= COOKING_TIME_BOUNDARIES[i]) {
+                return COOKING_TIME_BOUNDARIES[i] + "-" + COOKING_TIME_BOUNDARIES[i + 1];
+            }
+        }
+        return "<" + COOKING_TIME_BOUNDARIES[0];
+    }
+
+    /**
+     * Creates an empty cooking time map with every bucket present, in order.
+     *
+     * @return A map from bucket label to a zero count
+     */
+    public static Map<String, Long> emptyCookingTimes() {
+        Map<String, Long> cookingTimes = new LinkedHashMap<>();
+        for (int boundary : COOKING_TIME_BOUNDARIES) {
+            cookingTimes.put(cookingTimeBucket(boundary), 0L);
+        }
+        return cookingTimes;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public Map<String, Long> getCookingTimes() {
+        return cookingTimes;
+    }
+
+    public Map<String, Long> getIngredients() {
+        return ingredients;
+    }
+}
@@ -0,0 +1,94 @@
+package com.recipeapi.recipeapi.model;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A sparse fieldset: the recipe fields a client asked for with {@code fields=}.
+ *
+ * <p>The fields are pushed down to MongoDB as a projection, so omitted fields
+ * are neither read nor allocated, and each recipe is returned as a map holding
+ * only the requested fields, in the order they were requested.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class RecipeFields {
+
+    private static final Map<String, Function<RecipeSummary, Object>> SUMMARY_GETTERS = new LinkedHashMap<>();
+    private static final Map<String, Function<Recipe, Object>> RECIPE_GETTERS = new LinkedHashMap<>();
+
+    static {
+        SUMMARY_GETTERS.put("id", RecipeSummary::getId);
+        SUMMARY_GETTERS.put("title", RecipeSummary::getTitle);
+        SUMMARY_GETTERS.put("category", RecipeSummary::getCategory);
+        SUMMARY_GETTERS.put("cookingTime", RecipeSummary::getCookingTime);
+        RECIPE_GETTERS.put("ingredients", Recipe::getIngredients);
+        RECIPE_GETTERS.put("normalizedIngredients", Recipe::getNormalizedIngredients);
+        RECIPE_GETTERS.put("instructions", Recipe::getInstructions);
+        RECIPE_GETTERS.put("createdBy", Recipe::getCreatedBy);
+    }
+
+    private final List<String> names;
+
+    private RecipeFields(List<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma-separated list of field names.
+     *
+     * @param fields The field names, such as {@code "id,title"}
+     * @return The fieldset
+     * @throws IllegalArgumentException if the list is empty or names an unknown field
+     */
+    public static RecipeFields parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!SUMMARY_GETTERS.containsKey(field) && !RECIPE_GETTERS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown recipe field: " + field);
+            }
+            names.add(field);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        return new RecipeFields(new ArrayList<>(names));
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Tells whether every requested field is part of {@link RecipeSummary}.
+     *
+     * @return true if a summary holds all the requested fields
+     */
+    public boolean isSummary() {
+        return SUMMARY_GETTERS.keySet().containsAll(names);
+    }
+
+    /**
+     * Copies the requested fields of a recipe into a map.
+     *
+     * @param recipe The recipe; a full {@link Recipe} unless {@link #isSummary()}
+     * @return The requested fields by name, in the requested order
+     */
+    public Map<String, Object> select(RecipeSummary recipe) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String name : names) {
+            Function<RecipeSummary, Object> getter = SUMMARY_GETTERS.get(name);
+            selected.put(name, getter != null ? getter.apply(recipe) : RECIPE_GETTERS.get(name).apply((Recipe) recipe));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,74 @@
+package com.recipeapi.recipeapi.model;
+import java.util.List;
+
+/**
+ * A combination of attribute filters over recipes.
+ *
+ * <p>Values given for the same attribute are alternatives: a recipe matches
+ * the category filter if it is in any of the listed categories, and likewise
+ * for creators. Ingredients are cumulative: a recipe must use every listed
+ * ingredient. Filters on different attributes must all hold. Empty lists and
+ * null bounds leave the attribute unrestricted.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class RecipeFilter {
+
+    private final List<String> categories;
+    private final List<String> createdBy;
+    private final Integer minCookingTime;
+    private final Integer maxCookingTime;
+    private final List<String> ingredients;
+
+    /**
+     * Creates a new RecipeFilter.
+     *
+     * @param categories The accepted categories
+     * @param createdBy The accepted creators
+     * @param minCookingTime The minimum cooking time in minutes, inclusive
+     * @param maxCookingTime The maximum cooking time in minutes, inclusive
+     * @param ingredients The ingredients every matching recipe must use
+     */
+    public RecipeFilter(List<String> categories, List<String> createdBy,
+                        Integer minCookingTime, Integer maxCookingTime, List<String> ingredients) {
+        this.categories = categories != null ? categories : List.of();
+        this.createdBy = createdBy != null ? createdBy : List.of();
+        this.minCookingTime = minCookingTime;
+        this.maxCookingTime = maxCookingTime;
+        this.ingredients = ingredients != null ? ingredients : List.of();
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public List<String> getCreatedBy() {
+        return createdBy;
+    }
+
+    public Integer getMinCookingTime() {
+        return minCookingTime;
+    }
+
+    public Integer getMaxCookingTime() {
+        return maxCookingTime;
+    }
+
+    public List<String> getIngredients() {
+        return ingredients;
+    }
+
+    public boolean hasCookingTimeRange() {
+        return minCookingTime != null || maxCookingTime != null;
+    }
+
+    /**
+     * Tells whether the filter leaves every attribute unrestricted.
+     *
+     * @return true if every recipe matches the filter
+     */
+    public boolean isEmpty() {
+        return categories.isEmpty() && createdBy.isEmpty() && ingredients.isEmpty() && !hasCookingTimeRange();
+    }
+}
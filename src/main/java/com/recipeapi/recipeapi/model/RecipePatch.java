@@ -0,0 +1,141 @@
+package com.recipeapi.recipeapi.model;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A partial update of a recipe: the fields a client sent with {@code PATCH}.
+ *
+ * <p>Fields present in the patch are replaced, fields left out keep their
+ * current value, and a null value clears the field (the title cannot be
+ * cleared). The values are checked when the patch is parsed, so the update
+ * can be sent to MongoDB as a single {@code $set} without reading the recipe
+ * first.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class RecipePatch {
+
+    private static final Map<String, Function<Object, Object>> CONVERTERS = new LinkedHashMap<>();
+    private static final Map<String, BiConsumer<Recipe, Object>> SETTERS = new LinkedHashMap<>();
+
+    static {
+        CONVERTERS.put("title", RecipePatch::toTitle);
+        CONVERTERS.put("ingredients", RecipePatch::toIngredients);
+        CONVERTERS.put("instructions", value -> toString("instructions", value));
+        CONVERTERS.put("cookingTime", RecipePatch::toCookingTime);
+        CONVERTERS.put("category", value -> toString("category", value));
+        CONVERTERS.put("createdBy", value -> toString("createdBy", value));
+        SETTERS.put("title", (recipe, value) -> recipe.setTitle((String) value));
+        SETTERS.put("ingredients", (recipe, value) -> recipe.setIngredients(castList(value)));
+        SETTERS.put("instructions", (recipe, value) -> recipe.setInstructions((String) value));
+        SETTERS.put("cookingTime", (recipe, value) -> recipe.setCookingTime((Integer) value));
+        SETTERS.put("category", (recipe, value) -> recipe.setCategory((String) value));
+        SETTERS.put("createdBy", (recipe, value) -> recipe.setCreatedBy((String) value));
+    }
+
+    private final Map<String, Object> changes;
+
+    private RecipePatch(Map<String, Object> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Parses and checks the fields of a request body.
+     *
+     * @param body The fields to change, by name
+     * @return The patch
+     * @throws IllegalArgumentException if the body is empty, names a field that cannot
+     *         be changed or holds a value of the wrong type
+     */
+    public static RecipePatch parse(Map<String, Object> body) {
+        if (body == null || body.isEmpty()) {
+            throw new IllegalArgumentException("A patch must change at least one field");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : body.entrySet()) {
+            Function<Object, Object> converter = CONVERTERS.get(entry.getKey());
+            if (converter == null) {
+                throw new IllegalArgumentException("Unknown or read-only recipe field: " + entry.getKey());
+            }
+            changes.put(entry.getKey(), entry.getValue() == null ? null : converter.apply(entry.getValue()));
+        }
+        if (changes.containsKey("title") && changes.get("title") == null) {
+            throw new IllegalArgumentException("title must not be blank");
+        }
+        return new RecipePatch(changes);
+    }
+
+    /**
+     * Returns the fields to change; a null value clears the field.
+     *
+     * @return The new values by field name, in request order
+     */
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Tells whether the patch changes the ingredients.
+     *
+     * @return true if the ingredients are set or cleared
+     */
+    public boolean changesIngredients() {
+        return changes.containsKey("ingredients");
+    }
+
+    /**
+     * Returns the new ingredients.
+     *
+     * @return The ingredients, or null if they are cleared or not changed
+     */
+    public List<String> getIngredients() {
+        return castList(changes.get("ingredients"));
+    }
+
+    /**
+     * Copies the changed fields into a recipe.
+     *
+     * @param recipe The recipe to change
+     */
+    public void applyTo(Recipe recipe) {
+        changes.forEach((name, value) -> SETTERS.get(name).accept(recipe, value));
+    }
+
+    private static Object toTitle(Object value) {
+        if (!(value instanceof String title) || title.isBlank()) {
+            throw new IllegalArgumentException("title must not be blank");
+        }
+        return title;
+    }
+
+    private static Object toIngredients(Object value) {
+        if (!(value instanceof List<?> list) || !list.stream().allMatch(String.class::isInstance)) {
+            throw new IllegalArgumentException("ingredients must be a list of strings");
+        }
+        return List.copyOf(castList(list));
+    }
+
+    private static Object toCookingTime(Object value) {
+        if (!(value instanceof Integer cookingTime) || cookingTime < 0) {
+            throw new IllegalArgumentException("cookingTime must be a non-negative integer");
+        }
+        return cookingTime;
+    }
+
+    private static Object toString(String name, Object value) {
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castList(Object value) {
+        return (List<String>) value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.recipeapi.recipeapi.model;
+
+/**
+ * Summary view of a recipe: the fields shown in recipe lists.
+ *
+ * <p>Repository queries that take a result type return this as a closed
+ * projection, so only these fields are read from MongoDB and serialized,
+ * leaving out the ingredients and the potentially long instructions.
+ * {@link Recipe} implements it, so the same code can handle full recipes
+ * and summaries.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public interface RecipeSummary {
+
+    String getId();
+
+    String getTitle();
+
+    String getCategory();
+
+    Integer getCookingTime();
+}
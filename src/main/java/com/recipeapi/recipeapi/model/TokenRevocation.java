@@ -0,0 +1,75 @@
+package com.recipeapi.recipeapi.model;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Model class representing the revocation of a user's tokens.
+ *
+ * <p>This class maps to documents in the "tokenRevocations" collection in
+ * MongoDB, one per user whose tokens were revoked. Tokens carrying a user
+ * version below {@code minimumVersion} are rejected. A user registered again
+ * under the name of a deleted one starts at that version, so the new user's
+ * tokens are accepted and the old user's are not.</p>
+ *
+ * <p>A revocation only matters until the tokens it rejects have expired, so
+ * the TTL index on {@code expiresAt} removes it after one token lifetime and
+ * the collection stays small.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Document(collection = "tokenRevocations")
+public class TokenRevocation {
+
+    @Id
+    private String username;
+    private long minimumVersion;
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    /**
+     * Default constructor required by MongoDB.
+     */
+    public TokenRevocation() {
+    }
+
+    /**
+     * Creates a new TokenRevocation.
+     *
+     * @param username The user whose tokens are revoked
+     * @param minimumVersion The lowest user version still accepted
+     * @param expiresAt When every revoked token has expired
+     */
+    public TokenRevocation(String username, long minimumVersion, Date expiresAt) {
+        this.username = username;
+        this.minimumVersion = minimumVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getMinimumVersion() {
+        return minimumVersion;
+    }
+
+    public void setMinimumVersion(long minimumVersion) {
+        this.minimumVersion = minimumVersion;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -15,6 +15,10 @@ import java.util.List;
  * <p>This class maps to documents in the "users" collection in MongoDB
  * and implements UserDetails for Spring Security integration.</p>
  *
+ * <p>The token version is embedded in every token issued to the user and is
+ * incremented whenever their roles or status change, which revokes the
+ * tokens issued before.</p>
+ *
  * @author Your Name
  * @version 1.0
  */
@@ -29,6 +33,7 @@ public class User implements UserDetails {
     private String email;
     private List<String> roles = new ArrayList<>();
     private boolean enabled = true;
+    private long tokenVersion;
 
     /**
      * Default constructor required by MongoDB.
@@ -154,6 +159,14 @@ public class User implements UserDetails {
         this.enabled = enabled;
     }
 
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     /**
      * Returns a string representation of the user.
      *
@@ -167,6 +180,7 @@ public class User implements UserDetails {
                 ", email='" + email + '\'' +
                 ", roles=" + roles +
                 ", enabled=" + enabled +
+                ", tokenVersion=" + tokenVersion +
                 '}';
     }
 }
\ No newline at end of file
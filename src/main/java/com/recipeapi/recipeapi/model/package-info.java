@@ -9,7 +9,11 @@
  * <p>The main models in this package are:</p>
  * <ul>
  *   <li>{@link com.recipeapi.recipeapi.model.Recipe} - Represents a recipe with ingredients, instructions, etc.</li>
+ *   <li>{@link com.recipeapi.recipeapi.model.RecipeSummary} - The fields of a recipe shown in lists, read as a projection</li>
+ *   <li>{@link com.recipeapi.recipeapi.model.BulkImportResult} - The outcome of a bulk import, with per-record errors</li>
+ *   <li>{@link com.recipeapi.recipeapi.model.RecipePatch} - The fields changed by a partial update</li>
  *   <li>{@link com.recipeapi.recipeapi.model.User} - Represents a user with authentication details</li>
+ *   <li>{@link com.recipeapi.recipeapi.model.TokenRevocation} - The oldest user version whose tokens are still accepted</li>
  * </ul>
  *
  * <p>Models in this package use Spring Data MongoDB annotations for document mapping
@@ -0,0 +1,143 @@
+package com.recipeapi.recipeapi.repository;
+import com.recipeapi.recipeapi.model.RecipeSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a keyset-paginated recipe listing.
+ *
+ * <p>A cursor holds the sort key and the ID of the last recipe on a page.
+ * The next page starts strictly after that (sort key, ID) pair, so the database
+ * can seek directly to it through a compound index instead of skipping over
+ * every preceding document.</p>
+ *
+ * <p>Cursors are handed to clients as opaque URL-safe tokens.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class RecipeCursor {
+
+    /**
+     * Fields that listings can be keyset-paginated on. Each is backed by a compound index with the ID.
+     */
+    public static final Set<String> SORT_FIELDS = Set.of("title", "cookingTime", "id");
+
+    private static final char SEPARATOR = '\n';
+
+    private final Object sortValue;
+    private final String id;
+
+    /**
+     * Creates a new RecipeCursor.
+     *
+     * @param sortValue the sort key of the last recipe returned (may be null)
+     * @param id the ID of the last recipe returned
+     */
+    public RecipeCursor(Object sortValue, String id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor pointing just after the given recipe.
+     *
+     * @param recipe the last recipe of a page
+     * @param sortBy the field the listing is sorted by
+     * @return the cursor for the following page
+     */
+    public static RecipeCursor after(RecipeSummary recipe, String sortBy) {
+        Object sortValue;
+        switch (sortBy) {
+            case "title":
+                sortValue = recipe.getTitle();
+                break;
+            case "cookingTime":
+                sortValue = recipe.getCookingTime();
+                break;
+            default:
+                sortValue = recipe.getId();
+        }
+        return new RecipeCursor(sortValue, recipe.getId());
+    }
+
+    /**
+     * Checks that a listing can be keyset-paginated on a field.
+     *
+     * @param sortBy the requested sort field
+     * @throws IllegalArgumentException if the field is not supported
+     */
+    public static void checkSortField(String sortBy) {
+        if (!SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination is not supported when sorting by: " + sortBy);
+        }
+    }
+
+    /**
+     * Decodes a cursor token received from a client.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static RecipeCursor decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        int separator = decoded.lastIndexOf(SEPARATOR);
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String id = decoded.substring(separator + 1);
+        String value = decoded.substring(1, separator);
+
+        switch (decoded.charAt(0)) {
+            case 'n':
+                return new RecipeCursor(null, id);
+            case 's':
+                return new RecipeCursor(value, id);
+            case 'i':
+                try {
+                    return new RecipeCursor(Integer.valueOf(value), id);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+            default:
+                throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return the URL-safe cursor token
+     */
+    public String encode() {
+        String value;
+        if (sortValue == null) {
+            value = "n";
+        } else if (sortValue instanceof Integer) {
+            value = "i" + sortValue;
+        } else {
+            value = "s" + sortValue;
+        }
+
+        byte[] bytes = (value + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
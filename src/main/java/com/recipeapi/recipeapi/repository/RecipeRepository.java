@@ -1,11 +1,14 @@
 package com.recipeapi.recipeapi.repository;
 import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,12 +17,31 @@ import java.util.List;
  * <p>This interface provides methods for CRUD operations on recipes,
  * as well as custom queries for searching and filtering recipes.</p>
  *
+ * <p>Queries that take a {@code Class<T> type} argument return either full
+ * {@link Recipe} documents or a projection such as
+ * {@link com.recipeapi.recipeapi.model.RecipeSummary}, in which case only the
+ * projected fields are read from the database.</p>
+ *
  * @author Your Name
  * @version 1.0
  */
 
 @Repository
-public interface RecipeRepository extends MongoRepository<Recipe, String> {
+public interface RecipeRepository extends MongoRepository<Recipe, String>, RecipeRepositoryCustom {
+
+    /**
+     * Filter used by the advanced search: title or category matches the term,
+     * and the cooking time is at most the given value.
+     *
+     * <p>The regex is unanchored and case-insensitive, so no index can bound
+     * it: at best the title and category indexes are read over their whole
+     * range, or the cooking time index is used and the regex is tested on each
+     * recipe it yields.</p>
+     */
+    String SEARCH_QUERY = "{ $and: [ " +
+            "{ $or: [ { 'title': { $regex: ?0, $options: 'i' } }, { 'category': { $regex: ?0, $options: 'i' } } ] }, " +
+            "{ 'cookingTime': { $lte: ?1 } } " +
+            "] }";
 
     // Find recipes by category
     /**
@@ -34,20 +56,41 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
     /**
      * Finds recipes by title containing the given text (case insensitive).
      *
+     * <p>The match is an unanchored regex, which reads the whole title index.</p>
+     *
      * @param title The title substring to search for
+     * @param limit The maximum number of recipes to return
+     * @param type The type to read the recipes as
+     * @param <T> The result type
      * @return List of recipes with matching titles
      */
-    List<Recipe> findByTitleContainingIgnoreCase(String title);
+    <T> List<T> findByTitleContainingIgnoreCase(String title, Limit limit, Class<T> type);
 
-    // Find recipes that contain a specific ingredient
+    // Find recipes whose ingredients contain every given word
     /**
-     * Finds recipes that contain a specific ingredient.
+     * Finds recipes whose canonical ingredient names contain every given word.
+     *
+     * <p>This is the match the in-memory ingredient index makes, answered from
+     * the multikey index on {@code normalizedIngredientTerms}. The words are
+     * matched across all of a recipe's ingredients, not within a single one.</p>
      *
-     * @param ingredient The ingredient to search for
-     * @return List of recipes containing the ingredient
+     * @param terms The words of the canonical ingredient name
+     * @param limit The maximum number of recipes to return
+     * @param type The type to read the recipes as
+     * @param <T> The result type
+     * @return List of recipes using the ingredient
      */
-    @Query("{ 'ingredients': { $regex: ?0, $options: 'i' } }")
-    List<Recipe> findByIngredient(String ingredient);
+    @Query("{ 'normalizedIngredientTerms': { $all: ?0 } }")
+    <T> List<T> findByAllNormalizedIngredientTerms(List<String> terms, Limit limit, Class<T> type);
+
+    // Find recipes that use any of the given ingredients
+    /**
+     * Finds recipes using at least one of the given ingredients, by canonical name.
+     *
+     * @param normalizedIngredients The canonical ingredient names to look for
+     * @return List of recipes using any of the ingredients
+     */
+    List<Recipe> findByNormalizedIngredientsIn(Collection<String> normalizedIngredients);
 
     // Find recipes with cooking time less than the provided value
     /**
@@ -58,14 +101,27 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      */
     List<Recipe> findByCookingTimeLessThan(Integer maxCookingTime);
 
-    // Implement pagination for all recipes
+    // Find recipes by ID
+    /**
+     * Finds the recipes with the given IDs, in no particular order.
+     *
+     * @param ids The recipe IDs
+     * @param type The type to read the recipes as
+     * @param <T> The result type
+     * @return List of the recipes found
+     */
+    <T> List<T> findByIdIn(Collection<String> ids, Class<T> type);
+
+    // Pagination for all recipes without a count query
     /**
-     * Finds all recipes with pagination.
+     * Finds all recipes as a slice, without counting the collection.
      *
      * @param pageable Pagination information
-     * @return Page of recipes
+     * @param type The type to read the recipes as
+     * @param <T> The result type
+     * @return Slice of recipes
      */
-    Page<Recipe> findAll(Pageable pageable);
+    <T> Slice<T> findAllBy(Pageable pageable, Class<T> type);
 
     // Implement pagination for recipes by category
     /**
@@ -77,6 +133,27 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      */
     Page<Recipe> findByCategory(String category, Pageable pageable);
 
+    // Pagination for recipes by category without a count query
+    /**
+     * Finds recipes by category as a slice, without counting the matches.
+     *
+     * @param category The category to filter by
+     * @param pageable Pagination information
+     * @param type The type to read the recipes as
+     * @param <T> The result type
+     * @return Slice of recipes in the given category
+     */
+    <T> Slice<T> findSliceByCategory(String category, Pageable pageable, Class<T> type);
+
+    // Count recipes by category
+    /**
+     * Counts the recipes in a category.
+     *
+     * @param category The category to count
+     * @return Number of recipes in the category
+     */
+    long countByCategory(String category);
+
     // Advanced search with multiple criteria
     /**
      * Advanced search for recipes with multiple criteria.
@@ -93,9 +170,32 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable Pagination information
      * @return Page of recipes matching the criteria
      */
-    @Query("{ $and: [ " +
-            "{ $or: [ { 'title': { $regex: ?0, $options: 'i' } }, { 'category': { $regex: ?0, $options: 'i' } } ] }, " +
-            "{ 'cookingTime': { $lte: ?1 } } " +
-            "] }")
+    @Query(SEARCH_QUERY)
     Page<Recipe> findBySearchTermAndMaxCookingTime(String searchTerm, Integer maxCookingTime, Pageable pageable);
+
+    // Advanced search without a count query
+    /**
+     * Advanced search for recipes as a slice, without counting the matches.
+     *
+     * @param searchTerm The search term for title and category
+     * @param maxCookingTime The maximum cooking time in minutes
+     * @param pageable Pagination information
+     * @param type The type to read the recipes as
+     * @param <T> The result type
+     * @return Slice of recipes matching the criteria
+     */
+    @Query(SEARCH_QUERY)
+    <T> Slice<T> findSliceBySearchTermAndMaxCookingTime(String searchTerm, Integer maxCookingTime,
+                                                        Pageable pageable, Class<T> type);
+
+    // Count the matches of the advanced search
+    /**
+     * Counts the recipes matching the advanced search criteria.
+     *
+     * @param searchTerm The search term for title and category
+     * @param maxCookingTime The maximum cooking time in minutes
+     * @return Number of matching recipes
+     */
+    @Query(value = SEARCH_QUERY, count = true)
+    long countBySearchTermAndMaxCookingTime(String searchTerm, Integer maxCookingTime);
 }
\ No newline at end of file
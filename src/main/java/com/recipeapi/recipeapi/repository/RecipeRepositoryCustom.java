@@ -0,0 +1,155 @@
+package com.recipeapi.recipeapi.repository;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Custom query methods for Recipe entities that cannot be expressed as derived queries.
+ *
+ * <p>These methods are implemented with {@code MongoTemplate} in
+ * {@link RecipeRepositoryCustomImpl} and exposed through {@link RecipeRepository}.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public interface RecipeRepositoryCustom {
+
+    /**
+     * Finds the recipes that follow a cursor in a keyset-paginated listing.
+     *
+     * <p>Results are sorted by the given field and then by ID, which makes the
+     * order total and lets the query seek through a compound index.
+     * No count query is issued.</p>
+     *
+     * @param category The category to filter by, or null for all recipes
+     * @param sortBy The field to sort by (one of {@link RecipeCursor#SORT_FIELDS})
+     * @param direction The sort direction
+     * @param after The cursor to start after, or null for the first page
+     * @param limit The maximum number of recipes to return
+     * @param type The type to read the recipes as, {@link Recipe} or a projection of it
+     * @param <T> The result type
+     * @return List of recipes following the cursor
+     */
+    <T> List<T> findAfter(String category, String sortBy, Sort.Direction direction, RecipeCursor after,
+                          int limit, Class<T> type);
+
+    /**
+     * Computes facet counts for the advanced search in a single aggregation.
+     *
+     * <p>Runs one {@code $facet} pipeline over the recipes matched by
+     * {@link RecipeRepository#SEARCH_QUERY}, counting recipes per category,
+     * per cooking time bucket and per ingredient.</p>
+     *
+     * @param searchTerm The search term for title and category
+     * @param maxCookingTime The maximum cooking time in minutes
+     * @param topIngredients The number of most common ingredients to report
+     * @return The facet counts
+     */
+    RecipeFacets findSearchFacets(String searchTerm, Integer maxCookingTime, int topIngredients);
+
+    /**
+     * Finds the recipes matching a combination of attribute filters.
+     *
+     * <p>Ingredients are compared by canonical name against {@code normalizedIngredients}.</p>
+     *
+     * @param filter The filter to apply
+     * @param pageable The pagination information
+     * @param type The type to read the recipes as, {@link Recipe} or a projection of it
+     * @param <T> The result type
+     * @return Page of matching recipes
+     */
+    <T> Page<T> findByFilter(RecipeFilter filter, Pageable pageable, Class<T> type);
+
+    /**
+     * Sets or clears fields of a recipe in a single atomic {@code findAndModify}.
+     *
+     * <p>The version is incremented along with the changes.</p>
+     *
+     * @param id The recipe ID
+     * @param changes The new values by field name; a null value clears the field
+     * @return The recipe as it was before the update, or null if there is no recipe with that ID
+     */
+    Recipe findAndSetById(String id, Map<String, Object> changes);
+
+    /**
+     * Gives version 0 to a recipe stored before recipes were versioned.
+     *
+     * <p>The update only applies if the recipe still has no version, so it
+     * is safe to race with the version backfill and with other requests.</p>
+     *
+     * @param id The recipe ID
+     * @return true if the version was set by this call
+     */
+    boolean initializeVersion(String id);
+
+    /**
+     * Streams the IDs of the recipes matching a combination of attribute filters.
+     *
+     * <p>Only the IDs are read, {@code batchSize} at a time. The stream holds
+     * a cursor and must be closed.</p>
+     *
+     * @param filter The filter to apply
+     * @param batchSize The number of IDs fetched per round trip
+     * @return Stream of the matching recipe IDs
+     */
+    Stream<String> streamIdsByFilter(RecipeFilter filter, int batchSize);
+
+    /**
+     * Sets the category of the given recipes that still match a filter, in a single {@code updateMany}.
+     *
+     * <p>The filter is applied again, so a recipe that stopped matching since
+     * its ID was read is left alone. So are recipes already in the category;
+     * the version of every other recipe is incremented.</p>
+     *
+     * @param filter The filter the recipes must still match
+     * @param ids The IDs of the recipes to update
+     * @param category The new category
+     * @return The number of recipes whose category changed
+     */
+    long updateCategoryByFilterAndIds(RecipeFilter filter, Collection<String> ids, String category);
+
+    /**
+     * Deletes the given recipes that still match a filter, in a single {@code deleteMany}.
+     *
+     * <p>The filter is applied again, so a recipe that stopped matching since
+     * its ID was read is not deleted.</p>
+     *
+     * @param filter The filter the recipes must still match
+     * @param ids The IDs of the recipes to delete
+     * @return The number of recipes deleted
+     */
+    long deleteByFilterAndIds(RecipeFilter filter, Collection<String> ids);
+
+    /**
+     * Finds the recipes with the given IDs, reading only the requested fields.
+     *
+     * <p>The ID is always read; the other fields of the returned recipes are left null.</p>
+     *
+     * @param ids The recipe IDs
+     * @param fields The fields to read
+     * @return List of the recipes found, in no particular order
+     */
+    List<Recipe> findFieldsByIdIn(Collection<String> ids, RecipeFields fields);
+
+    /**
+     * Streams every recipe in ID order through a database cursor.
+     *
+     * <p>Recipes are fetched in batches as the stream is consumed, so memory use
+     * does not depend on the size of the collection. The stream holds the cursor
+     * open and must be closed.</p>
+     *
+     * @param fields The fields to read, or null for whole recipes
+     * @param batchSize The number of recipes fetched per round trip
+     * @return Stream of all recipes
+     */
+    Stream<Recipe> streamAll(RecipeFields fields, int batchSize);
+}
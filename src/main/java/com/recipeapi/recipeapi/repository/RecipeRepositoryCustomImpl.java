@@ -0,0 +1,295 @@
+package com.recipeapi.recipeapi.repository;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import com.recipeapi.recipeapi.search.IngredientNormalizer;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * MongoTemplate-based implementation of {@link RecipeRepositoryCustom}.
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class RecipeRepositoryCustomImpl implements RecipeRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Creates a new RecipeRepositoryCustomImpl.
+     *
+     * @param mongoTemplate Template for MongoDB operations
+     */
+    public RecipeRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> List<T> findAfter(String category, String sortBy, Sort.Direction direction,
+                                 RecipeCursor after, int limit, Class<T> type) {
+        RecipeCursor.checkSortField(sortBy);
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (category != null) {
+            criteria.add(Criteria.where("category").is(category));
+        }
+        if (after != null) {
+            criteria.add(seek(sortBy, direction, after));
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+
+        Sort sort = "id".equals(sortBy)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        query.with(sort).limit(limit);
+
+        return mongoTemplate.query(Recipe.class).as(type).matching(query).all();
+    }
+
+    /**
+     * Builds the criteria that select recipes strictly after a cursor.
+     *
+     * <p>MongoDB sorts missing and null values before all others and its range
+     * operators never match null, so a null sort key needs its own branches.</p>
+     *
+     * @param sortBy The sort field
+     * @param direction The sort direction
+     * @param after The cursor
+     * @return The seek criteria
+     */
+    private Criteria seek(String sortBy, Sort.Direction direction, RecipeCursor after) {
+        boolean ascending = direction.isAscending();
+        String id = after.getId();
+
+        if ("id".equals(sortBy)) {
+            return ascending ? Criteria.where("id").gt(id) : Criteria.where("id").lt(id);
+        }
+
+        Object value = after.getSortValue();
+
+        if (ascending && value != null) {
+            return new Criteria().orOperator(
+                    Criteria.where(sortBy).gt(value),
+                    Criteria.where(sortBy).is(value).and("id").gt(id));
+        }
+        if (ascending) {
+            return new Criteria().orOperator(
+                    Criteria.where(sortBy).is(null).and("id").gt(id),
+                    Criteria.where(sortBy).ne(null));
+        }
+        if (value != null) {
+            return new Criteria().orOperator(
+                    Criteria.where(sortBy).lt(value),
+                    Criteria.where(sortBy).is(value).and("id").lt(id),
+                    Criteria.where(sortBy).is(null));
+        }
+        return Criteria.where(sortBy).is(null).and("id").lt(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RecipeFacets findSearchFacets(String searchTerm, Integer maxCookingTime, int topIngredients) {
+        Criteria criteria = new Criteria().andOperator(
+                new Criteria().orOperator(
+                        Criteria.where("title").regex(searchTerm, "i"),
+                        Criteria.where("category").regex(searchTerm, "i")),
+                Criteria.where("cookingTime").lte(maxCookingTime));
+
+        // The last boundary closes the open-ended bucket; $bucket needs an upper bound
+        Object[] boundaries = new Object[RecipeFacets.COOKING_TIME_BOUNDARIES.length + 1];
+        for (int i = 0; i < RecipeFacets.COOKING_TIME_BOUNDARIES.length; i++) {
+            boundaries[i] = RecipeFacets.COOKING_TIME_BOUNDARIES[i];
+        }
+        boundaries[boundaries.length - 1] = Integer.MAX_VALUE;
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.facet(Aggregation.sortByCount("category")).as("categories")
+                        .and(Aggregation.bucket("cookingTime")
+                                .withBoundaries(boundaries)
+                                .withDefaultBucket(Integer.MAX_VALUE)).as("cookingTimes")
+                        .and(Aggregation.unwind("normalizedIngredients"),
+                                Aggregation.sortByCount("normalizedIngredients"),
+                                Aggregation.limit(topIngredients)).as("ingredients"));
+
+        Document result = mongoTemplate.aggregate(aggregation, Recipe.class, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return new RecipeFacets(new LinkedHashMap<>(), RecipeFacets.emptyCookingTimes(), new LinkedHashMap<>());
+        }
+
+        Map<String, Long> cookingTimes = RecipeFacets.emptyCookingTimes();
+        for (Document bucket : result.getList("cookingTimes", Document.class)) {
+            String label = RecipeFacets.cookingTimeBucket(((Number) bucket.get("_id")).intValue());
+            cookingTimes.merge(label, ((Number) bucket.get("count")).longValue(), Long::sum);
+        }
+
+        return new RecipeFacets(
+                toCounts(result.getList("categories", Document.class)),
+                cookingTimes,
+                toCounts(result.getList("ingredients", Document.class)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Page<T> findByFilter(RecipeFilter filter, Pageable pageable, Class<T> type) {
+        Query query = filterQuery(filter);
+        long total = mongoTemplate.count(query, Recipe.class);
+        List<T> recipes = mongoTemplate.query(Recipe.class).as(type).matching(Query.of(query).with(pageable)).all();
+        return new PageImpl<>(recipes, pageable, total);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Recipe findAndSetById(String id, Map<String, Object> changes) {
+        Update update = new Update();
+        changes.forEach((field, value) -> {
+            if (value == null) {
+                update.unset(field);
+            } else {
+                update.set(field, value);
+            }
+        });
+        update.inc("version", 1);
+        // The previous version tells the caller what changed; the new one follows from the update
+        return mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(false), Recipe.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean initializeVersion(String id) {
+        return mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("version").exists(false)),
+                new Update().set("version", 0L), Recipe.class) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<String> streamIdsByFilter(RecipeFilter filter, int batchSize) {
+        Query query = filterQuery(filter).cursorBatchSize(batchSize);
+        query.fields().include("id");
+        return mongoTemplate.stream(query, Recipe.class).map(Recipe::getId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long updateCategoryByFilterAndIds(RecipeFilter filter, Collection<String> ids, String category) {
+        // Skipping recipes already in the category makes a repeated update of the same ID a no-op
+        Query query = filterQuery(filter).addCriteria(Criteria.where("id").in(ids).and("category").ne(category));
+        Update update = Update.update("category", category).inc("version", 1);
+        return mongoTemplate.updateMulti(query, update, Recipe.class).getModifiedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long deleteByFilterAndIds(RecipeFilter filter, Collection<String> ids) {
+        Query query = filterQuery(filter).addCriteria(Criteria.where("id").in(ids));
+        return mongoTemplate.remove(query, Recipe.class).getDeletedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> findFieldsByIdIn(Collection<String> ids, RecipeFields fields) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include(fields.getNames().toArray(new String[0]));
+        return mongoTemplate.find(query, Recipe.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Recipe> streamAll(RecipeFields fields, int batchSize) {
+        // Sorting on the ID walks the _id index, which keeps the order stable across exports
+        Query query = new Query().with(Sort.by("id")).cursorBatchSize(batchSize);
+        if (fields != null) {
+            query.fields().include(fields.getNames().toArray(new String[0]));
+        }
+        return mongoTemplate.stream(query, Recipe.class);
+    }
+
+    // Build the query matching a filter; an empty filter matches every recipe
+    private static Query filterQuery(RecipeFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (!filter.getCategories().isEmpty()) {
+            criteria.add(Criteria.where("category").in(filter.getCategories()));
+        }
+        if (!filter.getCreatedBy().isEmpty()) {
+            criteria.add(Criteria.where("createdBy").in(filter.getCreatedBy()));
+        }
+        if (!filter.getIngredients().isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (String ingredient : filter.getIngredients()) {
+                names.add(IngredientNormalizer.normalize(ingredient));
+            }
+            criteria.add(Criteria.where("normalizedIngredients").all(names));
+        }
+        if (filter.hasCookingTimeRange()) {
+            Criteria cookingTime = Criteria.where("cookingTime");
+            if (filter.getMinCookingTime() != null) {
+                cookingTime.gte(filter.getMinCookingTime());
+            }
+            if (filter.getMaxCookingTime() != null) {
+                cookingTime.lte(filter.getMaxCookingTime());
+            }
+            criteria.add(cookingTime);
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        return query;
+    }
+
+    // Turn [{_id, count}] documents into an ordered value -> count map, skipping null values
+    private static Map<String, Long> toCounts(List<Document> documents) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document document : documents) {
+            if (document.get("_id") != null) {
+                counts.put(document.get("_id").toString(), ((Number) document.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,374 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index for autocompleting recipe titles, categories and ingredients.
+ *
+ * <p>Phrases are stored in a radix tree: chains of single-child nodes are collapsed
+ * into one edge labelled with a substring, so the tree has at most one node per
+ * phrase plus one per branching point. Every phrase is weighted by the number of
+ * recipes using it, and every node records the highest weight below it. The most
+ * popular completions of a prefix are then found best-first, visiting only the
+ * branches that can still beat the results found so far.</p>
+ *
+ * <p>Phrases are normalized by the {@link Tokenizer}, so matching ignores case and
+ * punctuation. The first spelling seen of a phrase is the one suggested.
+ * Ingredients are indexed by their {@link IngredientNormalizer canonical name},
+ * without quantities, units or preparation words.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class AutocompleteIndex implements RecipeIndex {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+    private final List<String[]> phrasesByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe's title, category and ingredients to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        // Normalized phrase -> spelling to suggest, without duplicates within one recipe
+        Map<String, String> phrases = new LinkedHashMap<>();
+        addPhrase(phrases, recipe.getTitle());
+        addPhrase(phrases, recipe.getCategory());
+        // Canonical names, so "2 cups chopped onions" and "1 onion" both count towards "onion"
+        for (String ingredient : IngredientNormalizer.normalizeAll(recipe.getIngredients())) {
+            addPhrase(phrases, ingredient);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, String> phrase : phrases.entrySet()) {
+                insert(root, phrase.getKey(), phrase.getValue());
+            }
+
+            while (phrasesByDocId.size() <= docId) {
+                phrasesByDocId.add(null);
+            }
+            phrasesByDocId.set(docId, phrases.keySet().toArray(new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe's phrases from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId >= phrasesByDocId.size() || phrasesByDocId.get(docId) == null) {
+                return;
+            }
+
+            for (String phrase : phrasesByDocId.get(docId)) {
+                decrement(root, phrase);
+            }
+            phrasesByDocId.set(docId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children = NO_CHILDREN;
+            root.weight = 0;
+            root.maxWeight = 0;
+            root.display = null;
+            phrasesByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the most popular phrases starting with a prefix.
+     *
+     * @param prefix the text typed so far
+     * @param limit the maximum number of completions
+     * @return the completions, most popular first
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = normalizePrefix(prefix);
+        List<String> completions = new ArrayList<>();
+        if (key.isEmpty() || limit < 1) {
+            return completions;
+        }
+
+        lock.readLock().lock();
+        try {
+            Node start = find(key);
+            if (start == null) {
+                return completions;
+            }
+
+            // Nodes are ranked by the best weight below them, phrases by their own weight
+            PriorityQueue<Candidate> queue = new PriorityQueue<>();
+            int sequence = 0;
+            queue.add(new Candidate(start, start.maxWeight, false, sequence++));
+            while (!queue.isEmpty() && completions.size() < limit) {
+                Candidate candidate = queue.poll();
+                if (candidate.phrase) {
+                    completions.add(candidate.node.display);
+                    continue;
+                }
+
+                if (candidate.node.weight > 0) {
+                    queue.add(new Candidate(candidate.node, candidate.node.weight, true, sequence++));
+                }
+                for (Node child : candidate.node.children) {
+                    queue.add(new Candidate(child, child.maxWeight, false, sequence++));
+                }
+            }
+            return completions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walk down to the node whose path starts with the key, even if the key ends inside its edge
+    private Node find(String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+
+            int common = commonPrefix(child.label, key, position);
+            if (position + common == key.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            position += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static void insert(Node root, String key, String display) {
+        Node node = root;
+        List<Node> path = new ArrayList<>();
+        path.add(node);
+        int position = 0;
+
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                child = new Node(key.substring(position));
+                node.addChild(child);
+                position = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, position);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                position += common;
+            }
+            node = child;
+            path.add(node);
+        }
+
+        if (node.weight == 0) {
+            node.display = display;
+        }
+        node.weight++;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).updateMaxWeight();
+        }
+    }
+
+    private static void decrement(Node root, String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+
+        while (position < key.length()) {
+            node = node.child(key.charAt(position));
+            if (node == null || !key.startsWith(node.label, position)) {
+                return;
+            }
+            position += node.label.length();
+            path.add(node);
+        }
+
+        if (node.weight == 0) {
+            return;
+        }
+        node.weight--;
+        if (node.weight == 0) {
+            node.display = null;
+        }
+
+        for (int i = path.size() - 1; i >= 1; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.weight == 0 && current.children.length == 0) {
+                parent.removeChild(current);
+            } else if (current.weight == 0 && current.children.length == 1) {
+                // Merge a pass-through node into its only child to keep the tree compressed
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.replaceChild(current, only);
+            } else {
+                current.updateMaxWeight();
+            }
+        }
+        root.updateMaxWeight();
+    }
+
+    // Split a child's edge after the given number of characters, returning the new middle node
+    private static Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.addChild(child);
+        middle.updateMaxWeight();
+        parent.replaceChild(child, middle);
+        return middle;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void addPhrase(Map<String, String> phrases, String text) {
+        String key = String.join(" ", Tokenizer.tokenize(text));
+        if (!key.isEmpty()) {
+            phrases.putIfAbsent(key, text.trim());
+        }
+    }
+
+    // Normalize like indexed phrases, keeping a trailing separator so "beef " does not complete to "beefsteak"
+    static String normalizePrefix(String prefix) {
+        String key = String.join(" ", Tokenizer.tokenize(prefix));
+        if (!key.isEmpty() && !Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+            key += " ";
+        }
+        return key;
+    }
+
+    /**
+     * A radix tree node; the path from the root spells the phrase it stands for.
+     */
+    private static class Node {
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private int weight;
+        private int maxWeight;
+        private String display;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            for (Node child : children) {
+                if (child.label.charAt(0) == first) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+        }
+
+        void removeChild(Node child) {
+            Node[] remaining = new Node[children.length - 1];
+            int i = 0;
+            for (Node node : children) {
+                if (node != child) {
+                    remaining[i++] = node;
+                }
+            }
+            children = remaining;
+        }
+
+        void replaceChild(Node oldChild, Node newChild) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == oldChild) {
+                    children[i] = newChild;
+                }
+            }
+        }
+
+        void updateMaxWeight() {
+            int max = weight;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    /**
+     * An entry of the best-first search: either a subtree or a finished phrase.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+
+        private final Node node;
+        private final int weight;
+        private final boolean phrase;
+        private final int sequence;
+
+        Candidate(Node node, int weight, boolean phrase, int sequence) {
+            this.node = node;
+            this.weight = weight;
+            this.phrase = phrase;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (weight != other.weight) {
+                return Integer.compare(other.weight, weight);
+            }
+            // On equal weight, emit phrases before expanding more subtrees, and shorter phrases first
+            if (phrase != other.phrase) {
+                return phrase ? -1 : 1;
+            }
+            return Integer.compare(sequence, other.sequence);
+        }
+    }
+}
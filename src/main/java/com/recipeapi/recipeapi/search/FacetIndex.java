@@ -0,0 +1,225 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Forward index of the facet values of every recipe.
+ *
+ * <p>Categories and ingredients are dictionary-encoded, so each recipe is stored
+ * as a category id, a cooking time and an array of ingredient ids. Counting the
+ * facets of a result set is then a single pass over its document ids that
+ * increments primitive counters, with no database round trip.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class FacetIndex implements RecipeIndex {
+
+    private static final int NONE = -1;
+    private static final int[] NO_INGREDIENTS = new int[0];
+
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary ingredients = new Dictionary();
+
+    private int[] categoryByDocId = new int[0];
+    private int[] cookingTimeByDocId = new int[0];
+    private final List<int[]> ingredientsByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe's facet values to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        List<String> values = IngredientNormalizer.normalizeAll(recipe.getIngredients());
+
+        lock.writeLock().lock();
+        try {
+            if (docId >= categoryByDocId.length) {
+                int capacity = Math.max(docId + 1, categoryByDocId.length * 2);
+                int oldLength = categoryByDocId.length;
+                categoryByDocId = Arrays.copyOf(categoryByDocId, capacity);
+                cookingTimeByDocId = Arrays.copyOf(cookingTimeByDocId, capacity);
+                Arrays.fill(categoryByDocId, oldLength, capacity, NONE);
+                Arrays.fill(cookingTimeByDocId, oldLength, capacity, NONE);
+            }
+
+            categoryByDocId[docId] = recipe.getCategory() != null ? categories.idOf(recipe.getCategory()) : NONE;
+            cookingTimeByDocId[docId] = recipe.getCookingTime() != null ? recipe.getCookingTime() : NONE;
+
+            int[] ingredientIds = new int[values.size()];
+            int i = 0;
+            for (String value : values) {
+                ingredientIds[i++] = ingredients.idOf(value);
+            }
+
+            while (ingredientsByDocId.size() <= docId) {
+                ingredientsByDocId.add(null);
+            }
+            ingredientsByDocId.set(docId, ingredientIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId < ingredientsByDocId.size()) {
+                ingredientsByDocId.set(docId, null);
+                categoryByDocId[docId] = NONE;
+                cookingTimeByDocId[docId] = NONE;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            categories.clear();
+            ingredients.clear();
+            categoryByDocId = new int[0];
+            cookingTimeByDocId = new int[0];
+            ingredientsByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every recipe whose cooking time is at most the given value.
+     *
+     * <p>Recipes without a cooking time never match, as in the database query.</p>
+     *
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @return the matching document ids in ascending order
+     */
+    public int[] matchCookingTime(int maxCookingTime) {
+        lock.readLock().lock();
+        try {
+            PostingList matches = new PostingList();
+            for (int docId = 0; docId < ingredientsByDocId.size(); docId++) {
+                if (ingredientsByDocId.get(docId) != null
+                        && cookingTimeByDocId[docId] != NONE
+                        && cookingTimeByDocId[docId] <= maxCookingTime) {
+                    matches.add(docId);
+                }
+            }
+            return matches.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the facet values of a set of recipes.
+     *
+     * @param docIds the document ids of the matching recipes
+     * @param topIngredients the number of most common ingredients to report
+     * @return the facet counts
+     */
+    public RecipeFacets facets(int[] docIds, int topIngredients) {
+        lock.readLock().lock();
+        try {
+            long[] categoryCounts = new long[categories.size()];
+            long[] ingredientCounts = new long[ingredients.size()];
+            Map<String, Long> cookingTimes = RecipeFacets.emptyCookingTimes();
+
+            for (int docId : docIds) {
+                if (docId >= ingredientsByDocId.size() || ingredientsByDocId.get(docId) == null) {
+                    continue;
+                }
+                if (categoryByDocId[docId] != NONE) {
+                    categoryCounts[categoryByDocId[docId]]++;
+                }
+                if (cookingTimeByDocId[docId] != NONE) {
+                    cookingTimes.merge(RecipeFacets.cookingTimeBucket(cookingTimeByDocId[docId]), 1L, Long::sum);
+                }
+                for (int ingredientId : ingredientsByDocId.get(docId)) {
+                    ingredientCounts[ingredientId]++;
+                }
+            }
+
+            return new RecipeFacets(
+                    top(categories, categoryCounts, Integer.MAX_VALUE),
+                    cookingTimes,
+                    top(ingredients, ingredientCounts, topIngredients));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Long> top(Dictionary dictionary, long[] counts, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                ids.add(id);
+            }
+        }
+        ids.sort((a, b) -> counts[a] != counts[b]
+                ? Long.compare(counts[b], counts[a])
+                : dictionary.valueOf(a).compareTo(dictionary.valueOf(b)));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size() && i < limit; i++) {
+            result.put(dictionary.valueOf(ids.get(i)), counts[ids.get(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Bidirectional mapping between facet values and dense integer ids.
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int idOf(String value) {
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        String valueOf(int id) {
+            return values.get(id);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        void clear() {
+            ids.clear();
+            values.clear();
+        }
+    }
+}
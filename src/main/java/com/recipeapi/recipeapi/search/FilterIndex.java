@@ -0,0 +1,289 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index answering arbitrary combinations of attribute filters.
+ *
+ * <p>A compressed (Roaring) bitmap of document ids is kept for every category,
+ * every creator, every canonical ingredient name and every cooking time bucket. A filter is
+ * evaluated by OR-ing the bitmaps of the values accepted for an attribute and
+ * AND-ing the results across attributes, so any combination costs a handful of
+ * word-level operations and never touches the database.</p>
+ *
+ * <p>Cooking time ranges use whole buckets where they can and check the exact
+ * cooking time only for recipes in the buckets cut by the range bounds.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class FilterIndex implements RecipeIndex {
+
+    private static final int[] BOUNDARIES = RecipeFacets.COOKING_TIME_BOUNDARIES;
+
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> byCreatedBy = new HashMap<>();
+    private final Map<String, RoaringBitmap> byIngredient = new HashMap<>();
+    private final RoaringBitmap[] byCookingTimeBucket = new RoaringBitmap[BOUNDARIES.length];
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final List<Entry> entriesByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an empty FilterIndex.
+     */
+    public FilterIndex() {
+        for (int i = 0; i < byCookingTimeBucket.length; i++) {
+            byCookingTimeBucket[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Adds a recipe's attributes to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        Entry entry = new Entry(recipe.getCategory(), recipe.getCreatedBy(), recipe.getCookingTime(),
+                IngredientNormalizer.normalizeAll(recipe.getIngredients()).toArray(new String[0]));
+
+        lock.writeLock().lock();
+        try {
+            all.add(docId);
+            add(byCategory, entry.category, docId);
+            add(byCreatedBy, entry.createdBy, docId);
+            for (String key : entry.ingredientKeys) {
+                add(byIngredient, key, docId);
+            }
+            int bucket = bucketOf(entry.cookingTime);
+            if (bucket >= 0) {
+                byCookingTimeBucket[bucket].add(docId);
+            }
+
+            while (entriesByDocId.size() <= docId) {
+                entriesByDocId.add(null);
+            }
+            entriesByDocId.set(docId, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId >= entriesByDocId.size() || entriesByDocId.get(docId) == null) {
+                return;
+            }
+
+            Entry entry = entriesByDocId.get(docId);
+            all.remove(docId);
+            remove(byCategory, entry.category, docId);
+            remove(byCreatedBy, entry.createdBy, docId);
+            for (String key : entry.ingredientKeys) {
+                remove(byIngredient, key, docId);
+            }
+            int bucket = bucketOf(entry.cookingTime);
+            if (bucket >= 0) {
+                byCookingTimeBucket[bucket].remove(docId);
+            }
+            entriesByDocId.set(docId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byCategory.clear();
+            byCreatedBy.clear();
+            byIngredient.clear();
+            for (RoaringBitmap bucket : byCookingTimeBucket) {
+                bucket.clear();
+            }
+            all.clear();
+            entriesByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds one page of the recipes matching a filter.
+     *
+     * <p>Matches are returned in document id order and all score 1.</p>
+     *
+     * @param filter the filter to apply
+     * @param offset the number of matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the requested page of matches with the total number of matches
+     */
+    public SearchHits filter(RecipeFilter filter, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = evaluate(filter);
+            long total = matches.getLongCardinality();
+            if (offset >= total || limit < 1) {
+                return new SearchHits(new int[0], new float[0], total);
+            }
+
+            int[] docIds = new int[(int) Math.min(limit, total - offset)];
+            PeekableIntIterator iterator = matches.getIntIterator();
+            iterator.advanceIfNeeded(matches.select(offset));
+            for (int i = 0; i < docIds.length; i++) {
+                docIds[i] = iterator.next();
+            }
+
+            float[] scores = new float[docIds.length];
+            Arrays.fill(scores, 1.0f);
+            return new SearchHits(docIds, scores, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap evaluate(RecipeFilter filter) {
+        List<RoaringBitmap> clauses = new ArrayList<>();
+        if (!filter.getCategories().isEmpty()) {
+            clauses.add(anyOf(byCategory, filter.getCategories()));
+        }
+        if (!filter.getCreatedBy().isEmpty()) {
+            clauses.add(anyOf(byCreatedBy, filter.getCreatedBy()));
+        }
+        for (String ingredient : filter.getIngredients()) {
+            RoaringBitmap bitmap = byIngredient.get(IngredientNormalizer.normalize(ingredient));
+            clauses.add(bitmap != null ? bitmap : new RoaringBitmap());
+        }
+        if (filter.hasCookingTimeRange()) {
+            clauses.add(cookingTimeBetween(
+                    filter.getMinCookingTime() != null ? filter.getMinCookingTime() : Integer.MIN_VALUE,
+                    filter.getMaxCookingTime() != null ? filter.getMaxCookingTime() : Integer.MAX_VALUE));
+        }
+
+        if (clauses.isEmpty()) {
+            return all.clone();
+        }
+        // Start from the smallest clause so the intermediate results stay small
+        clauses.sort((a, b) -> Long.compare(a.getLongCardinality(), b.getLongCardinality()));
+        RoaringBitmap result = clauses.get(0).clone();
+        for (int i = 1; i < clauses.size() && !result.isEmpty(); i++) {
+            result.and(clauses.get(i));
+        }
+        return result;
+    }
+
+    private static RoaringBitmap anyOf(Map<String, RoaringBitmap> bitmaps, List<String> values) {
+        List<RoaringBitmap> matching = new ArrayList<>();
+        for (String value : values) {
+            RoaringBitmap bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                matching.add(bitmap);
+            }
+        }
+        return FastAggregation.or(matching.iterator());
+    }
+
+    private RoaringBitmap cookingTimeBetween(int min, int max) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (int i = 0; i < BOUNDARIES.length; i++) {
+            long lowest = BOUNDARIES[i];
+            long highest = i + 1 < BOUNDARIES.length ? BOUNDARIES[i + 1] - 1L : Integer.MAX_VALUE;
+            if (highest < min || lowest > max) {
+                continue;
+            }
+
+            if (lowest >= min && highest <= max) {
+                result.or(byCookingTimeBucket[i]);
+                continue;
+            }
+
+            // The range cuts this bucket, so check each recipe's exact cooking time
+            IntIterator iterator = byCookingTimeBucket[i].getIntIterator();
+            while (iterator.hasNext()) {
+                int docId = iterator.next();
+                int cookingTime = entriesByDocId.get(docId).cookingTime;
+                if (cookingTime >= min && cookingTime <= max) {
+                    result.add(docId);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Index of the bucket a cooking time falls into, or -1 if it has none
+    private static int bucketOf(Integer cookingTime) {
+        if (cookingTime == null) {
+            return -1;
+        }
+        for (int i = BOUNDARIES.length - 1; i >= 0; i--) {
+            if (cookingTime >= BOUNDARIES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void add(Map<String, RoaringBitmap> bitmaps, String value, int docId) {
+        if (value != null) {
+            bitmaps.computeIfAbsent(value, v -> new RoaringBitmap()).add(docId);
+        }
+    }
+
+    private static void remove(Map<String, RoaringBitmap> bitmaps, String value, int docId) {
+        RoaringBitmap bitmap = value != null ? bitmaps.get(value) : null;
+        if (bitmap == null) {
+            return;
+        }
+        bitmap.remove(docId);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(value);
+        }
+    }
+
+    /**
+     * The indexed attributes of one recipe, kept so that it can be removed.
+     */
+    private static class Entry {
+
+        private final String category;
+        private final String createdBy;
+        private final int cookingTime;
+        private final String[] ingredientKeys;
+
+        Entry(String category, String createdBy, Integer cookingTime, String[] ingredientKeys) {
+            this.category = category;
+            this.createdBy = createdBy;
+            this.cookingTime = cookingTime != null ? cookingTime : Integer.MIN_VALUE;
+            this.ingredientKeys = ingredientKeys;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Relevance-ranked full-text index over recipes.
+ *
+ * <p>Title, category, ingredients and instructions are tokenized and indexed
+ * together, with each field's term frequencies weighted by a field boost
+ * so that a match in the title counts for more than one in the instructions.
+ * Queries are scored with BM25, and the maximum cooking time is applied while
+ * scoring so that filtered-out recipes never enter the result set.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class FullTextIndex implements RecipeIndex {
+
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float CATEGORY_BOOST = 2.0f;
+    private static final float INGREDIENT_BOOST = 1.5f;
+    private static final float INSTRUCTIONS_BOOST = 1.0f;
+
+    // Standard BM25 parameters: term frequency saturation and length normalization
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Marks recipes without a cooking time, which never match a cooking time filter
+    private static final int NO_COOKING_TIME = -1;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<WeightedPostings> postings = new ArrayList<>();
+    private final List<int[]> termsByDocId = new ArrayList<>();
+    private float[] lengthsByDocId = new float[0];
+    private int[] cookingTimesByDocId = new int[0];
+    private int docCount;
+    private double totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        Map<String, Float> frequencies = new LinkedHashMap<>();
+        addField(frequencies, recipe.getTitle(), TITLE_BOOST);
+        addField(frequencies, recipe.getCategory(), CATEGORY_BOOST);
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                addField(frequencies, ingredient, INGREDIENT_BOOST);
+            }
+        }
+        addField(frequencies, recipe.getInstructions(), INSTRUCTIONS_BOOST);
+
+        float length = 0;
+        for (float frequency : frequencies.values()) {
+            length += frequency;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int[] docTerms = new int[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                int termId = termIds.computeIfAbsent(entry.getKey(), t -> {
+                    postings.add(new WeightedPostings());
+                    return postings.size() - 1;
+                });
+                postings.get(termId).add(docId, entry.getValue());
+                docTerms[i++] = termId;
+            }
+
+            while (termsByDocId.size() <= docId) {
+                termsByDocId.add(null);
+            }
+            termsByDocId.set(docId, docTerms);
+
+            if (docId >= lengthsByDocId.length) {
+                int capacity = Math.max(docId + 1, lengthsByDocId.length * 2);
+                lengthsByDocId = Arrays.copyOf(lengthsByDocId, capacity);
+                cookingTimesByDocId = Arrays.copyOf(cookingTimesByDocId, capacity);
+            }
+            lengthsByDocId[docId] = length;
+            cookingTimesByDocId[docId] = recipe.getCookingTime() != null ? recipe.getCookingTime() : NO_COOKING_TIME;
+
+            docCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId >= termsByDocId.size() || termsByDocId.get(docId) == null) {
+                return;
+            }
+
+            for (int termId : termsByDocId.get(docId)) {
+                postings.get(termId).remove(docId);
+            }
+            termsByDocId.set(docId, null);
+
+            docCount--;
+            totalLength -= lengthsByDocId[docId];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            termsByDocId.clear();
+            lengthsByDocId = new float[0];
+            cookingTimesByDocId = new int[0];
+            docCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index and returns one page of hits ranked by BM25 score.
+     *
+     * <p>A recipe matches if it contains at least one query term and its
+     * cooking time is less than or equal to the maximum.</p>
+     *
+     * @param query the free-text query
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @param offset the number of top hits to skip
+     * @param limit the maximum number of hits to return
+     * @return the requested page of hits
+     */
+    public SearchHits search(String query, int maxCookingTime, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, Float> scores = score(new LinkedHashSet<>(Tokenizer.tokenize(query)), maxCookingTime);
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every recipe matching a query, without scoring.
+     *
+     * <p>Uses the same matching rules as {@link #search(String, int, int, int)},
+     * and is used to compute aggregates such as facets over the whole result set.</p>
+     *
+     * @param query the free-text query
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @return the matching document ids in ascending order
+     */
+    public int[] match(String query, int maxCookingTime) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet();
+            for (String term : new LinkedHashSet<>(Tokenizer.tokenize(query))) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    continue;
+                }
+
+                WeightedPostings list = postings.get(termId);
+                for (int i = 0; i < list.size; i++) {
+                    int cookingTime = cookingTimesByDocId[list.docIds[i]];
+                    if (cookingTime != NO_COOKING_TIME && cookingTime <= maxCookingTime) {
+                        matches.set(list.docIds[i]);
+                    }
+                }
+            }
+            return matches.stream().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Float> score(Iterable<String> terms, int maxCookingTime) {
+        Map<Integer, Float> scores = new HashMap<>();
+        if (docCount == 0) {
+            return scores;
+        }
+
+        float averageLength = (float) (totalLength / docCount);
+
+        for (String term : terms) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+
+            WeightedPostings list = postings.get(termId);
+            float idf = (float) Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5));
+
+            for (int i = 0; i < list.size; i++) {
+                int docId = list.docIds[i];
+                int cookingTime = cookingTimesByDocId[docId];
+                if (cookingTime == NO_COOKING_TIME || cookingTime > maxCookingTime) {
+                    continue;
+                }
+
+                float frequency = list.frequencies[i];
+                float norm = K1 * (1 - B + B * lengthsByDocId[docId] / averageLength);
+                scores.merge(docId, idf * frequency * (K1 + 1) / (frequency + norm), Float::sum);
+            }
+        }
+
+        return scores;
+    }
+
+    private static SearchHits topHits(Map<Integer, Float> scores, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, scores.size());
+        if (wanted <= offset) {
+            return new SearchHits(new int[0], new float[0], scores.size());
+        }
+
+        // Min-heap of the best hits seen so far; ties go to the lower document id
+        PriorityQueue<Map.Entry<Integer, Float>> heap = new PriorityQueue<>(wanted, (a, b) -> {
+            int byScore = Float.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Integer.compare(b.getKey(), a.getKey());
+        });
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+
+        int pageSize = wanted - offset;
+        int[] docIds = new int[pageSize];
+        float[] pageScores = new float[pageSize];
+        for (int i = wanted - 1; i >= 0; i--) {
+            Map.Entry<Integer, Float> entry = heap.poll();
+            if (i < offset) {
+                break;
+            }
+            docIds[i - offset] = entry.getKey();
+            pageScores[i - offset] = entry.getValue();
+        }
+
+        return new SearchHits(docIds, pageScores, scores.size());
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float boost) {
+        for (String term : Tokenizer.tokenize(text)) {
+            frequencies.merge(term, boost, Float::sum);
+        }
+    }
+
+    /**
+     * Sorted document ids with a weighted term frequency per document.
+     */
+    private static class WeightedPostings {
+
+        private int[] docIds = new int[0];
+        private float[] frequencies = new float[0];
+        private int size;
+
+        void add(int docId, float frequency) {
+            int position = Arrays.binarySearch(docIds, 0, size, docId);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+
+            int insertAt = -position - 1;
+            if (size == docIds.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                docIds = Arrays.copyOf(docIds, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            System.arraycopy(docIds, insertAt, docIds, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+            docIds[insertAt] = docId;
+            frequencies[insertAt] = frequency;
+            size++;
+        }
+
+        void remove(int docId) {
+            int position = Arrays.binarySearch(docIds, 0, size, docId);
+            if (position < 0) {
+                return;
+            }
+
+            System.arraycopy(docIds, position + 1, docIds, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+        }
+    }
+}
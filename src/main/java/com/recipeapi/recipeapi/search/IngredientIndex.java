@@ -0,0 +1,149 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from ingredient terms to recipes.
+ *
+ * <p>Every ingredient line is reduced to its canonical name by the
+ * {@link IngredientNormalizer} and split into terms, and each term maps to a
+ * {@link PostingList} of the recipes that use it. A lookup is a hash probe per
+ * query term followed by a sorted-list intersection, so its cost depends on the
+ * number of matches rather than on the size of the collection.</p>
+ *
+ * <p>A forward list of term ids per recipe is kept so that updated or deleted
+ * recipes can be removed without rescanning the postings.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class IngredientIndex implements RecipeIndex {
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<PostingList> postings = new ArrayList<>();
+    private final List<int[]> termsByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe's ingredients to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String ingredient : IngredientNormalizer.normalizeAll(recipe.getIngredients())) {
+            terms.addAll(Tokenizer.tokenize(ingredient));
+        }
+
+        lock.writeLock().lock();
+        try {
+            int[] docTerms = new int[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                int termId = termIds.computeIfAbsent(term, t -> {
+                    postings.add(new PostingList());
+                    return postings.size() - 1;
+                });
+                postings.get(termId).add(docId);
+                docTerms[i++] = termId;
+            }
+
+            while (termsByDocId.size() <= docId) {
+                termsByDocId.add(null);
+            }
+            termsByDocId.set(docId, docTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId >= termsByDocId.size() || termsByDocId.get(docId) == null) {
+                return;
+            }
+
+            for (int termId : termsByDocId.get(docId)) {
+                postings.get(termId).remove(docId);
+            }
+            termsByDocId.set(docId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            termsByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds recipes whose ingredients contain every term of the query.
+     *
+     * <p>The query is normalized like the indexed ingredients, so "Tomatoes"
+     * finds recipes using "2 tomatoes" as well as "1 tomato". The terms may
+     * come from different ingredients of the recipe.</p>
+     *
+     * @param ingredient the ingredient text to search for
+     * @return the matching document ids in ascending order
+     */
+    public int[] search(String ingredient) {
+        List<String> terms = Tokenizer.tokenize(IngredientNormalizer.normalize(ingredient));
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    return new int[0];
+                }
+                lists.add(postings.get(termId));
+            }
+
+            // Start from the rarest term so the intermediate results stay small
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            int[] result = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = PostingList.intersect(result, lists.get(i).toArray());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
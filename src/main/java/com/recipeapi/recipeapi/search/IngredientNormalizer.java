@@ -0,0 +1,130 @@
+package com.recipeapi.recipeapi.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces free-text ingredient entries to canonical ingredient names.
+ *
+ * <p>An entry is tokenized, quantities, units and preparation words are dropped,
+ * and every remaining word is singularized, so "2 cups Chopped Onions",
+ * "1 onion" and "onions, diced" all become {@code onion}. The canonical names are
+ * stored with each recipe so that ingredients can be matched by equality, and the
+ * in-memory indexes apply the same rules to their own entries and to queries.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public final class IngredientNormalizer {
+
+    private static final Set<String> UNITS = Set.of(
+            "cup", "cups", "c", "tablespoon", "tablespoons", "tbsp", "tbs", "tb",
+            "teaspoon", "teaspoons", "tsp", "g", "gram", "grams", "kg", "kilogram", "kilograms",
+            "mg", "ml", "l", "litre", "litres", "liter", "liters", "oz", "ounce", "ounces",
+            "lb", "lbs", "pound", "pounds", "pinch", "pinches", "dash", "dashes", "quart", "quarts",
+            "pint", "pints", "gallon", "gallons", "can", "cans", "package", "packages", "pkg",
+            "piece", "pieces", "handful", "handfuls", "bunch", "bunches", "sprig", "sprigs",
+            "cm", "inch", "inches", "x");
+
+    // Preparation words and filler that do not change what the ingredient is
+    private static final Set<String> IGNORED = Set.of(
+            "chopped", "diced", "minced", "sliced", "grated", "shredded", "peeled", "crushed",
+            "fresh", "freshly", "finely", "roughly", "thinly", "large", "medium", "small",
+            "optional", "taste", "to", "of", "a", "an", "and", "or");
+
+    // Words that end like plurals but are not, and plurals that do not follow the rules
+    private static final Set<String> INVARIANT = Set.of(
+            "molasses", "hummus", "couscous", "asparagus", "citrus", "swiss", "series", "grits");
+    private static final Map<String, String> IRREGULAR = Map.of(
+            "leaves", "leaf", "loaves", "loaf", "halves", "half", "knives", "knife",
+            "geese", "goose", "teeth", "tooth", "mice", "mouse", "cookies", "cookie");
+
+    private IngredientNormalizer() {
+    }
+
+    /**
+     * Normalizes one ingredient entry.
+     *
+     * @param ingredient the ingredient as entered (may be null)
+     * @return the canonical ingredient name, empty if nothing but quantities and units remain
+     */
+    public static String normalize(String ingredient) {
+        List<String> words = new ArrayList<>();
+        for (String term : Tokenizer.tokenize(ingredient)) {
+            if (isQuantity(term) || UNITS.contains(term) || IGNORED.contains(term)) {
+                continue;
+            }
+            words.add(singularize(term));
+        }
+        return String.join(" ", words);
+    }
+
+    /**
+     * Normalizes a list of ingredient entries.
+     *
+     * @param ingredients the ingredients as entered (may be null)
+     * @return the distinct canonical names in order of first appearance, without empty names
+     */
+    public static List<String> normalizeAll(List<String> ingredients) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (ingredients != null) {
+            for (String ingredient : ingredients) {
+                String name = normalize(ingredient);
+                if (!name.isEmpty()) {
+                    normalized.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * Splits canonical ingredient names into their distinct words.
+     *
+     * <p>These are the terms the {@link IngredientIndex} matches queries
+     * against, so that a query for every word of "olive" finds "olive oil"
+     * whether it is answered from the index or from MongoDB.</p>
+     *
+     * @param names the canonical names, as returned by {@link #normalizeAll(List)}
+     * @return the distinct words of the names, in order of first appearance
+     */
+    public static List<String> terms(List<String> names) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String name : names) {
+            terms.addAll(Tokenizer.tokenize(name));
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // Numbers, and numbers glued to a unit such as "500g" or "2tbsp"
+    private static boolean isQuantity(String term) {
+        int i = 0;
+        while (i < term.length() && Character.isDigit(term.charAt(i))) {
+            i++;
+        }
+        return i > 0 && (i == term.length() || UNITS.contains(term.substring(i)));
+    }
+
+    static String singularize(String word) {
+        if (IRREGULAR.containsKey(word)) {
+            return IRREGULAR.get(word);
+        }
+        if (word.length() <= 3 || INVARIANT.contains(word)) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("xes") || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,213 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Index for ranking recipes by how much of their ingredient list a pantry covers.
+ *
+ * <p>Canonical ingredient names (see {@link IngredientNormalizer}) are
+ * dictionary-encoded, and each recipe is stored as a sorted array of ingredient ids.
+ * A pantry is turned into a bitset over the same ids, so the overlap with a recipe
+ * is one bit test per ingredient. Recipes are scored in parallel, with each worker
+ * keeping its own bounded heap of the best matches before the heaps are merged.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class PantryIndex implements RecipeIndex {
+
+    // Best match first: highest coverage, then most matched ingredients, then lowest document id
+    private static final Comparator<Match> RANKING = Comparator
+            .comparingDouble((Match m) -> -m.coverage)
+            .thenComparingInt(m -> -m.matched)
+            .thenComparingInt(m -> m.docId);
+
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    private final List<int[]> ingredientsByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe's ingredients to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        List<String> keys = IngredientNormalizer.normalizeAll(recipe.getIngredients());
+
+        lock.writeLock().lock();
+        try {
+            int[] ids = new int[keys.size()];
+            int i = 0;
+            for (String key : keys) {
+                ids[i++] = ingredientIds.computeIfAbsent(key, k -> ingredientIds.size());
+            }
+            Arrays.sort(ids);
+
+            while (ingredientsByDocId.size() <= docId) {
+                ingredientsByDocId.add(null);
+            }
+            ingredientsByDocId.set(docId, ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId < ingredientsByDocId.size()) {
+                ingredientsByDocId.set(docId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ingredientIds.clear();
+            ingredientsByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the recipes that use at least one pantry ingredient by coverage.
+     *
+     * <p>The score of a recipe is the fraction of its distinct ingredients found
+     * in the pantry. Ties are broken by the number of matched ingredients.</p>
+     *
+     * @param pantry the ingredients on hand
+     * @param limit the maximum number of recipes to return
+     * @return the best matching recipes, with their coverage as score
+     */
+    public SearchHits rank(Collection<String> pantry, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet pantryIds = new BitSet(ingredientIds.size());
+            for (String ingredient : pantry) {
+                Integer id = ingredientIds.get(IngredientNormalizer.normalize(ingredient));
+                if (id != null) {
+                    pantryIds.set(id);
+                }
+            }
+            if (pantryIds.isEmpty() || limit < 1) {
+                return new SearchHits(new int[0], new float[0], 0);
+            }
+
+            TopMatches top = IntStream.range(0, ingredientsByDocId.size()).parallel().collect(
+                    () -> new TopMatches(limit),
+                    (matches, docId) -> matches.offer(docId, ingredientsByDocId.get(docId), pantryIds),
+                    TopMatches::addAll);
+
+            return top.toSearchHits();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A scored recipe.
+     */
+    private static class Match {
+
+        private final int docId;
+        private final int matched;
+        private final float coverage;
+
+        Match(int docId, int matched, float coverage) {
+            this.docId = docId;
+            this.matched = matched;
+            this.coverage = coverage;
+        }
+    }
+
+    /**
+     * Bounded collection of the best matches seen by one worker.
+     */
+    private static class TopMatches {
+
+        private final int limit;
+        // Worst retained match at the head, so it is the one evicted
+        private final PriorityQueue<Match> heap;
+        private long totalHits;
+
+        TopMatches(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(RANKING.reversed());
+        }
+
+        void offer(int docId, int[] ingredients, BitSet pantryIds) {
+            if (ingredients == null || ingredients.length == 0) {
+                return;
+            }
+
+            int matched = 0;
+            for (int ingredientId : ingredients) {
+                if (pantryIds.get(ingredientId)) {
+                    matched++;
+                }
+            }
+            if (matched > 0) {
+                totalHits++;
+                add(new Match(docId, matched, (float) matched / ingredients.length));
+            }
+        }
+
+        void addAll(TopMatches other) {
+            totalHits += other.totalHits;
+            for (Match match : other.heap) {
+                add(match);
+            }
+        }
+
+        SearchHits toSearchHits() {
+            Match[] ranked = heap.toArray(new Match[0]);
+            Arrays.sort(ranked, RANKING);
+
+            int[] docIds = new int[ranked.length];
+            float[] scores = new float[ranked.length];
+            for (int i = 0; i < ranked.length; i++) {
+                docIds[i] = ranked[i].docId;
+                scores[i] = ranked[i].coverage;
+            }
+            return new SearchHits(docIds, scores, totalHits);
+        }
+
+        private void add(Match match) {
+            heap.offer(match);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.recipeapi.recipeapi.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, growable list of document ids.
+ *
+ * <p>Posting lists are the building block of the in-memory recipe indexes.
+ * Ids are kept in ascending order in a primitive array so that lookups are a
+ * binary search and intersections are a linear merge, without boxing.</p>
+ *
+ * <p>Instances are not thread-safe; the owning index guards access.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class PostingList {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] docIds = EMPTY;
+    private int size;
+
+    /**
+     * Adds a document id, keeping the list sorted.
+     *
+     * @param docId the document id to add
+     * @return true if the id was added, false if it was already present
+     */
+    public boolean add(int docId) {
+        // Ids are mostly handed out in increasing order, so check the tail first
+        if (size == 0 || docIds[size - 1] < docId) {
+            ensureCapacity(size + 1);
+            docIds[size++] = docId;
+            return true;
+        }
+
+        int position = Arrays.binarySearch(docIds, 0, size, docId);
+        if (position >= 0) {
+            return false;
+        }
+
+        int insertAt = -position - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(docIds, insertAt, docIds, insertAt + 1, size - insertAt);
+        docIds[insertAt] = docId;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a document id.
+     *
+     * @param docId the document id to remove
+     * @return true if the id was present
+     */
+    public boolean remove(int docId) {
+        int position = Arrays.binarySearch(docIds, 0, size, docId);
+        if (position < 0) {
+            return false;
+        }
+
+        System.arraycopy(docIds, position + 1, docIds, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks whether a document id is present.
+     *
+     * @param docId the document id to look for
+     * @return true if the id is present
+     */
+    public boolean contains(int docId) {
+        return Arrays.binarySearch(docIds, 0, size, docId) >= 0;
+    }
+
+    /**
+     * Returns the number of document ids in the list.
+     *
+     * @return the list size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the list holds no document ids.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a sorted copy of the document ids.
+     *
+     * @return the document ids in ascending order
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(docIds, size);
+    }
+
+    /**
+     * Intersects two sorted id arrays.
+     *
+     * @param left the first sorted array
+     * @param right the second sorted array
+     * @return the ids present in both arrays, in ascending order
+     */
+    public static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > docIds.length) {
+            docIds = Arrays.copyOf(docIds, Math.max(4, Math.max(capacity, docIds.length + (docIds.length >> 1))));
+        }
+    }
+}
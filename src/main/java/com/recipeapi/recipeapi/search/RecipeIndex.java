@@ -0,0 +1,43 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+
+/**
+ * Contract for in-memory recipe indexes.
+ *
+ * <p>Indexes are registered as Spring beans and driven by the
+ * {@link RecipeIndexManager}, which assigns each recipe a compact integer
+ * document id and forwards every write to all registered indexes.</p>
+ *
+ * <p>Implementations must be safe for concurrent reads and writes.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public interface RecipeIndex {
+
+    /**
+     * Adds a recipe to the index.
+     *
+     * <p>The manager always calls {@link #remove(int)} first when a recipe
+     * is re-indexed, so implementations can assume the id is not present.</p>
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    void index(int docId, Recipe recipe);
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * <p>Calling this for an id that is not indexed has no effect.</p>
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    void remove(int docId);
+
+    /**
+     * Removes every entry from the index.
+     */
+    void clear();
+}
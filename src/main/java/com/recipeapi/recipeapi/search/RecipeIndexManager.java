@@ -0,0 +1,185 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Owns the lifecycle of the in-memory recipe indexes.
+ *
+ * <p>The manager is responsible for:
+ * <ul>
+ *   <li>Assigning each recipe a compact integer document id</li>
+ *   <li>Building every registered {@link RecipeIndex} from MongoDB at startup</li>
+ *   <li>Forwarding recipe writes to the indexes so they stay up to date</li>
+ *   <li>Translating document ids back into recipe ids</li>
+ * </ul>
+ * </p>
+ *
+ * <p>The initial build runs on a background thread. Until it completes,
+ * {@link #isReady()} returns false and callers should fall back to MongoDB queries.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class RecipeIndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeIndexManager.class);
+
+    private final List<RecipeIndex> indexes;
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Integer> docIdsByRecipeId = new HashMap<>();
+    private final List<String> recipeIdsByDocId = new ArrayList<>();
+
+    // Recipes written while a rebuild is streaming; the rebuild must not overwrite them with stale data
+    private Set<String> writtenDuringRebuild;
+    private volatile boolean ready;
+
+    /**
+     * Creates a new RecipeIndexManager.
+     *
+     * @param indexes all index beans to maintain
+     * @param mongoTemplate template used to stream recipes during a rebuild
+     */
+    public RecipeIndexManager(List<RecipeIndex> indexes, MongoTemplate mongoTemplate) {
+        this.indexes = indexes;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Starts building the indexes once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::rebuild, "recipe-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Rebuilds every index from the recipes collection.
+     *
+     * <p>Failures are logged and leave the manager in the not-ready state,
+     * so searches keep using MongoDB.</p>
+     */
+    public void rebuild() {
+        synchronized (this) {
+            ready = false;
+            docIdsByRecipeId.clear();
+            recipeIdsByDocId.clear();
+            indexes.forEach(RecipeIndex::clear);
+            writtenDuringRebuild = new HashSet<>();
+        }
+
+        long start = System.currentTimeMillis();
+        int count = 0;
+
+        try (Stream<Recipe> recipes = mongoTemplate.stream(new Query(), Recipe.class)) {
+            for (Recipe recipe : (Iterable<Recipe>) recipes::iterator) {
+                synchronized (this) {
+                    if (!writtenDuringRebuild.contains(recipe.getId())) {
+                        apply(recipe);
+                    }
+                }
+                count++;
+            }
+
+            synchronized (this) {
+                writtenDuringRebuild = null;
+                ready = true;
+            }
+            logger.info("Indexed {} recipes in {} ms", count, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                writtenDuringRebuild = null;
+            }
+            logger.warn("Recipe index build failed, falling back to database queries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indicates whether the indexes have been fully built.
+     *
+     * @return true if the indexes can be used to answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or re-indexes a saved recipe.
+     *
+     * @param recipe the recipe as persisted (must have an ID)
+     */
+    public synchronized void onSaved(Recipe recipe) {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.add(recipe.getId());
+        }
+        apply(recipe);
+    }
+
+    /**
+     * Removes a deleted recipe from every index.
+     *
+     * @param recipeId the ID of the deleted recipe
+     */
+    public synchronized void onDeleted(String recipeId) {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.add(recipeId);
+        }
+
+        Integer docId = docIdsByRecipeId.remove(recipeId);
+        if (docId != null) {
+            indexes.forEach(index -> index.remove(docId));
+            recipeIdsByDocId.set(docId, null);
+        }
+    }
+
+    /**
+     * Translates document ids into recipe ids.
+     *
+     * <p>Ids of recipes that have since been deleted are skipped.</p>
+     *
+     * @param docIds the document ids to translate
+     * @return the matching recipe ids, in the same order
+     */
+    public synchronized List<String> recipeIds(int[] docIds) {
+        List<String> recipeIds = new ArrayList<>(docIds.length);
+        for (int docId : docIds) {
+            String recipeId = docId < recipeIdsByDocId.size() ? recipeIdsByDocId.get(docId) : null;
+            if (recipeId != null) {
+                recipeIds.add(recipeId);
+            }
+        }
+        return recipeIds;
+    }
+
+    private void apply(Recipe recipe) {
+        Integer docId = docIdsByRecipeId.get(recipe.getId());
+        if (docId == null) {
+            docId = recipeIdsByDocId.size();
+            recipeIdsByDocId.add(recipe.getId());
+            docIdsByRecipeId.put(recipe.getId(), docId);
+        }
+
+        for (RecipeIndex index : indexes) {
+            index.remove(docId);
+            index.index(docId, recipe);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.recipeapi.recipeapi.search;
+
+/**
+ * A page of ranked search results.
+ *
+ * <p>Holds the document ids of one page of hits, best match first, together
+ * with their relevance scores and the total number of matching documents.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public class SearchHits {
+
+    private final int[] docIds;
+    private final float[] scores;
+    private final long totalHits;
+
+    /**
+     * Creates a new SearchHits.
+     *
+     * @param docIds the document ids of this page, in rank order
+     * @param scores the score of each document, aligned with docIds
+     * @param totalHits the number of documents matching the query
+     */
+    public SearchHits(int[] docIds, float[] scores, long totalHits) {
+        this.docIds = docIds;
+        this.scores = scores;
+        this.totalHits = totalHits;
+    }
+
+    public int[] getDocIds() {
+        return docIds;
+    }
+
+    public float[] getScores() {
+        return scores;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+}
@@ -0,0 +1,300 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Symmetric-delete spelling dictionary over the words of recipe titles and ingredients.
+ *
+ * <p>Every vocabulary word is stored under each string obtained by deleting up to
+ * {@link #MAX_DISTANCE} of its characters. A misspelled word is looked up by
+ * generating its own deletes and probing the map, which yields every vocabulary
+ * word within the edit distance without comparing against the whole vocabulary.
+ * Candidates are then verified with the optimal string alignment distance, so
+ * insertions, deletions, substitutions and adjacent transpositions each count as one edit.</p>
+ *
+ * <p>Suggestions are ranked by distance and then by the number of recipes using
+ * the word. Short words tolerate fewer edits, so that "egg" is not corrected to "fig".</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class SpellingIndex implements RecipeIndex {
+
+    /**
+     * The largest number of edits between a query word and a suggestion.
+     */
+    public static final int MAX_DISTANCE = 2;
+
+    // Longer words add nothing to typo tolerance but multiply the number of deletes
+    private static final int MAX_WORD_LENGTH = 24;
+
+    private final Map<String, Integer> frequencies = new HashMap<>();
+    private final Map<String, List<String>> wordsByDelete = new HashMap<>();
+    private final List<String[]> wordsByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds the words of a recipe's title and ingredients to the dictionary.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        Set<String> words = new LinkedHashSet<>();
+        addWords(words, recipe.getTitle());
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                addWords(words, ingredient);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String word : words) {
+                if (frequencies.merge(word, 1, Integer::sum) == 1) {
+                    for (String delete : deletes(word)) {
+                        wordsByDelete.computeIfAbsent(delete, d -> new ArrayList<>(1)).add(word);
+                    }
+                }
+            }
+
+            while (wordsByDocId.size() <= docId) {
+                wordsByDocId.add(null);
+            }
+            wordsByDocId.set(docId, words.toArray(new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe's words from the dictionary.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId >= wordsByDocId.size() || wordsByDocId.get(docId) == null) {
+                return;
+            }
+
+            for (String word : wordsByDocId.get(docId)) {
+                if (frequencies.merge(word, -1, Integer::sum) > 0) {
+                    continue;
+                }
+
+                frequencies.remove(word);
+                for (String delete : deletes(word)) {
+                    List<String> candidates = wordsByDelete.get(delete);
+                    if (candidates != null) {
+                        candidates.remove(word);
+                        if (candidates.isEmpty()) {
+                            wordsByDelete.remove(delete);
+                        }
+                    }
+                }
+            }
+            wordsByDocId.set(docId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the dictionary.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            frequencies.clear();
+            wordsByDelete.clear();
+            wordsByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether a word occurs in any recipe title or ingredient.
+     *
+     * @param word the word, already tokenized
+     * @return true if the word is in the dictionary
+     */
+    public boolean contains(String word) {
+        lock.readLock().lock();
+        try {
+            return frequencies.containsKey(word);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the dictionary words closest to a possibly misspelled word.
+     *
+     * @param word the word, already tokenized
+     * @param limit the maximum number of suggestions
+     * @return the suggestions, closest and most common first
+     */
+    public List<String> suggest(String word, int limit) {
+        int maxDistance = maxDistance(word);
+        if (maxDistance == 0 || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> distances = new HashMap<>();
+            for (String delete : deletes(word)) {
+                List<String> candidates = wordsByDelete.get(delete);
+                if (candidates == null) {
+                    continue;
+                }
+                for (String candidate : candidates) {
+                    if (!distances.containsKey(candidate)) {
+                        distances.put(candidate, distance(word, candidate, maxDistance));
+                    }
+                }
+            }
+            distances.values().removeIf(distance -> distance > maxDistance);
+
+            List<String> suggestions = new ArrayList<>(distances.keySet());
+            suggestions.sort((a, b) -> {
+                int byDistance = Integer.compare(distances.get(a), distances.get(b));
+                if (byDistance != 0) {
+                    return byDistance;
+                }
+                int byFrequency = Integer.compare(frequencies.get(b), frequencies.get(a));
+                return byFrequency != 0 ? byFrequency : a.compareTo(b);
+            });
+            return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites a query, replacing each unknown word with its best suggestion.
+     *
+     * @param text the query text
+     * @return the corrected query as space-separated words, or null if no word was corrected
+     */
+    public String correct(String text) {
+        List<String> words = Tokenizer.tokenize(text);
+        boolean corrected = false;
+
+        for (int i = 0; i < words.size(); i++) {
+            if (contains(words.get(i))) {
+                continue;
+            }
+            List<String> suggestions = suggest(words.get(i), 1);
+            if (!suggestions.isEmpty()) {
+                words.set(i, suggestions.get(0));
+                corrected = true;
+            }
+        }
+
+        return corrected ? String.join(" ", words) : null;
+    }
+
+    // Words of up to four characters tolerate a single edit, shorter ones none
+    private static int maxDistance(String word) {
+        if (word.length() < 3 || word.length() > MAX_WORD_LENGTH) {
+            return 0;
+        }
+        return word.length() <= 4 ? 1 : MAX_DISTANCE;
+    }
+
+    private static void addWords(Set<String> words, String text) {
+        for (String word : Tokenizer.tokenize(text)) {
+            if (word.length() <= MAX_WORD_LENGTH && !isNumber(word)) {
+                words.add(word);
+            }
+        }
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates a word and every string obtained by deleting up to MAX_DISTANCE characters from it.
+     */
+    private static Set<String> deletes(String word) {
+        Set<String> deletes = new HashSet<>();
+        deletes.add(word);
+        List<String> current = List.of(word);
+        for (int distance = 1; distance <= MAX_DISTANCE; distance++) {
+            List<String> next = new ArrayList<>();
+            for (String value : current) {
+                for (int i = 0; i < value.length(); i++) {
+                    String delete = value.substring(0, i) + value.substring(i + 1);
+                    if (deletes.add(delete)) {
+                        next.add(delete);
+                    }
+                }
+            }
+            current = next;
+        }
+        return deletes;
+    }
+
+    /**
+     * Computes the optimal string alignment distance, giving up once it exceeds the maximum.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previousPrevious[j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
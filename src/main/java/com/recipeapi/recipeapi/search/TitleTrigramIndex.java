@@ -0,0 +1,172 @@
+package com.recipeapi.recipeapi.search;
+
+import com.recipeapi.recipeapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index for case-insensitive substring search over recipe titles.
+ *
+ * <p>Each lowercased title is broken into overlapping three-character grams,
+ * and every gram maps to a {@link PostingList} of the recipes whose titles contain it.
+ * A substring query intersects the postings of its own grams to find candidates,
+ * then verifies each candidate against the stored title to discard false positives
+ * (titles that contain all the grams, but not contiguously).</p>
+ *
+ * <p>Queries shorter than three characters have no grams; they are answered by
+ * scanning the in-memory titles, which is still far cheaper than a collection scan.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class TitleTrigramIndex implements RecipeIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final List<String> titlesByDocId = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe's title to the index.
+     *
+     * @param docId the document id assigned to the recipe
+     * @param recipe the recipe to index
+     */
+    @Override
+    public void index(int docId, Recipe recipe) {
+        String title = normalize(recipe.getTitle());
+
+        lock.writeLock().lock();
+        try {
+            for (String gram : grams(title)) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(docId);
+            }
+
+            while (titlesByDocId.size() <= docId) {
+                titlesByDocId.add(null);
+            }
+            titlesByDocId.set(docId, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param docId the document id of the recipe to remove
+     */
+    @Override
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            if (docId >= titlesByDocId.size() || titlesByDocId.get(docId) == null) {
+                return;
+            }
+
+            for (String gram : grams(titlesByDocId.get(docId))) {
+                PostingList list = postings.get(gram);
+                list.remove(docId);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+            titlesByDocId.set(docId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            titlesByDocId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds recipes whose titles contain the given text, ignoring case.
+     *
+     * @param text the substring to search for
+     * @return the matching document ids in ascending order
+     */
+    public int[] search(String text) {
+        String query = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) {
+                return scan(query);
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : grams(query)) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            int[] candidates = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                candidates = PostingList.intersect(candidates, lists.get(i).toArray());
+            }
+
+            // Grams can all be present without forming the query, so verify each candidate
+            int count = 0;
+            for (int docId : candidates) {
+                if (titlesByDocId.get(docId).contains(query)) {
+                    candidates[count++] = docId;
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] scan(String query) {
+        PostingList matches = new PostingList();
+        for (int docId = 0; docId < titlesByDocId.size(); docId++) {
+            String title = titlesByDocId.get(docId);
+            if (title != null && title.contains(query)) {
+                matches.add(docId);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private static String normalize(String title) {
+        return title == null ? "" : title.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,54 @@
+package com.recipeapi.recipeapi.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits free text into normalized index terms.
+ *
+ * <p>Text is lowercased and split on any character that is not a letter or a digit,
+ * so "2 cups Chopped Onions" becomes {@code [2, cups, chopped, onions]}.
+ * The same rules are applied to indexed text and to queries.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Tokenizes a piece of text.
+     *
+     * @param text the text to tokenize (may be null)
+     * @return the terms in order of appearance, possibly empty
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.isLetterOrDigit(lower.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+
+        if (start >= 0) {
+            terms.add(lower.substring(start));
+        }
+
+        return terms;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Search package for the Recipe API application.
+ *
+ * <p>This package contains in-memory indexes that answer recipe searches
+ * without scanning the MongoDB collection. Each index maps recipes to compact
+ * integer document ids and is kept up to date as recipes are written.</p>
+ *
+ * <p>Key components in this package include:</p>
+ * <ul>
+ *   <li>{@link com.recipeapi.recipeapi.search.RecipeIndexManager} - Builds the indexes and forwards recipe writes</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.RecipeIndex} - Contract implemented by every index</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.IngredientIndex} - Inverted index over recipe ingredients</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.TitleTrigramIndex} - Trigram index for substring title search</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.FullTextIndex} - BM25-ranked index for free-text search</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.FacetIndex} - Forward index of facet values for counting search facets</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.PantryIndex} - Dictionary-encoded ingredient sets for pantry coverage ranking</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.FilterIndex} - Roaring bitmaps per attribute value for combined filters</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.SpellingIndex} - Symmetric-delete dictionary for typo correction</li>
+ *   <li>{@link com.recipeapi.recipeapi.search.AutocompleteIndex} - Weighted radix tree for prefix autocompletion</li>
+ * </ul>
+ *
+ * <p>Services query the indexes for matching document ids and only load the
+ * matching recipes from the database.</p>
+ *
+ * @author Your Name
+ * @version 1.0
+ */
+package com.recipeapi.recipeapi.search;
\ No newline at end of file
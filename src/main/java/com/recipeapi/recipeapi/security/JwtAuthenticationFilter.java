@@ -1,12 +1,16 @@
 package com.recipeapi.recipeapi.security;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,6 +19,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Filter for JWT-based authentication.
@@ -22,6 +28,14 @@ import java.io.IOException;
  * <p>This filter intercepts incoming requests, extracts and validates JWT tokens,
  * and sets up the Spring Security context if the token is valid.</p>
  *
+ * <p>By default the user is loaded for every token, so role and status
+ * changes apply at once. With {@code jwt.stateless} on, the authentication is
+ * built from the verified claims alone: the roles and the token version
+ * embedded at login. The user store is not read; the only per-request check is
+ * a lookup in the in-memory {@link TokenRevocationList}, which rejects tokens
+ * issued before a user's roles or status changed. Tokens without these claims
+ * are not accepted in that mode, and their holders must log in again.</p>
+ *
  * @author Reina
  * @version 1.0
  */
@@ -33,16 +47,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtService jwtService; // Changed from JwtUtil to JwtService
+    private final TokenRevocationList revocationList;
+    private final boolean stateless;
 
     /**
      * Creates a new JwtAuthenticationFilter with the necessary dependencies.
      *
      * @param userDetailsService Service for loading user details
      * @param jwtService Service for JWT operations
+     * @param revocationList List of revoked tokens, checked in stateless mode
+     * @param stateless Whether to authenticate from the token claims without loading the user
      */
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtService jwtService) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtService jwtService,
+                                   TokenRevocationList revocationList,
+                                   @Value("${jwt.stateless:false}") boolean stateless) {
         this.userDetailsService = userDetailsService;
         this.jwtService = jwtService; // Changed from jwtUtil to jwtService
+        this.revocationList = revocationList;
+        this.stateless = stateless;
     }
 
     /**
@@ -76,7 +98,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                 jwt = authorizationHeader.substring(7);
-                username = jwtService.extractUsername(jwt); // Changed from jwtUtil to jwtService
+
+                if (stateless) {
+                    authenticateFromClaims(jwt, request);
+                } else {
+                    username = jwtService.extractUsername(jwt); // Changed from jwtUtil to jwtService
+                }
             }
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -100,4 +127,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Authenticate from the verified claims of a token, without reading the user
+    private void authenticateFromClaims(String jwt, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+
+        Claims claims = jwtService.extractAllClaims(jwt);
+        String username = claims.getSubject();
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        Number version = claims.get(JwtService.VERSION_CLAIM, Number.class);
+        if (username == null || roles == null || version == null) {
+            logger.debug("Token of {} has no roles or version claim", username);
+            return;
+        }
+        if (revocationList.isRevoked(username, version.longValue())) {
+            logger.debug("Token of {} was revoked", username);
+            return;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : roles) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("")
+                .authorities(authorities)
+                .build();
+
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
 }
\ No newline at end of file
@@ -3,13 +3,17 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import com.recipeapi.recipeapi.model.User;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -18,12 +22,22 @@ import java.util.function.Function;
  *
  * <p>This service provides methods for generating, validating, and parsing JWT tokens.</p>
  *
+ * <p>Tokens issued for a user carry the user's roles and token version as the
+ * {@value #ROLES_CLAIM} and {@value #VERSION_CLAIM} claims, so that a request
+ * can be authenticated from the verified token alone.</p>
+ *
  * @author Reina
  * @version 1.0
  */
 @Component
 public class JwtService {
 
+    /** Claim holding the user's roles, without the {@code ROLE_} prefix. */
+    public static final String ROLES_CLAIM = "roles";
+
+    /** Claim holding the user's token version when the token was issued. */
+    public static final String VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret:defaultsecretkey}")
     private String secret;
 
@@ -84,10 +98,13 @@ public class JwtService {
     /**
      * Extracts all claims from a JWT token.
      *
+     * <p>The signature and the expiration are verified.</p>
+     *
      * @param token The JWT token
      * @return All claims from the token
+     * @throws io.jsonwebtoken.JwtException If the token is invalid or expired
      */
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSigningKey()) // Use getSigningKey() method
                 .build()
@@ -120,13 +137,21 @@ public class JwtService {
 
     // Add overloaded method to accept UserDetails for compatibility
     /**
-     * Generates a JWT token for a user.
+     * Generates a JWT token for a user, embedding their roles and token version.
      *
      * @param userDetails The user details
      * @return The generated JWT token
      */
     public String generateToken(UserDetails userDetails) {
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            String name = authority.getAuthority();
+            roles.add(name.startsWith("ROLE_") ? name.substring("ROLE_".length()) : name);
+        }
+
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, roles);
+        claims.put(VERSION_CLAIM, userDetails instanceof User user ? user.getTokenVersion() : 0L);
         return createToken(claims, userDetails.getUsername());
     }
 
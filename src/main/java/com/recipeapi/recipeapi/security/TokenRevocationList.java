@@ -0,0 +1,139 @@
+package com.recipeapi.recipeapi.security;
+
+import com.recipeapi.recipeapi.model.TokenRevocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of revoked user tokens, for stateless authentication.
+ *
+ * <p>A stateless token is trusted on its signature alone, so revoking one
+ * needs a list the filter can check without reading the user. The list holds,
+ * for each user whose roles or status changed within the last token lifetime,
+ * the lowest user version still accepted (see {@link TokenRevocation}). A
+ * check is a single map lookup.</p>
+ *
+ * <p>Revocations are written to MongoDB so that every instance sees them.
+ * Local revocations apply at once; with {@code jwt.stateless} on, the list is
+ * reloaded every {@code jwt.revocation.refresh-interval}, which bounds how long
+ * a token revoked by another instance is still accepted.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final long tokenLifetimeMillis;
+    private final boolean stateless;
+    private final Duration refreshInterval;
+
+    private volatile Map<String, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new TokenRevocationList.
+     *
+     * @param mongoTemplate Template used to store and load revocations
+     * @param tokenLifetimeMillis How long a token is valid, which is how long a revocation is kept
+     * @param stateless Whether tokens are authenticated from their claims, which needs the list to be refreshed
+     * @param refreshInterval How often the list is reloaded
+     */
+    public TokenRevocationList(MongoTemplate mongoTemplate,
+                               @Value("${jwt.expiration:86400000}") long tokenLifetimeMillis,
+                               @Value("${jwt.stateless:false}") boolean stateless,
+                               @Value("${jwt.revocation.refresh-interval:30s}") Duration refreshInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.stateless = stateless;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Starts reloading the list in the background once the application is ready, in stateless mode.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshInBackground() {
+        if (!stateless) {
+            return;
+        }
+
+        Thread refresher = new Thread(() -> {
+            while (true) {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    logger.warn("Token revocation list refresh failed: {}", e.getMessage());
+                }
+                try {
+                    Thread.sleep(refreshInterval.toMillis());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "token-revocation-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /**
+     * Reloads every revocation from MongoDB.
+     */
+    public synchronized void refresh() {
+        Map<String, Long> loaded = new ConcurrentHashMap<>();
+        for (TokenRevocation revocation : mongoTemplate.findAll(TokenRevocation.class)) {
+            loaded.put(revocation.getUsername(), revocation.getMinimumVersion());
+        }
+        minimumVersions = loaded;
+    }
+
+    /**
+     * Revokes the tokens of a user issued before a version.
+     *
+     * @param username The user whose tokens are revoked
+     * @param minimumVersion The lowest user version still accepted
+     */
+    public synchronized void revoke(String username, long minimumVersion) {
+        mongoTemplate.save(new TokenRevocation(username, minimumVersion,
+                new Date(System.currentTimeMillis() + tokenLifetimeMillis)));
+        minimumVersions.put(username, minimumVersion);
+    }
+
+    /**
+     * Reads the lowest user version accepted for a username from MongoDB.
+     *
+     * <p>Registration starts new users at this version, so that the tokens of
+     * a deleted user with the same name stay revoked.</p>
+     *
+     * @param username The username
+     * @return The lowest accepted version, 0 if the username has no revocation
+     */
+    public long minimumVersion(String username) {
+        TokenRevocation revocation = mongoTemplate.findById(username, TokenRevocation.class);
+        return revocation != null ? revocation.getMinimumVersion() : 0;
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param username The subject of the token
+     * @param version The user version embedded in the token
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(String username, long version) {
+        Long minimumVersion = minimumVersions.get(username);
+        return minimumVersion != null && version < minimumVersion;
+    }
+}
@@ -1,13 +1,19 @@
 package com.recipeapi.recipeapi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.recipeapi.recipeapi.model.User;
 import com.recipeapi.recipeapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,6 +28,19 @@ import java.util.List;
  * </ul>
  * </p>
  *
+ * <p>Users loaded by username are cached, since the JWT filter loads the user
+ * on every authenticated request. The cache is bounded by
+ * {@code users.cache.maximum-size} and entries expire after
+ * {@code users.cache.time-to-live}, which bounds how long a change made by
+ * another instance goes unnoticed. Deleting a user or changing their roles
+ * evicts them. Hits, misses, evictions and the size are published as the
+ * Micrometer {@code cache.*} metrics with the tag {@code cache=users}.</p>
+ *
+ * <p>Changing a user's roles or status, or deleting them, increments their
+ * token version and revokes the tokens issued before in the
+ * {@link TokenRevocationList}, which stateless authentication checks instead
+ * of reading the user.</p>
+ *
  * @author Reina
  * @version 1.0
  */
@@ -30,16 +49,32 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationList revocationList;
+    private final Cache<String, User> usersByUsername;
 
     /**
      * Creates a new UserService with the necessary dependencies.
      *
      * @param userRepository Repository for user operations
      * @param passwordEncoder Encoder for password hashing
+     * @param revocationList List the tokens of changed users are revoked in
+     * @param meterRegistry Registry the user cache metrics are published to
+     * @param cacheMaximumSize The maximum number of cached users
+     * @param cacheTimeToLive How long a user stays cached after being loaded
      */
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       TokenRevocationList revocationList, MeterRegistry meterRegistry,
+                       @Value("${users.cache.maximum-size:10000}") long cacheMaximumSize,
+                       @Value("${users.cache.time-to-live:60s}") Duration cacheTimeToLive) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.revocationList = revocationList;
+        this.usersByUsername = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTimeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByUsername, "users");
     }
 
 
@@ -47,7 +82,8 @@ public class UserService implements UserDetailsService {
      * Loads a user by username.
      *
      * <p>This method is required by the UserDetailsService interface
-     * and is used by Spring Security for authentication.</p>
+     * and is used by Spring Security for authentication. Users are read
+     * through the cache; unknown usernames are not cached.</p>
      *
      * @param username The username to load
      * @return The user details
@@ -55,8 +91,11 @@ public class UserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        User user = usersByUsername.get(username, key -> userRepository.findByUsername(key).orElse(null));
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        return user;
     }
 
     /**
@@ -92,6 +131,8 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(password));
         user.setEmail(email);
         user.setRoles(roles != null ? roles : new ArrayList<>());
+        // Tokens of a deleted user with the same name must stay revoked
+        user.setTokenVersion(revocationList.minimumVersion(username));
 
         return userRepository.save(user);
     }
@@ -126,5 +167,50 @@ public class UserService implements UserDetailsService {
     public void deleteUser(String id) {
         User user = getUserById(id);
         userRepository.delete(user);
+        usersByUsername.invalidate(user.getUsername());
+        revocationList.revoke(user.getUsername(), user.getTokenVersion() + 1);
+    }
+
+    /**
+     * Replaces the roles of a user.
+     *
+     * <p>The user is evicted from the cache and their tokens are revoked, so
+     * the new roles apply from their next request or login.</p>
+     *
+     * @param id The ID of the user to update
+     * @param roles The new roles, such as {@code "USER"} or {@code "ADMIN"}
+     * @return The updated user
+     * @throws UsernameNotFoundException If no user is found with the ID
+     */
+    public User updateRoles(String id, List<String> roles) {
+        User user = getUserById(id);
+        user.setRoles(roles != null ? new ArrayList<>(roles) : new ArrayList<>());
+        return saveAndRevokeTokens(user);
+    }
+
+    /**
+     * Enables or disables a user.
+     *
+     * <p>A disabled user cannot log in, and the tokens issued before are
+     * revoked.</p>
+     *
+     * @param id The ID of the user to update
+     * @param enabled Whether the user may log in
+     * @return The updated user
+     * @throws UsernameNotFoundException If no user is found with the ID
+     */
+    public User setEnabled(String id, boolean enabled) {
+        User user = getUserById(id);
+        user.setEnabled(enabled);
+        return saveAndRevokeTokens(user);
+    }
+
+    // Save a change to a user's roles or status and reject the tokens that predate it
+    private User saveAndRevokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User savedUser = userRepository.save(user);
+        usersByUsername.invalidate(savedUser.getUsername());
+        revocationList.revoke(savedUser.getUsername(), savedUser.getTokenVersion());
+        return savedUser;
     }
 }
\ No newline at end of file
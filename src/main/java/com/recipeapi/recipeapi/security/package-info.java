@@ -10,6 +10,7 @@
  *   <li>{@link com.recipeapi.recipeapi.security.JwtAuthenticationFilter} - Filters requests to validate JWT tokens</li>
  *   <li>{@link com.recipeapi.recipeapi.security.JwtService} - Handles JWT token generation and validation</li>
  *   <li>{@link com.recipeapi.recipeapi.security.UserService} - Implements UserDetailsService for authentication</li>
+ *   <li>{@link com.recipeapi.recipeapi.security.TokenRevocationList} - Rejects tokens of changed users in stateless mode</li>
  * </ul>
  *
  * <p>This package implements a stateless authentication mechanism using JWT tokens,
@@ -0,0 +1,136 @@
+package com.recipeapi.recipeapi.service;
+
+import com.recipeapi.recipeapi.cache.RecipeCache;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.search.IngredientNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Batch job that fills in {@code normalizedIngredients} and
+ * {@code normalizedIngredientTerms} for existing recipes.
+ *
+ * <p>Recipes saved before ingredient normalization existed have no canonical
+ * ingredient names or terms and are invisible to the ingredient queries. The job streams those
+ * recipes, reading only their ingredients, and writes the names back in unordered
+ * bulk batches. Each update only applies if the field is still missing, so a
+ * recipe updated through the service while the job runs is left alone.</p>
+ *
+ * <p>The job runs once in the background at startup unless
+ * {@code recipes.backfill.enabled} is false. Once every recipe has been
+ * backfilled, a run finds nothing to do.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class IngredientBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientBackfillJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final RecipeChangeTracker changeTracker;
+    private final RecipeCache recipeCache;
+    private final boolean enabled;
+    private final int batchSize;
+
+    /**
+     * Creates a new IngredientBackfillJob.
+     *
+     * @param mongoTemplate template used to read and update recipes
+     * @param changeTracker change counters to bump when recipes were updated
+     * @param recipeCache cache to clear when recipes were updated
+     * @param enabled whether to run the job at startup
+     * @param batchSize the number of updates sent per bulk write
+     */
+    public IngredientBackfillJob(MongoTemplate mongoTemplate,
+                                 RecipeChangeTracker changeTracker,
+                                 RecipeCache recipeCache,
+                                 @Value("${recipes.backfill.enabled:true}") boolean enabled,
+                                 @Value("${recipes.backfill.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeTracker = changeTracker;
+        this.recipeCache = recipeCache;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts the backfill once the application is ready, if enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (!enabled) {
+            return;
+        }
+
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                logger.warn("Ingredient backfill failed: {}", e.getMessage());
+            }
+        }, "ingredient-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Backfills every recipe that has no normalized ingredient terms.
+     *
+     * @return the number of recipes updated
+     */
+    public long run() {
+        Query missing = new Query(Criteria.where("normalizedIngredientTerms").exists(false));
+        missing.fields().include("ingredients");
+        missing.cursorBatchSize(batchSize);
+
+        long start = System.currentTimeMillis();
+        long updated = 0;
+        BulkOperations batch = null;
+        int batched = 0;
+
+        try (Stream<Recipe> recipes = mongoTemplate.stream(missing, Recipe.class)) {
+            for (Recipe recipe : (Iterable<Recipe>) recipes::iterator) {
+                if (batch == null) {
+                    batch = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class);
+                }
+                List<String> normalized = IngredientNormalizer.normalizeAll(recipe.getIngredients());
+                batch.updateOne(
+                        new Query(Criteria.where("id").is(recipe.getId()).and("normalizedIngredientTerms").exists(false)),
+                        new Update().set("normalizedIngredients", normalized)
+                                .set("normalizedIngredientTerms", IngredientNormalizer.terms(normalized)));
+
+                if (++batched == batchSize) {
+                    updated += batch.execute().getModifiedCount();
+                    batch = null;
+                    batched = 0;
+                }
+            }
+        }
+
+        if (batch != null) {
+            updated += batch.execute().getModifiedCount();
+        }
+        if (updated > 0) {
+            changeTracker.onBulkWrite();
+            recipeCache.invalidateAll();
+        }
+        logger.info("Backfilled normalized ingredients of {} recipes in {} ms",
+                updated, System.currentTimeMillis() - start);
+        return updated;
+    }
+}
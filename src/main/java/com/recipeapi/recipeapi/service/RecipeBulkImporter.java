@@ -0,0 +1,214 @@
+package com.recipeapi.recipeapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.cache.RecipeCountCache;
+import com.recipeapi.recipeapi.cache.RecipeWriteLog;
+import com.recipeapi.recipeapi.cache.SearchResultCache;
+import com.recipeapi.recipeapi.model.BulkImportResult;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.search.IngredientNormalizer;
+import com.recipeapi.recipeapi.search.RecipeIndexManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports recipes from a streamed request body.
+ *
+ * <p>The body is either a JSON array of recipes or newline-delimited JSON
+ * (one recipe per line). Records are read and validated one at a time, so the
+ * body is never held in memory, and valid records are inserted in unordered
+ * bulk writes of {@code recipes.bulk.batch-size} recipes. A record that fails
+ * to bind, fails validation or is rejected by the database is reported by its
+ * number and does not stop the import. Malformed JSON does, since the records
+ * after it cannot be told apart; the recipes read before it are still inserted.</p>
+ *
+ * <p>Recipes without an ID get one before the insert, so that the search
+ * indexes, the count cache and the change counters can be updated with the recipes that were
+ * written. A recipe whose ID is already taken is reported as failed. Cached
+ * search results are dropped after every batch that inserted recipes.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Service
+public class RecipeBulkImporter {
+
+    private final MongoTemplate mongoTemplate;
+    private final RecipeIndexManager indexManager;
+    private final RecipeCountCache countCache;
+    private final RecipeChangeTracker changeTracker;
+    private final SearchResultCache searchCache;
+    private final RecipeWriteLog writeLog;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    /**
+     * Creates a new RecipeBulkImporter.
+     *
+     * @param mongoTemplate template used to write the batches
+     * @param indexManager search indexes to update with the inserted recipes
+     * @param countCache count cache to update with the inserted recipes
+     * @param changeTracker change counters to bump for the inserted recipes
+     * @param searchCache search result cache to clear after inserts
+     * @param writeLog log of local writes to record the inserted recipes in
+     * @param validator validator applied to every record
+     * @param objectMapper mapper used to read the records
+     * @param batchSize the number of inserts sent per bulk write
+     */
+    public RecipeBulkImporter(MongoTemplate mongoTemplate, RecipeIndexManager indexManager,
+                              RecipeCountCache countCache, RecipeChangeTracker changeTracker,
+                              SearchResultCache searchCache, RecipeWriteLog writeLog,
+                              Validator validator, ObjectMapper objectMapper,
+                              @Value("${recipes.bulk.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexManager = indexManager;
+        this.countCache = countCache;
+        this.changeTracker = changeTracker;
+        this.searchCache = searchCache;
+        this.writeLog = writeLog;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports the recipes of a JSON array or NDJSON body.
+     *
+     * @param body the request body
+     * @return the counts of received, inserted and failed records, with the errors
+     * @throws IOException if the body cannot be read
+     */
+    public BulkImportResult importRecipes(InputStream body) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<Recipe> batch = new ArrayList<>(batchSize);
+        List<Long> batchIndexes = new ArrayList<>(batchSize);
+        long index = 0;
+
+        // A root-level array is unwrapped, so both formats read as a sequence of values
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (true) {
+                JsonNode node;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    node = records.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.recordReceived();
+                    result.recordFailed(index, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+
+                result.recordReceived();
+                String error = null;
+                Recipe recipe = null;
+                try {
+                    recipe = objectMapper.treeToValue(node, Recipe.class);
+                    error = validate(recipe);
+                } catch (JsonProcessingException e) {
+                    error = "Invalid recipe: " + e.getOriginalMessage();
+                }
+
+                if (error != null) {
+                    result.recordFailed(index, error);
+                } else {
+                    batch.add(prepare(recipe));
+                    batchIndexes.add(index);
+                    if (batch.size() == batchSize) {
+                        insert(batch, batchIndexes, result);
+                    }
+                }
+                index++;
+            }
+        } finally {
+            if (!batch.isEmpty()) {
+                insert(batch, batchIndexes, result);
+            }
+        }
+        result.getErrors().sort(Comparator.comparingLong(BulkImportResult.RecordError::getIndex));
+        return result;
+    }
+
+    // Return the validation errors of a recipe, or null if it is valid
+    private String validate(Recipe recipe) {
+        if (recipe == null) {
+            return "Invalid recipe: expected an object";
+        }
+        Set<ConstraintViolation<Recipe>> violations = validator.validate(recipe);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // Apply the same defaults as RecipeService.createRecipe, start the version and assign an ID if there is none
+    private static Recipe prepare(Recipe recipe) {
+        if (recipe.getCreatedBy() == null || recipe.getCreatedBy().isEmpty()) {
+            recipe.setCreatedBy("system");
+        }
+        List<String> normalized = IngredientNormalizer.normalizeAll(recipe.getIngredients());
+        recipe.setNormalizedIngredients(normalized);
+        recipe.setNormalizedIngredientTerms(IngredientNormalizer.terms(normalized));
+        recipe.setVersion(0L);
+        if (recipe.getId() == null) {
+            recipe.setId(new ObjectId().toHexString());
+        }
+        return recipe;
+    }
+
+    // Write a batch, report the records the database rejected and update the indexes with the rest
+    private void insert(List<Recipe> batch, List<Long> batchIndexes, BulkImportResult result) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class);
+        operations.insert(batch);
+
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            result.recordInserted(operations.execute().getInsertedCount());
+        } catch (BulkOperationException e) {
+            result.recordInserted(e.getResult().getInsertedCount());
+            for (BulkWriteError error : e.getErrors()) {
+                rejected.add(error.getIndex());
+                result.recordFailed(batchIndexes.get(error.getIndex()), error.getMessage());
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (!rejected.contains(i)) {
+                Recipe recipe = batch.get(i);
+                writeLog.onSaved(recipe.getId(), recipe.getVersion());
+                indexManager.onSaved(recipe);
+                countCache.onWrite(null, recipe.getCategory());
+                changeTracker.onWrite(null, recipe.getCategory());
+            }
+        }
+        if (rejected.size() < batch.size()) {
+            searchCache.invalidateAll();
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+}
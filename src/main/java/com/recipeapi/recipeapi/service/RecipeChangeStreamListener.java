@@ -0,0 +1,418 @@
+package com.recipeapi.recipeapi.service;
+
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.recipeapi.recipeapi.cache.RecipeCache;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.cache.RecipeCountCache;
+import com.recipeapi.recipeapi.cache.RecipeWriteLog;
+import com.recipeapi.recipeapi.cache.SearchResultCache;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.search.RecipeIndexManager;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the local caches and indexes in step with writes made by other instances.
+ *
+ * <p>Each instance keeps its own {@link RecipeCache}, {@link SearchResultCache},
+ * {@link RecipeCountCache}, {@link RecipeChangeTracker} and search indexes, and
+ * a write only updates those of the instance that made it. The listener watches
+ * the recipes collection with a MongoDB change stream and applies every
+ * insert, update, replace and delete it sees: the recipe is evicted and
+ * re-indexed from the current document, the search results are invalidated,
+ * and the counts and list ETags of the categories the recipe left and entered
+ * are bumped. The previous category comes from the event's pre-image, which
+ * the listener enables on the collection at startup
+ * ({@code changeStreamPreAndPostImages}, MongoDB 6.0 or later, needs the
+ * {@code collMod} privilege). Without a pre-image every count and list ETag is
+ * invalidated instead.</p>
+ *
+ * <p>Writes made by this instance come back through the stream too. They are
+ * recorded in the {@link RecipeWriteLog} by the version they stored, or by ID
+ * for deletes, and their events are skipped since the write already updated
+ * everything. An event that arrives before its write was recorded is applied
+ * again, which is harmless.</p>
+ *
+ * <p>The resume token is saved in the {@value #TOKEN_COLLECTION} collection
+ * under {@code recipes.change-stream.node-id}: every
+ * {@value #TOKEN_SAVE_INTERVAL} events while changes arrive, at most once
+ * every {@value #IDLE_TOKEN_SAVE_MILLIS} ms while the stream is idle, and on
+ * stop. The server moves the token forward about once per second even when
+ * nothing changes, so saving it on every move would cost a write per second
+ * per instance. A restarted instance resumes close to where it stopped, and
+ * replaying the few events since the last save is harmless.
+ * If the token has fallen off the oplog, everything is invalidated and the
+ * indexes are rebuilt.</p>
+ *
+ * <p>Change streams need a replica set; a single-node replica set is enough.
+ * Against a standalone server the listener logs a warning and stops. It runs
+ * in the background from startup unless {@code recipes.change-stream.enabled}
+ * is false.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class RecipeChangeStreamListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeChangeStreamListener.class);
+
+    static final String TOKEN_COLLECTION = "recipeChangeStreamTokens";
+    private static final int TOKEN_SAVE_INTERVAL = 100;
+    private static final long IDLE_TOKEN_SAVE_MILLIS = 30000;
+    private static final long MAX_AWAIT_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 5000;
+
+    // Server error codes: change streams unsupported, resume point no longer in the oplog
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int HISTORY_LOST = 286;
+    private static final int FATAL_ERROR = 280;
+
+    private final MongoTemplate mongoTemplate;
+    private final RecipeIndexManager indexManager;
+    private final RecipeCache recipeCache;
+    private final SearchResultCache searchCache;
+    private final RecipeCountCache countCache;
+    private final RecipeChangeTracker changeTracker;
+    private final RecipeWriteLog writeLog;
+    private final boolean enabled;
+    private final String nodeId;
+
+    private volatile boolean running;
+    private volatile boolean watching;
+    private Thread worker;
+
+    /**
+     * Creates a new RecipeChangeStreamListener.
+     *
+     * @param mongoTemplate template used to watch recipes and store the resume token
+     * @param indexManager search indexes to update with the changed recipes
+     * @param recipeCache recipe cache to evict changed recipes from
+     * @param searchCache search result cache to clear on every change made elsewhere
+     * @param countCache count cache to update with the categories of changes made elsewhere
+     * @param changeTracker change counters to bump for changes made elsewhere
+     * @param writeLog log of the writes made by this instance, whose events are skipped
+     * @param enabled whether to start listening at startup
+     * @param nodeId the name this instance saves its resume token under; unique per instance
+     */
+    public RecipeChangeStreamListener(MongoTemplate mongoTemplate,
+                                      RecipeIndexManager indexManager,
+                                      RecipeCache recipeCache,
+                                      SearchResultCache searchCache,
+                                      RecipeCountCache countCache,
+                                      RecipeChangeTracker changeTracker,
+                                      RecipeWriteLog writeLog,
+                                      @Value("${recipes.change-stream.enabled:true}") boolean enabled,
+                                      @Value("${recipes.change-stream.node-id:${HOSTNAME:localhost}:${server.port:8080}}")
+                                      String nodeId) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexManager = indexManager;
+        this.recipeCache = recipeCache;
+        this.searchCache = searchCache;
+        this.countCache = countCache;
+        this.changeTracker = changeTracker;
+        this.writeLog = writeLog;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Starts listening once the application is ready, if enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts listening on a background thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::listen, "recipe-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops listening and saves the resume token.
+     *
+     * @throws InterruptedException if interrupted while waiting for the listener to stop
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(MAX_AWAIT_MILLIS * 5);
+            worker = null;
+        }
+    }
+
+    /**
+     * Tells whether the change stream is open.
+     *
+     * @return true once changes made from now on are sure to be seen
+     */
+    public boolean isWatching() {
+        return watching;
+    }
+
+    // Watch until stopped, reopening the stream after failures
+    private void listen() {
+        enablePreImages();
+        BsonDocument token = loadToken();
+        while (running) {
+            try {
+                token = watch(token);
+            } catch (MongoServerException e) {
+                if (e.getCode() == NOT_A_REPLICA_SET) {
+                    logger.warn("Change streams need a replica set; changes made by other instances will not be seen");
+                    running = false;
+                } else if (e.getCode() == HISTORY_LOST || e.getCode() == FATAL_ERROR) {
+                    logger.warn("Recipe changes since the saved resume token are lost; invalidating everything");
+                    token = null;
+                    deleteToken();
+                    invalidateEverything();
+                } else {
+                    logger.warn("Recipe change stream failed: {}", e.getMessage());
+                    pause();
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Recipe change stream failed: {}", e.getMessage());
+                pause();
+            } finally {
+                watching = false;
+            }
+        }
+    }
+
+    // Apply changes until stopped or the stream is invalidated, returning the last resume token
+    private BsonDocument watch(BsonDocument token) {
+        MongoCollection<Document> recipes = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Recipe.class));
+        ChangeStreamIterable<Document> stream = recipes.watch(List.of())
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        if (token != null) {
+            stream = stream.startAfter(token);
+        }
+
+        BsonDocument saved = token;
+        long savedAt = System.currentTimeMillis();
+        int unsaved = 0;
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            // Known as soon as the stream is open, so that stopping before any event still saves a position
+            if (cursor.getResumeToken() != null) {
+                token = cursor.getResumeToken();
+            }
+            watching = true;
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (cursor.getResumeToken() != null) {
+                    token = cursor.getResumeToken();
+                }
+                if (event != null) {
+                    unsaved++;
+                    if (!apply(event)) {
+                        break;
+                    }
+                }
+                long now = System.currentTimeMillis();
+                // A first position is saved at once, so that a crash soon after startup does not lose it
+                boolean due = saved == null || unsaved >= TOKEN_SAVE_INTERVAL
+                        || (event == null && now - savedAt >= IDLE_TOKEN_SAVE_MILLIS);
+                if (token != null && !token.equals(saved) && due) {
+                    saveToken(token);
+                    saved = token;
+                    savedAt = now;
+                    unsaved = 0;
+                }
+            }
+        }
+
+        if (token != null && !token.equals(saved)) {
+            saveToken(token);
+        }
+        return token;
+    }
+
+    // Apply one change, returning false if the stream was invalidated and must be reopened
+    private boolean apply(ChangeStreamDocument<Document> event) {
+        switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                String id = recipeId(event.getDocumentKey());
+                if (writeLog.consumeSaved(id, writtenVersion(event))) {
+                    return true;
+                }
+                recipeCache.invalidate(id);
+                Document document = event.getFullDocument();
+                if (document != null) {
+                    indexManager.onSaved(mongoTemplate.getConverter().read(Recipe.class, document));
+                } else {
+                    // Deleted before the lookup; the delete event follows
+                    indexManager.onDeleted(id);
+                }
+                onWrite(event, writtenCategory(event));
+            }
+            case DELETE -> {
+                String id = recipeId(event.getDocumentKey());
+                if (writeLog.consumeDeleted(id)) {
+                    return true;
+                }
+                recipeCache.invalidate(id);
+                indexManager.onDeleted(id);
+                onWrite(event, null);
+            }
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                invalidateEverything();
+                return event.getOperationType() != OperationType.INVALIDATE;
+            }
+            default -> {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    // Update the counts, ETags and search results for a write, from its pre-image when there is one
+    private void onWrite(ChangeStreamDocument<Document> event, String newCategory) {
+        Document previous = event.getFullDocumentBeforeChange();
+        if (event.getOperationType() == OperationType.INSERT) {
+            countCache.onWrite(null, newCategory);
+            changeTracker.onWrite(null, newCategory);
+        } else if (previous != null) {
+            String previousCategory = previous.getString("category");
+            // An update that leaves the category alone does not list it among the changed fields
+            String category = event.getOperationType() == OperationType.UPDATE && !changesCategory(event)
+                    ? previousCategory : newCategory;
+            countCache.onWrite(previousCategory, category);
+            changeTracker.onWrite(previousCategory, category);
+        } else {
+            // Pre-images are off or expired, so the previous category is unknown
+            countCache.invalidateAll();
+            changeTracker.onBulkWrite();
+        }
+        searchCache.invalidateAll();
+    }
+
+    // The version a write stored: replacements and inserts carry the document, updates the changed fields
+    private static Long writtenVersion(ChangeStreamDocument<Document> event) {
+        if (event.getOperationType() == OperationType.UPDATE) {
+            BsonValue version = event.getUpdateDescription() != null
+                    ? event.getUpdateDescription().getUpdatedFields().get("version") : null;
+            return version != null && version.isNumber() ? version.asNumber().longValue() : null;
+        }
+        Document document = event.getFullDocument();
+        Object version = document != null ? document.get("version") : null;
+        return version instanceof Number number ? number.longValue() : null;
+    }
+
+    // The category a write stored, or null if it removed it or its document is unknown
+    private static String writtenCategory(ChangeStreamDocument<Document> event) {
+        if (event.getOperationType() == OperationType.UPDATE) {
+            BsonValue category = event.getUpdateDescription() != null
+                    ? event.getUpdateDescription().getUpdatedFields().get("category") : null;
+            return category != null && category.isString() ? category.asString().getValue() : null;
+        }
+        Document document = event.getFullDocument();
+        return document != null ? document.getString("category") : null;
+    }
+
+    private static boolean changesCategory(ChangeStreamDocument<Document> event) {
+        UpdateDescription description = event.getUpdateDescription();
+        return description != null && (description.getUpdatedFields().containsKey("category")
+                || (description.getRemovedFields() != null && description.getRemovedFields().contains("category")));
+    }
+
+    // Drop every cached value and rebuild the indexes, for changes that cannot be applied one by one
+    private void invalidateEverything() {
+        recipeCache.invalidateAll();
+        countCache.invalidateAll();
+        changeTracker.onBulkWrite();
+        searchCache.invalidateAll();
+        indexManager.rebuild();
+    }
+
+    // Recipe IDs are stored as ObjectIds when they are valid hex strings
+    private static String recipeId(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    // Ask the server to keep pre-images of recipes, from which events get the previous category
+    private void enablePreImages() {
+        String collection = mongoTemplate.getCollectionName(Recipe.class);
+        try {
+            if (!mongoTemplate.collectionExists(collection)) {
+                mongoTemplate.createCollection(collection);
+            }
+            mongoTemplate.getDb().runCommand(new Document("collMod", collection)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (RuntimeException e) {
+            logger.warn("Could not enable recipe pre-images; changes made elsewhere will invalidate every count: {}",
+                    e.getMessage());
+        }
+    }
+
+    private MongoCollection<BsonDocument> tokens() {
+        return mongoTemplate.getDb().getCollection(TOKEN_COLLECTION, BsonDocument.class);
+    }
+
+    private BsonDocument loadToken() {
+        try {
+            BsonDocument saved = tokens().find(Filters.eq("_id", nodeId)).first();
+            return saved != null ? saved.getDocument("token", null) : null;
+        } catch (RuntimeException e) {
+            logger.warn("Could not load the recipe change stream resume token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveToken(BsonDocument token) {
+        tokens().updateOne(Filters.eq("_id", nodeId),
+                Updates.combine(Updates.set("token", token), Updates.set("savedAt", new Date())),
+                new UpdateOptions().upsert(true));
+    }
+
+    private void deleteToken() {
+        tokens().deleteOne(Filters.eq("_id", nodeId));
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -1,13 +1,55 @@
 package com.recipeapi.recipeapi.service;
+import com.recipeapi.recipeapi.cache.RecipeCache;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.cache.RecipeCountCache;
+import com.recipeapi.recipeapi.cache.RecipeWriteLog;
+import com.recipeapi.recipeapi.cache.SearchResultCache;
 import com.recipeapi.recipeapi.exception.NotFoundException;
+import com.recipeapi.recipeapi.exception.PreconditionFailedException;
+import com.recipeapi.recipeapi.model.CursorPage;
+import com.recipeapi.recipeapi.model.PantryMatch;
 import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import com.recipeapi.recipeapi.model.RecipePatch;
+import com.recipeapi.recipeapi.model.RecipeSummary;
+import com.recipeapi.recipeapi.repository.RecipeCursor;
 import com.recipeapi.recipeapi.repository.RecipeRepository;
+import com.recipeapi.recipeapi.search.AutocompleteIndex;
+import com.recipeapi.recipeapi.search.FacetIndex;
+import com.recipeapi.recipeapi.search.FilterIndex;
+import com.recipeapi.recipeapi.search.FullTextIndex;
+import com.recipeapi.recipeapi.search.IngredientIndex;
+import com.recipeapi.recipeapi.search.IngredientNormalizer;
+import com.recipeapi.recipeapi.search.PantryIndex;
+import com.recipeapi.recipeapi.search.RecipeIndexManager;
+import com.recipeapi.recipeapi.search.SearchHits;
+import com.recipeapi.recipeapi.search.SpellingIndex;
+import com.recipeapi.recipeapi.search.TitleTrigramIndex;
+import com.recipeapi.recipeapi.search.Tokenizer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 
 /**
@@ -27,29 +69,124 @@ import java.util.List;
  * </ul>
  * </p>
  *
+ * <p>Listing and search methods have overloads taking the type to return, either
+ * {@link Recipe} or the {@link RecipeSummary} projection, which only reads the
+ * fields shown in recipe lists.</p>
+ *
  * @author Reina
  * @version 1.0
  */
 @Service
 public class RecipeService {
 
+    // Number of most common ingredients reported in search facets
+    private static final int TOP_INGREDIENTS = 10;
+
+    // Number of spelling suggestions reported per unknown word
+    private static final int SPELLING_SUGGESTIONS = 5;
+
+    // Number of recipes fetched per round trip when exporting
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    // Number of recipes written per updateMany or deleteMany in bulk operations
+    static final int BULK_PAGE_SIZE = 500;
+
+    // Maximum number of recipes returned by the unpaged title and ingredient searches
+    static final int MAX_SEARCH_RESULTS = 1000;
+
+    // Shortest title query; shorter ones have no trigram to look up and would scan every title
+    static final int MIN_TITLE_QUERY_LENGTH = 3;
+
     private final RecipeRepository recipeRepository;
+    private final RecipeIndexManager indexManager;
+    private final IngredientIndex ingredientIndex;
+    private final TitleTrigramIndex titleIndex;
+    private final FullTextIndex fullTextIndex;
+    private final FacetIndex facetIndex;
+    private final PantryIndex pantryIndex;
+    private final FilterIndex filterIndex;
+    private final SpellingIndex spellingIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final RecipeCountCache countCache;
+    private final RecipeChangeTracker changeTracker;
+    private final RecipeCache recipeCache;
+    private final SearchResultCache searchCache;
+    private final RecipeWriteLog writeLog;
 
     /**
-     * Constructs a new RecipeService with the specified repository.
+     * Constructs a new RecipeService with the specified repository, indexes and caches.
      *
      * @param recipeRepository the repository for recipe data access
+     * @param indexManager the manager keeping the in-memory indexes up to date
+     * @param ingredientIndex the inverted index used for ingredient searches
+     * @param titleIndex the trigram index used for title searches
+     * @param fullTextIndex the relevance-ranked index used for advanced searches
+     * @param facetIndex the forward index used to count search facets
+     * @param pantryIndex the index used to rank recipes by pantry coverage
+     * @param filterIndex the bitmap index used for attribute filters
+     * @param spellingIndex the dictionary used for typo-tolerant searches
+     * @param autocompleteIndex the prefix index used for autocompletion
+     * @param countCache the cache of totals used by paginated results
+     * @param changeTracker the change counters behind list ETags
+     * @param recipeCache the read-through cache of recipes by ID
+     * @param searchCache the cache of advanced search result pages
+     * @param writeLog the log of local writes, whose change stream events are skipped
      */
     @Autowired
-    public RecipeService(RecipeRepository recipeRepository) {
+    public RecipeService(RecipeRepository recipeRepository,
+                         RecipeIndexManager indexManager,
+                         IngredientIndex ingredientIndex,
+                         TitleTrigramIndex titleIndex,
+                         FullTextIndex fullTextIndex,
+                         FacetIndex facetIndex,
+                         PantryIndex pantryIndex,
+                         FilterIndex filterIndex,
+                         SpellingIndex spellingIndex,
+                         AutocompleteIndex autocompleteIndex,
+                         RecipeCountCache countCache,
+                         RecipeChangeTracker changeTracker,
+                         RecipeCache recipeCache,
+                         SearchResultCache searchCache,
+                         RecipeWriteLog writeLog) {
         this.recipeRepository = recipeRepository;
+        this.indexManager = indexManager;
+        this.ingredientIndex = ingredientIndex;
+        this.titleIndex = titleIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.facetIndex = facetIndex;
+        this.pantryIndex = pantryIndex;
+        this.filterIndex = filterIndex;
+        this.spellingIndex = spellingIndex;
+        this.autocompleteIndex = autocompleteIndex;
+        this.countCache = countCache;
+        this.changeTracker = changeTracker;
+        this.recipeCache = recipeCache;
+        this.searchCache = searchCache;
+        this.writeLog = writeLog;
+    }
+
+    // ETag of a list response
+    /**
+     * Returns the weak ETag of a list or search response.
+     *
+     * <p>The ETag is derived from change counters kept in memory, so it costs
+     * no database access and changes whenever a write may have changed the
+     * list.</p>
+     *
+     * @param category the category the list is restricted to, or null for the whole collection
+     * @param request the request path and its query parameters, in a canonical order
+     * @return the ETag of the response
+     */
+    public String getListETag(String category, String request) {
+        return changeTracker.eTag(category, request);
     }
 
     // Create a new recipe
     /**
      * Creates a new recipe.
      *
-     * <p>If the createdBy field is null or empty, it sets a default value of "system".</p>
+     * <p>If the createdBy field is null or empty, it sets a default value of "system".
+     * The canonical ingredient names are derived from the ingredients.</p>
      *
      * @param recipe the recipe to create
      * @return the created recipe with generated ID
@@ -59,43 +196,199 @@ public class RecipeService {
         if (recipe.getCreatedBy() == null || recipe.getCreatedBy().isEmpty()) {
             recipe.setCreatedBy("system");
         }
-        return recipeRepository.save(recipe);
+        normalizeIngredients(recipe);
+        // The version is assigned on insert; one sent by the client would turn the insert into an update
+        recipe.setVersion(null);
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        writeLog.onSaved(savedRecipe.getId(), savedRecipe.getVersion());
+        indexManager.onSaved(savedRecipe);
+        countCache.onWrite(null, savedRecipe.getCategory());
+        changeTracker.onWrite(null, savedRecipe.getCategory());
+        searchCache.invalidateAll();
+        return savedRecipe;
     }
 
-    // Get all recipes (no pagination)
+    // Stream all recipes for export
     /**
-     * Retrieves all recipes without pagination.
+     * Streams every recipe, for exports of the whole collection.
+     *
+     * <p>Recipes are read through a database cursor in batches of
+     * {@value #EXPORT_BATCH_SIZE}, so memory use stays constant however many
+     * recipes there are. The stream holds the cursor open and must be closed.</p>
      *
-     * @return a list of all recipes
+     * @param fields the fields to export, or null for whole recipes
+     * @return a stream of recipes, or of maps of the requested fields
      */
-    public List<Recipe> getAllRecipes() {
-        return recipeRepository.findAll();
+    public Stream<?> streamAllRecipes(RecipeFields fields) {
+        Stream<Recipe> recipes = recipeRepository.streamAll(fields, EXPORT_BATCH_SIZE);
+        return fields != null ? recipes.map(fields::select) : recipes;
     }
 
     // Get all recipes with pagination
     /**
      * Retrieves all recipes with pagination support.
      *
+     * <p>The total is taken from the collection's estimated document count
+     * rather than from a count query.</p>
+     *
      * @param pageable the pagination information
      * @return a page of recipes
      */
     public Page<Recipe> getAllRecipes(Pageable pageable) {
-        return recipeRepository.findAll(pageable);
+        return getAllRecipes(pageable, Recipe.class);
+    }
+
+    /**
+     * Retrieves all recipes with pagination support, read as the given type.
+     *
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a page of recipes
+     * @see #getAllRecipes(Pageable)
+     */
+    public <T extends RecipeSummary> Page<T> getAllRecipes(Pageable pageable, Class<T> type) {
+        Slice<T> slice = recipeRepository.findAllBy(pageable, type);
+        return new PageImpl<>(slice.getContent(), pageable, countCache.countAll());
+    }
+
+    // Get all recipes as a slice
+    /**
+     * Retrieves all recipes as a slice, which only tells whether a next page exists.
+     *
+     * @param pageable the pagination information
+     * @return a slice of recipes
+     */
+    public Slice<Recipe> getAllRecipesSlice(Pageable pageable) {
+        return getAllRecipesSlice(pageable, Recipe.class);
+    }
+
+    /**
+     * Retrieves all recipes as a slice, read as the given type.
+     *
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a slice of recipes
+     */
+    public <T extends RecipeSummary> Slice<T> getAllRecipesSlice(Pageable pageable, Class<T> type) {
+        return recipeRepository.findAllBy(pageable, type);
+    }
+
+    // Get all recipes with cursor pagination
+    /**
+     * Retrieves all recipes with keyset (cursor) pagination.
+     *
+     * <p>Each page seeks directly past the previous one through a compound index,
+     * so deep pages cost the same as the first one and no count is run.</p>
+     *
+     * @param sortBy the field to sort by (title, cookingTime or id)
+     * @param direction the sort direction
+     * @param after the cursor returned with the previous page, or null/empty for the first page
+     * @param size the page size
+     * @return a page of recipes with the cursor for the next page
+     * @throws IllegalArgumentException if the sort field or cursor is invalid
+     */
+    public CursorPage<Recipe> getAllRecipes(String sortBy, Sort.Direction direction, String after, int size) {
+        return getAllRecipes(sortBy, direction, after, size, Recipe.class);
+    }
+
+    /**
+     * Retrieves all recipes with keyset (cursor) pagination, read as the given type.
+     *
+     * @param sortBy the field to sort by (title, cookingTime or id)
+     * @param direction the sort direction
+     * @param after the cursor returned with the previous page, or null/empty for the first page
+     * @param size the page size
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a page of recipes with the cursor for the next page
+     * @throws IllegalArgumentException if the sort field or cursor is invalid
+     */
+    public <T extends RecipeSummary> CursorPage<T> getAllRecipes(String sortBy, Sort.Direction direction,
+                                                                 String after, int size, Class<T> type) {
+        return findAfter(null, sortBy, direction, after, size, type);
     }
 
     // Get a recipe by ID
     /**
      * Retrieves a recipe by its ID.
      *
+     * <p>Recipes are read through the recipe cache. The returned recipe may be
+     * shared with other requests and must not be modified.</p>
+     *
      * @param id the ID of the recipe to retrieve
      * @return the found recipe
      * @throws NotFoundException if no recipe is found with the given ID
      */
     public Recipe getRecipeById(String id) {
+        Recipe recipe = recipeCache.get(id, key -> recipeRepository.findById(key).orElse(null));
+        if (recipe == null) {
+            throw new NotFoundException("Recipe not found with id: " + id);
+        }
+        return recipe;
+    }
+
+    // Read a recipe for a write, bypassing the cache so the version is current and the copy can be modified
+    private Recipe findRecipe(String id) {
         return recipeRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Recipe not found with id: " + id));
     }
 
+    // Get the requested fields of a recipe by ID
+    /**
+     * Retrieves only the requested fields of a recipe.
+     *
+     * @param id the ID of the recipe to retrieve
+     * @param fields the fields to read
+     * @return the requested fields by name
+     * @throws NotFoundException if no recipe is found with the given ID
+     */
+    public Map<String, Object> getRecipeFields(String id, RecipeFields fields) {
+        List<Recipe> recipes = recipeRepository.findFieldsByIdIn(List.of(id), fields);
+        if (recipes.isEmpty()) {
+            throw new NotFoundException("Recipe not found with id: " + id);
+        }
+        return fields.select(recipes.get(0));
+    }
+
+    // Narrow a list of recipes to the requested fields
+    /**
+     * Narrows a list of recipes to the requested fields.
+     *
+     * <p>Lists are meant to be read as {@link RecipeSummary} projections. When
+     * the summaries hold every requested field they are used as they are;
+     * otherwise the requested fields are read in one query by ID, so fields
+     * that were not asked for are never loaded.</p>
+     *
+     * @param recipes the recipes, in the order to return them
+     * @param fields the fields to return
+     * @return the requested fields of each recipe, in the same order
+     */
+    public List<Map<String, Object>> selectFields(List<? extends RecipeSummary> recipes, RecipeFields fields) {
+        List<Map<String, Object>> selected = new ArrayList<>(recipes.size());
+        if (fields.isSummary()) {
+            for (RecipeSummary recipe : recipes) {
+                selected.add(fields.select(recipe));
+            }
+            return selected;
+        }
+
+        List<String> recipeIds = new ArrayList<>(recipes.size());
+        for (RecipeSummary recipe : recipes) {
+            recipeIds.add(recipe.getId());
+        }
+        if (recipeIds.isEmpty()) {
+            return selected;
+        }
+
+        // MongoDB always returns the ID, which restores the order even if it was not requested
+        for (Recipe recipe : inIdOrder(recipeIds, recipeRepository.findFieldsByIdIn(recipeIds, fields))) {
+            selected.add(fields.select(recipe));
+        }
+        return selected;
+    }
+
     // Update a recipe
     /**
      * Updates an existing recipe.
@@ -106,13 +399,44 @@ public class RecipeService {
      * @param recipeDetails the new recipe details
      * @return the updated recipe
      * @throws NotFoundException if no recipe is found with the given ID
+     * @see #updateRecipe(String, Recipe, Long)
      */
     public Recipe updateRecipe(String id, Recipe recipeDetails) {
-        Recipe recipe = getRecipeById(id);
+        return updateRecipe(id, recipeDetails, null);
+    }
+
+    /**
+     * Updates an existing recipe if it is still at the expected version.
+     *
+     * <p>The save is optimistically locked on the version that was read, so an
+     * update made by another request in between is not overwritten. A recipe
+     * stored before recipes were versioned is at version 0; it is given that
+     * version in MongoDB before the save, which would otherwise insert it
+     * again.</p>
+     *
+     * @param id the ID of the recipe to update
+     * @param recipeDetails the new recipe details
+     * @param expectedVersion the version the client last saw, or null to update any version
+     * @return the updated recipe
+     * @throws NotFoundException if no recipe is found with the given ID
+     * @throws PreconditionFailedException if the recipe is not at the expected version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the recipe changed while being updated
+     */
+    public Recipe updateRecipe(String id, Recipe recipeDetails, Long expectedVersion) {
+        Recipe recipe = findRecipe(id);
+        checkVersion(recipe, expectedVersion);
+        if (recipe.getVersion() == null) {
+            // Not backfilled yet; a concurrent update of the same recipe fails the save on version 0
+            recipeRepository.initializeVersion(id);
+            writeLog.onSaved(id, 0L);
+            recipe.setVersion(0L);
+        }
+        String previousCategory = recipe.getCategory();
 
         // Update the recipe fields
         recipe.setTitle(recipeDetails.getTitle());
         recipe.setIngredients(recipeDetails.getIngredients());
+        normalizeIngredients(recipe);
         recipe.setInstructions(recipeDetails.getInstructions());
         recipe.setCookingTime(recipeDetails.getCookingTime());
         recipe.setCategory(recipeDetails.getCategory());
@@ -124,7 +448,57 @@ public class RecipeService {
             recipe.setCreatedBy("system"); // Set default if missing
         }
 
-        return recipeRepository.save(recipe);
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        writeLog.onSaved(id, savedRecipe.getVersion());
+        recipeCache.invalidate(id);
+        indexManager.onSaved(savedRecipe);
+        countCache.onWrite(previousCategory, savedRecipe.getCategory());
+        changeTracker.onWrite(previousCategory, savedRecipe.getCategory());
+        searchCache.invalidateAll();
+        return savedRecipe;
+    }
+
+    // Update some fields of a recipe
+    /**
+     * Applies a partial update to a recipe.
+     *
+     * <p>The changed fields are written with a single atomic {@code findAndModify},
+     * so the recipe is not read first and concurrent patches of different fields
+     * do not overwrite each other. The normalized ingredients are updated along
+     * with the ingredients.</p>
+     *
+     * @param id the ID of the recipe to update
+     * @param patch the fields to change
+     * @return the updated recipe
+     * @throws NotFoundException if no recipe is found with the given ID
+     */
+    public Recipe patchRecipe(String id, RecipePatch patch) {
+        Map<String, Object> changes = new LinkedHashMap<>(patch.getChanges());
+        if (patch.changesIngredients()) {
+            List<String> normalized = IngredientNormalizer.normalizeAll(patch.getIngredients());
+            changes.put("normalizedIngredients", normalized);
+            changes.put("normalizedIngredientTerms", IngredientNormalizer.terms(normalized));
+        }
+
+        Recipe recipe = recipeRepository.findAndSetById(id, changes);
+        if (recipe == null) {
+            throw new NotFoundException("Recipe not found with id: " + id);
+        }
+        recipeCache.invalidate(id);
+        String previousCategory = recipe.getCategory();
+
+        // Replay the update on the previous version to get the stored one
+        patch.applyTo(recipe);
+        recipe.setVersion(recipe.getVersion() == null ? 1L : recipe.getVersion() + 1);
+        writeLog.onSaved(id, recipe.getVersion());
+        if (patch.changesIngredients()) {
+            normalizeIngredients(recipe);
+        }
+        indexManager.onSaved(recipe);
+        countCache.onWrite(previousCategory, recipe.getCategory());
+        changeTracker.onWrite(previousCategory, recipe.getCategory());
+        searchCache.invalidateAll();
+        return recipe;
     }
 
     // Delete a recipe
@@ -133,10 +507,148 @@ public class RecipeService {
      *
      * @param id the ID of the recipe to delete
      * @throws NotFoundException if no recipe is found with the given ID
+     * @see #deleteRecipe(String, Long)
      */
     public void deleteRecipe(String id) {
-        Recipe recipe = getRecipeById(id);
+        deleteRecipe(id, null);
+    }
+
+    /**
+     * Deletes a recipe if it is still at the expected version.
+     *
+     * <p>The delete only matches the version that was read, so a recipe
+     * updated by another request in between is not deleted.</p>
+     *
+     * @param id the ID of the recipe to delete
+     * @param expectedVersion the version the client last saw, or null to delete any version
+     * @throws NotFoundException if no recipe is found with the given ID
+     * @throws PreconditionFailedException if the recipe is not at the expected version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the recipe changed while being deleted
+     */
+    public void deleteRecipe(String id, Long expectedVersion) {
+        Recipe recipe = findRecipe(id);
+        checkVersion(recipe, expectedVersion);
         recipeRepository.delete(recipe);
+        writeLog.onDeleted(id);
+        recipeCache.invalidate(id);
+        indexManager.onDeleted(id);
+        countCache.onWrite(recipe.getCategory(), null);
+        changeTracker.onWrite(recipe.getCategory(), null);
+        searchCache.invalidateAll();
+    }
+
+    // Set the category of every recipe matching a filter
+    /**
+     * Sets the category of every recipe matching a filter.
+     *
+     * <p>The IDs of the matching recipes are streamed, and each page of
+     * {@value #BULK_PAGE_SIZE} IDs is updated on the server with a single
+     * {@code updateMany} on those IDs that re-applies the filter, so a recipe
+     * that stopped matching in between is left alone. The page is then read
+     * back and re-indexed. Only one page is held in memory.</p>
+     *
+     * @param filter the filter selecting the recipes to update; must restrict at least one attribute
+     * @param category the new category
+     * @return the number of recipes whose category changed
+     * @throws IllegalArgumentException if the filter is empty or the category is blank
+     */
+    public long updateCategory(RecipeFilter filter, String category) {
+        checkBulkFilter(filter);
+        if (category == null || category.isBlank()) {
+            throw new IllegalArgumentException("The new category must not be blank");
+        }
+
+        try {
+            return forEachIdPage(filter, ids -> {
+                long updated = recipeRepository.updateCategoryByFilterAndIds(filter, ids, category);
+                recipeCache.invalidateAll(ids);
+                if (updated > 0) {
+                    recipeRepository.findByIdIn(ids, Recipe.class).forEach(recipe -> {
+                        writeLog.onSaved(recipe.getId(), recipe.getVersion());
+                        indexManager.onSaved(recipe);
+                    });
+                }
+                return updated;
+            });
+        } finally {
+            countCache.invalidateAll();
+            changeTracker.onBulkWrite();
+            searchCache.invalidateAll();
+        }
+    }
+
+    // Delete every recipe matching a filter
+    /**
+     * Deletes every recipe matching a filter.
+     *
+     * <p>The IDs of the matching recipes are streamed, and each page of
+     * {@value #BULK_PAGE_SIZE} IDs is deleted on the server with a single
+     * {@code deleteMany} on those IDs that re-applies the filter, so a recipe
+     * that stopped matching in between is kept. The recipes of the page that
+     * are gone afterwards are removed from the indexes.</p>
+     *
+     * @param filter the filter selecting the recipes to delete; must restrict at least one attribute
+     * @return the number of recipes deleted
+     * @throws IllegalArgumentException if the filter is empty
+     */
+    public long deleteRecipes(RecipeFilter filter) {
+        checkBulkFilter(filter);
+
+        try {
+            return forEachIdPage(filter, ids -> {
+                long deleted = recipeRepository.deleteByFilterAndIds(filter, ids);
+                recipeCache.invalidateAll(ids);
+                if (deleted > 0) {
+                    Set<String> kept = new HashSet<>();
+                    recipeRepository.findByIdIn(ids, RecipeSummary.class).forEach(recipe -> kept.add(recipe.getId()));
+                    ids.stream().filter(id -> !kept.contains(id)).forEach(id -> {
+                        writeLog.onDeleted(id);
+                        indexManager.onDeleted(id);
+                    });
+                }
+                return deleted;
+            });
+        } finally {
+            countCache.invalidateAll();
+            changeTracker.onBulkWrite();
+            searchCache.invalidateAll();
+        }
+    }
+
+    // Apply a bulk write to the recipes matching a filter, one page of IDs at a time, summing its counts
+    private long forEachIdPage(RecipeFilter filter, ToLongFunction<List<String>> write) {
+        long total = 0;
+        List<String> page = new ArrayList<>(BULK_PAGE_SIZE);
+        try (Stream<String> ids = recipeRepository.streamIdsByFilter(filter, BULK_PAGE_SIZE)) {
+            Iterator<String> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                page.add(iterator.next());
+                if (page.size() == BULK_PAGE_SIZE) {
+                    total += write.applyAsLong(page);
+                    page = new ArrayList<>(BULK_PAGE_SIZE);
+                }
+            }
+        }
+        if (!page.isEmpty()) {
+            total += write.applyAsLong(page);
+        }
+        return total;
+    }
+
+    // Reject a conditional write when the client's copy of the recipe is outdated
+    private static void checkVersion(Recipe recipe, Long expectedVersion) {
+        long version = recipe.getVersion() == null ? 0L : recipe.getVersion();
+        if (expectedVersion != null && expectedVersion != version) {
+            throw new PreconditionFailedException("Recipe " + recipe.getId() + " is at version "
+                    + version + ", not " + expectedVersion);
+        }
+    }
+
+    // Refuse bulk writes that would touch every recipe
+    private static void checkBulkFilter(RecipeFilter filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("A bulk operation needs at least one filter");
+        }
     }
 
     // Find recipes by category
@@ -154,12 +666,87 @@ public class RecipeService {
     /**
      * Finds recipes by category with pagination support.
      *
+     * <p>The total comes from the count cache, which is kept up to date by
+     * recipe writes, so only the first request for a category runs a count.</p>
+     *
      * @param category the category to filter by
      * @param pageable the pagination information
      * @return a page of recipes in the given category
      */
     public Page<Recipe> getRecipesByCategory(String category, Pageable pageable) {
-        return recipeRepository.findByCategory(category, pageable);
+        return getRecipesByCategory(category, pageable, Recipe.class);
+    }
+
+    /**
+     * Finds recipes by category with pagination support, read as the given type.
+     *
+     * @param category the category to filter by
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a page of recipes in the given category
+     * @see #getRecipesByCategory(String, Pageable)
+     */
+    public <T extends RecipeSummary> Page<T> getRecipesByCategory(String category, Pageable pageable,
+                                                                  Class<T> type) {
+        Slice<T> slice = recipeRepository.findSliceByCategory(category, pageable, type);
+        return new PageImpl<>(slice.getContent(), pageable, countCache.countByCategory(category));
+    }
+
+    // Find recipes by category as a slice
+    /**
+     * Finds recipes by category as a slice, which only tells whether a next page exists.
+     *
+     * @param category the category to filter by
+     * @param pageable the pagination information
+     * @return a slice of recipes in the given category
+     */
+    public Slice<Recipe> getRecipesByCategorySlice(String category, Pageable pageable) {
+        return getRecipesByCategorySlice(category, pageable, Recipe.class);
+    }
+
+    /**
+     * Finds recipes by category as a slice, read as the given type.
+     *
+     * @param category the category to filter by
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a slice of recipes in the given category
+     */
+    public <T extends RecipeSummary> Slice<T> getRecipesByCategorySlice(String category, Pageable pageable,
+                                                                        Class<T> type) {
+        return recipeRepository.findSliceByCategory(category, pageable, type);
+    }
+
+    // Find recipes by category with cursor pagination
+    /**
+     * Finds recipes by category with keyset (cursor) pagination, sorted by title.
+     *
+     * @param category the category to filter by
+     * @param after the cursor returned with the previous page, or null/empty for the first page
+     * @param size the page size
+     * @return a page of recipes in the given category with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public CursorPage<Recipe> getRecipesByCategory(String category, String after, int size) {
+        return getRecipesByCategory(category, after, size, Recipe.class);
+    }
+
+    /**
+     * Finds recipes by category with keyset (cursor) pagination, read as the given type.
+     *
+     * @param category the category to filter by
+     * @param after the cursor returned with the previous page, or null/empty for the first page
+     * @param size the page size
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a page of recipes in the given category with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public <T extends RecipeSummary> CursorPage<T> getRecipesByCategory(String category, String after, int size,
+                                                                        Class<T> type) {
+        return findAfter(category, "title", Sort.Direction.ASC, after, size, type);
     }
 
     // Find recipes by title containing the given text
@@ -167,26 +754,211 @@ public class RecipeService {
      * Searches for recipes by title.
      *
      * <p>This method performs a case-insensitive search for recipes
-     * whose titles contain the given text.</p>
+     * whose titles contain the given text. Once the in-memory trigram index
+     * is built, candidates are found and verified in memory and only the
+     * matching documents are loaded. The query must have at least
+     * {@value #MIN_TITLE_QUERY_LENGTH} characters, and at most
+     * {@value #MAX_SEARCH_RESULTS} recipes are returned.</p>
      *
      * @param title the title substring to search for
      * @return a list of matching recipes
+     * @throws IllegalArgumentException if the query is too short
      */
     public List<Recipe> searchRecipesByTitle(String title) {
-        return recipeRepository.findByTitleContainingIgnoreCase(title);
+        return searchRecipesByTitle(title, Recipe.class);
+    }
+
+    /**
+     * Searches for recipes by title, read as the given type.
+     *
+     * @param title the title substring to search for
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a list of matching recipes
+     * @throws IllegalArgumentException if the query is too short
+     * @see #searchRecipesByTitle(String)
+     */
+    public <T extends RecipeSummary> List<T> searchRecipesByTitle(String title, Class<T> type) {
+        if (title == null || title.strip().length() < MIN_TITLE_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Title searches need at least " + MIN_TITLE_QUERY_LENGTH
+                    + " characters");
+        }
+        if (!indexManager.isReady()) {
+            return recipeRepository.findByTitleContainingIgnoreCase(title, Limit.of(MAX_SEARCH_RESULTS), type);
+        }
+
+        return findAllByDocIds(firstResults(titleIndex.search(title)), type);
+    }
+
+    // Find recipes by title, tolerating typos
+    /**
+     * Searches for recipes by title, optionally correcting misspelled words.
+     *
+     * <p>In fuzzy mode, a search that finds nothing is retried once with each
+     * unknown word replaced by its closest known word (see {@link #didYouMean(String)}).</p>
+     *
+     * @param title the title substring to search for
+     * @param fuzzy whether to retry with a corrected query when nothing matches
+     * @return a list of matching recipes
+     */
+    public List<Recipe> searchRecipesByTitle(String title, boolean fuzzy) {
+        return searchRecipesByTitle(title, fuzzy, Recipe.class);
+    }
+
+    /**
+     * Searches for recipes by title, optionally correcting misspelled words, read as the given type.
+     *
+     * @param title the title substring to search for
+     * @param fuzzy whether to retry with a corrected query when nothing matches
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a list of matching recipes
+     * @see #searchRecipesByTitle(String, boolean)
+     */
+    public <T extends RecipeSummary> List<T> searchRecipesByTitle(String title, boolean fuzzy, Class<T> type) {
+        List<T> recipes = searchRecipesByTitle(title, type);
+        if (!fuzzy || !recipes.isEmpty()) {
+            return recipes;
+        }
+
+        String corrected = didYouMean(title);
+        return corrected != null && corrected.strip().length() >= MIN_TITLE_QUERY_LENGTH
+                ? searchRecipesByTitle(corrected, type) : recipes;
     }
 
     // Find recipes that contain a specific ingredient
     /**
      * Searches for recipes by ingredient.
      *
-     * <p>This method finds recipes that contain the specified ingredient.</p>
+     * <p>This method finds recipes that contain the specified ingredient.
+     * Once the in-memory ingredient index is built, matching recipe IDs are
+     * resolved from the index and only those documents are loaded; until then
+     * the same words are matched against the indexed normalized ingredient
+     * terms. Either way a recipe matches when every word of the query appears
+     * in its canonical ingredient names, so "olive" finds "olive oil". The
+     * words may come from different ingredients: "olive chicken" finds a
+     * recipe using "olive oil" and "chicken breast". Input that has no
+     * canonical name, such as a bare quantity, matches no recipe. At most
+     * {@value #MAX_SEARCH_RESULTS} recipes are returned.</p>
      *
      * @param ingredient the ingredient to search for
      * @return a list of recipes containing the ingredient
      */
     public List<Recipe> searchRecipesByIngredient(String ingredient) {
-        return recipeRepository.findByIngredient(ingredient);
+        return searchRecipesByIngredient(ingredient, Recipe.class);
+    }
+
+    /**
+     * Searches for recipes by ingredient, read as the given type.
+     *
+     * @param ingredient the ingredient to search for
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a list of recipes containing the ingredient
+     * @see #searchRecipesByIngredient(String)
+     */
+    public <T extends RecipeSummary> List<T> searchRecipesByIngredient(String ingredient, Class<T> type) {
+        String normalized = IngredientNormalizer.normalize(ingredient);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        if (!indexManager.isReady()) {
+            return recipeRepository.findByAllNormalizedIngredientTerms(Tokenizer.tokenize(normalized),
+                    Limit.of(MAX_SEARCH_RESULTS), type);
+        }
+
+        return findAllByDocIds(firstResults(ingredientIndex.search(ingredient)), type);
+    }
+
+    // Find recipes that contain a specific ingredient, tolerating typos
+    /**
+     * Searches for recipes by ingredient, optionally correcting misspelled words.
+     *
+     * @param ingredient the ingredient to search for
+     * @param fuzzy whether to retry with a corrected query when nothing matches
+     * @return a list of recipes containing the ingredient
+     * @see #searchRecipesByTitle(String, boolean)
+     */
+    public List<Recipe> searchRecipesByIngredient(String ingredient, boolean fuzzy) {
+        return searchRecipesByIngredient(ingredient, fuzzy, Recipe.class);
+    }
+
+    /**
+     * Searches for recipes by ingredient, optionally correcting misspelled words, read as the given type.
+     *
+     * @param ingredient the ingredient to search for
+     * @param fuzzy whether to retry with a corrected query when nothing matches
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a list of recipes containing the ingredient
+     * @see #searchRecipesByIngredient(String, boolean)
+     */
+    public <T extends RecipeSummary> List<T> searchRecipesByIngredient(String ingredient, boolean fuzzy,
+                                                                       Class<T> type) {
+        List<T> recipes = searchRecipesByIngredient(ingredient, type);
+        if (!fuzzy || !recipes.isEmpty()) {
+            return recipes;
+        }
+
+        String corrected = didYouMean(ingredient);
+        return corrected != null ? searchRecipesByIngredient(corrected, type) : recipes;
+    }
+
+    // Suggest a corrected query
+    /**
+     * Suggests a corrected version of a query.
+     *
+     * <p>Every word that does not occur in any recipe title or ingredient is
+     * replaced by the closest word that does, within two edits.</p>
+     *
+     * @param query the query text
+     * @return the corrected query, or null if no word needed or allowed a correction
+     */
+    public String didYouMean(String query) {
+        if (!indexManager.isReady()) {
+            return null;
+        }
+        return spellingIndex.correct(query);
+    }
+
+    // Suggest spellings for each unknown word of a query
+    /**
+     * Lists spelling suggestions for the words of a query that are not known.
+     *
+     * @param query the query text
+     * @return suggestions per unknown word, closest and most common first
+     */
+    public Map<String, List<String>> getSpellingSuggestions(String query) {
+        Map<String, List<String>> suggestions = new LinkedHashMap<>();
+        if (!indexManager.isReady()) {
+            return suggestions;
+        }
+
+        for (String word : Tokenizer.tokenize(query)) {
+            if (!spellingIndex.contains(word)) {
+                suggestions.put(word, spellingIndex.suggest(word, SPELLING_SUGGESTIONS));
+            }
+        }
+        return suggestions;
+    }
+
+    // Complete a partially typed query
+    /**
+     * Completes a prefix with the most popular matching titles, categories and ingredients.
+     *
+     * <p>Popularity is the number of recipes using a phrase. Completions come
+     * from the in-memory prefix index only, so the list is empty until the
+     * index has been built.</p>
+     *
+     * @param prefix the text typed so far
+     * @param limit the maximum number of completions
+     * @return the completions, most popular first
+     */
+    public List<String> autocomplete(String prefix, int limit) {
+        if (!indexManager.isReady()) {
+            return new ArrayList<>();
+        }
+        return autocompleteIndex.complete(prefix, limit);
     }
 
     // Find recipes with cooking time less than the provided value
@@ -206,17 +978,354 @@ public class RecipeService {
      *
      * <p>This method searches for recipes where:
      * <ul>
-     *   <li>The title or category matches the search term (case-insensitive)</li>
+     *   <li>The title, category, ingredients or instructions contain a term of the search</li>
      *   <li>The cooking time is less than or equal to the maximum value</li>
      * </ul>
+     * Results are ranked by relevance using the in-memory full-text index.
+     * While the index is being built, or when the search term is blank, the
+     * regex query on title and category is used instead.
      * </p>
      *
-     * @param searchTerm the search term for title and category
+     * <p>Result pages are cached as recipe IDs until the next write, so a
+     * repeated search only loads the recipes on the page by ID.</p>
+     *
+     * @param searchTerm the search term
      * @param maxCookingTime the maximum cooking time in minutes
      * @param pageable the pagination information
-     * @return a page of recipes matching the criteria
+     * @return a page of recipes matching the criteria, best match first
      */
     public Page<Recipe> searchRecipes(String searchTerm, Integer maxCookingTime, Pageable pageable) {
-        return recipeRepository.findBySearchTermAndMaxCookingTime(searchTerm, maxCookingTime, pageable);
+        return searchRecipes(searchTerm, maxCookingTime, pageable, Recipe.class);
+    }
+
+    /**
+     * Performs an advanced search for recipes, read as the given type.
+     *
+     * @param searchTerm the search term
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a page of recipes matching the criteria, best match first
+     * @see #searchRecipes(String, Integer, Pageable)
+     */
+    public <T extends RecipeSummary> Page<T> searchRecipes(String searchTerm, Integer maxCookingTime,
+                                                           Pageable pageable, Class<T> type) {
+        boolean ranked = isRankedSearch(searchTerm);
+        SearchResultCache.Key key = searchCache.key(searchTerm, ranked, maxCookingTime, pageable);
+        SearchResultCache.CachedSearch cached = searchCache.get(key);
+        if (cached != null) {
+            return new PageImpl<>(findAllByIds(cached.getRecipeIds(), type), pageable, cached.getTotal());
+        }
+
+        if (!ranked) {
+            Slice<T> slice = recipeRepository.findSliceBySearchTermAndMaxCookingTime(
+                    searchTerm, maxCookingTime, pageable, type);
+            long total = countCache.countBySearch(searchTerm, maxCookingTime);
+            searchCache.put(key, slice.getContent().stream().map(RecipeSummary::getId).toList(), total);
+            return new PageImpl<>(slice.getContent(), pageable, total);
+        }
+
+        SearchHits hits = fullTextIndex.search(searchTerm, maxCookingTime,
+                (int) pageable.getOffset(), pageable.getPageSize());
+        List<String> recipeIds = indexManager.recipeIds(hits.getDocIds());
+        searchCache.put(key, recipeIds, hits.getTotalHits());
+        return new PageImpl<>(findAllByIds(recipeIds, type), pageable, hits.getTotalHits());
+    }
+
+    // Advanced search as a slice
+    /**
+     * Performs an advanced search and returns a slice, which only tells whether a next page exists.
+     *
+     * @param searchTerm the search term
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @param pageable the pagination information
+     * @return a slice of recipes matching the criteria
+     * @see #searchRecipes(String, Integer, Pageable)
+     */
+    public Slice<Recipe> searchRecipesSlice(String searchTerm, Integer maxCookingTime, Pageable pageable) {
+        return searchRecipesSlice(searchTerm, maxCookingTime, pageable, Recipe.class);
+    }
+
+    /**
+     * Performs an advanced search and returns a slice, read as the given type.
+     *
+     * @param searchTerm the search term
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a slice of recipes matching the criteria
+     * @see #searchRecipes(String, Integer, Pageable)
+     */
+    public <T extends RecipeSummary> Slice<T> searchRecipesSlice(String searchTerm, Integer maxCookingTime,
+                                                                 Pageable pageable, Class<T> type) {
+        boolean ranked = isRankedSearch(searchTerm);
+        SearchResultCache.Key key = searchCache.key(searchTerm, ranked, maxCookingTime, pageable);
+        SearchResultCache.CachedSearch cached = searchCache.get(key);
+        if (cached != null) {
+            boolean hasNext = pageable.getOffset() + pageable.getPageSize() < cached.getTotal();
+            return new SliceImpl<>(findAllByIds(cached.getRecipeIds(), type), pageable, hasNext);
+        }
+
+        if (!ranked) {
+            // Not cached: without a count the total of the page is unknown
+            return recipeRepository.findSliceBySearchTermAndMaxCookingTime(searchTerm, maxCookingTime, pageable, type);
+        }
+
+        SearchHits hits = fullTextIndex.search(searchTerm, maxCookingTime,
+                (int) pageable.getOffset(), pageable.getPageSize());
+        List<String> recipeIds = indexManager.recipeIds(hits.getDocIds());
+        searchCache.put(key, recipeIds, hits.getTotalHits());
+        boolean hasNext = pageable.getOffset() + pageable.getPageSize() < hits.getTotalHits();
+        return new SliceImpl<>(findAllByIds(recipeIds, type), pageable, hasNext);
+    }
+
+    // Whether an advanced search can be answered by the full-text index
+    private boolean isRankedSearch(String searchTerm) {
+        return indexManager.isReady() && !Tokenizer.tokenize(searchTerm).isEmpty();
+    }
+
+    // Filter recipes by any combination of attributes
+    /**
+     * Finds recipes matching any combination of category, creator, cooking time
+     * range and ingredient filters.
+     *
+     * <p>Once the in-memory bitmap index is built, the filter is evaluated with
+     * bitmap operations and only the recipes on the requested page are loaded.
+     * Until then a single query with the equivalent criteria is run.</p>
+     *
+     * @param filter the filter to apply
+     * @param pageable the pagination information
+     * @return a page of matching recipes
+     */
+    public Page<Recipe> filterRecipes(RecipeFilter filter, Pageable pageable) {
+        return filterRecipes(filter, pageable, Recipe.class);
+    }
+
+    /**
+     * Finds recipes matching a combination of attribute filters, read as the given type.
+     *
+     * @param filter the filter to apply
+     * @param pageable the pagination information
+     * @param type the type to return, {@link Recipe} or {@link RecipeSummary}
+     * @param <T> the result type
+     * @return a page of matching recipes
+     * @see #filterRecipes(RecipeFilter, Pageable)
+     */
+    public <T extends RecipeSummary> Page<T> filterRecipes(RecipeFilter filter, Pageable pageable, Class<T> type) {
+        if (!indexManager.isReady()) {
+            return recipeRepository.findByFilter(filter, pageable, type);
+        }
+
+        SearchHits hits = filterIndex.filter(filter, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findAllByDocIds(hits.getDocIds(), type), pageable, hits.getTotalHits());
+    }
+
+    // Facet counts for an advanced search
+    /**
+     * Counts the facets of an advanced search over its whole result set.
+     *
+     * <p>Reports the number of matching recipes per category and per cooking
+     * time bucket, and the most common ingredients among them. The counts are
+     * computed from the in-memory indexes once they are built, and by a single
+     * aggregation on the repository until then.</p>
+     *
+     * @param searchTerm the search term
+     * @param maxCookingTime the maximum cooking time in minutes
+     * @return the facet counts of the matching recipes
+     * @see #searchRecipes(String, Integer, Pageable)
+     */
+    public RecipeFacets getSearchFacets(String searchTerm, Integer maxCookingTime) {
+        if (!indexManager.isReady()) {
+            return recipeRepository.findSearchFacets(searchTerm, maxCookingTime, TOP_INGREDIENTS);
+        }
+
+        int[] docIds = Tokenizer.tokenize(searchTerm).isEmpty()
+                ? facetIndex.matchCookingTime(maxCookingTime)
+                : fullTextIndex.match(searchTerm, maxCookingTime);
+        return facetIndex.facets(docIds, TOP_INGREDIENTS);
+    }
+
+    // Find the recipes best covered by the ingredients on hand
+    /**
+     * Ranks recipes by how many of their ingredients the user already has.
+     *
+     * <p>A recipe's coverage is the fraction of its distinct ingredients found in
+     * the pantry; only recipes using at least one pantry ingredient are returned.
+     * Ingredients are compared by their {@link IngredientNormalizer#normalize(String) canonical name},
+     * so case and punctuation do not matter. Once the in-memory pantry index is
+     * built, ranking happens in memory and only the top recipes are loaded; until
+     * then the candidates are fetched with a single {@code $in} query on the
+     * indexed normalized ingredients.</p>
+     *
+     * @param pantry the ingredients on hand
+     * @param limit the maximum number of recipes to return
+     * @return the best covered recipes, highest coverage first
+     * @throws IllegalArgumentException if the limit is less than 1
+     */
+    public List<PantryMatch> findRecipesByPantry(List<String> pantry, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+
+        Set<String> pantryKeys = new HashSet<>();
+        for (String ingredient : pantry) {
+            String key = IngredientNormalizer.normalize(ingredient);
+            if (!key.isEmpty()) {
+                pantryKeys.add(key);
+            }
+        }
+        if (pantryKeys.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<PantryMatch> matches = new ArrayList<>();
+        if (indexManager.isReady()) {
+            for (Recipe recipe : findAllByDocIds(pantryIndex.rank(pantryKeys, limit).getDocIds(), Recipe.class)) {
+                matches.add(toPantryMatch(recipe, pantryKeys));
+            }
+            return matches;
+        }
+
+        for (Recipe recipe : recipeRepository.findByNormalizedIngredientsIn(pantryKeys)) {
+            PantryMatch match = toPantryMatch(recipe, pantryKeys);
+            if (match.getMatchedIngredients() > 0) {
+                matches.add(match);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(PantryMatch::getCoverage)
+                .thenComparingInt(PantryMatch::getMatchedIngredients)
+                .reversed());
+        return new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    // Compare a recipe's ingredients with the pantry
+    /**
+     * Computes how well a pantry covers a recipe.
+     *
+     * @param recipe the recipe
+     * @param pantryKeys the ingredient keys of the pantry
+     * @return the recipe with its coverage and missing ingredients
+     */
+    private static PantryMatch toPantryMatch(Recipe recipe, Set<String> pantryKeys) {
+        Set<String> keys = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        int matched = 0;
+
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                String key = IngredientNormalizer.normalize(ingredient);
+                if (key.isEmpty() || !keys.add(key)) {
+                    continue;
+                }
+                if (pantryKeys.contains(key)) {
+                    matched++;
+                } else {
+                    missing.add(ingredient);
+                }
+            }
+        }
+
+        double coverage = keys.isEmpty() ? 0 : (double) matched / keys.size();
+        return new PantryMatch(recipe, coverage, matched, missing);
+    }
+
+    // Load the recipes behind a set of index matches
+    /**
+     * Loads the recipes identified by in-memory index document ids.
+     *
+     * <p>The recipes are returned in the same order as the document ids,
+     * so ranked results keep their ranking.</p>
+     *
+     * @param docIds the document ids returned by an index
+     * @param type the type to read the recipes as
+     * @param <T> the result type
+     * @return the matching recipes
+     */
+    private <T extends RecipeSummary> List<T> findAllByDocIds(int[] docIds, Class<T> type) {
+        return findAllByIds(indexManager.recipeIds(docIds), type);
+    }
+
+    // Load recipes by ID, in the order of the IDs, with one $in per page of IDs
+    private <T extends RecipeSummary> List<T> findAllByIds(List<String> recipeIds, Class<T> type) {
+        if (recipeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<T> found = new ArrayList<>(recipeIds.size());
+        for (int from = 0; from < recipeIds.size(); from += BULK_PAGE_SIZE) {
+            found.addAll(recipeRepository.findByIdIn(
+                    recipeIds.subList(from, Math.min(from + BULK_PAGE_SIZE, recipeIds.size())), type));
+        }
+        return inIdOrder(recipeIds, found);
+    }
+
+    // Keep the first matches of an unpaged search
+    private static int[] firstResults(int[] docIds) {
+        return docIds.length > MAX_SEARCH_RESULTS ? Arrays.copyOf(docIds, MAX_SEARCH_RESULTS) : docIds;
+    }
+
+    // Put recipes loaded by ID back in the order of the IDs
+    /**
+     * Orders recipes loaded by ID like the IDs, dropping IDs that were not found.
+     *
+     * @param recipeIds the IDs in the wanted order
+     * @param found the recipes loaded for those IDs, in any order
+     * @param <T> the type of the recipes
+     * @return the recipes in the order of their IDs
+     */
+    private static <T extends RecipeSummary> List<T> inIdOrder(List<String> recipeIds, List<T> found) {
+        Map<String, T> recipesById = new HashMap<>();
+        for (T recipe : found) {
+            recipesById.put(recipe.getId(), recipe);
+        }
+
+        List<T> recipes = new ArrayList<>(recipesById.size());
+        for (String recipeId : recipeIds) {
+            T recipe = recipesById.get(recipeId);
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+
+    // Fetch one keyset page, reading one extra recipe to learn whether another page follows
+    /**
+     * Fetches one page of a keyset-paginated listing.
+     *
+     * @param category the category to filter by, or null for all recipes
+     * @param sortBy the field to sort by
+     * @param direction the sort direction
+     * @param after the cursor token of the previous page, or null/empty for the first page
+     * @param size the page size
+     * @param type the type to read the recipes as
+     * @param <T> the result type
+     * @return the page of recipes with the cursor for the next page
+     */
+    private <T extends RecipeSummary> CursorPage<T> findAfter(String category, String sortBy,
+                                                              Sort.Direction direction, String after,
+                                                              int size, Class<T> type) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        RecipeCursor cursor = after == null || after.isEmpty() ? null : RecipeCursor.decode(after);
+
+        List<T> recipes = recipeRepository.findAfter(category, sortBy, direction, cursor, size + 1, type);
+        if (recipes.size() <= size) {
+            return new CursorPage<>(recipes, null);
+        }
+
+        List<T> content = new ArrayList<>(recipes.subList(0, size));
+        String nextCursor = RecipeCursor.after(content.get(size - 1), sortBy).encode();
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    // Derive the canonical ingredient names and their words, which the ingredient searches match against
+    private static void normalizeIngredients(Recipe recipe) {
+        List<String> normalized = IngredientNormalizer.normalizeAll(recipe.getIngredients());
+        recipe.setNormalizedIngredients(normalized);
+        recipe.setNormalizedIngredientTerms(IngredientNormalizer.terms(normalized));
     }
-}
\ No newline at end of file
+}
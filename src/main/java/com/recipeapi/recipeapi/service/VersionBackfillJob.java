@@ -0,0 +1,95 @@
+package com.recipeapi.recipeapi.service;
+
+import com.recipeapi.recipeapi.cache.RecipeCache;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job that gives a version to recipes stored before recipes were versioned.
+ *
+ * <p>Spring Data treats a recipe without a version as new, so saving one
+ * would attempt an insert and fail on the duplicate ID. The job sets the
+ * version of every such recipe to 0 with a single {@code updateMany}. Until
+ * it has run, the service treats a missing version as 0 and sets it itself
+ * before updating such a recipe.</p>
+ *
+ * <p>Like {@link IngredientBackfillJob}, it runs once in the background at
+ * startup unless {@code recipes.backfill.enabled} is false.</p>
+ *
+ * @author Reina
+ * @version 1.0
+ */
+@Component
+public class VersionBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionBackfillJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final RecipeChangeTracker changeTracker;
+    private final RecipeCache recipeCache;
+    private final boolean enabled;
+
+    /**
+     * Creates a new VersionBackfillJob.
+     *
+     * @param mongoTemplate template used to update recipes
+     * @param changeTracker change counters to bump when recipes were updated
+     * @param recipeCache cache to clear when recipes were updated
+     * @param enabled whether to run the job at startup
+     */
+    public VersionBackfillJob(MongoTemplate mongoTemplate,
+                              RecipeChangeTracker changeTracker,
+                              RecipeCache recipeCache,
+                              @Value("${recipes.backfill.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeTracker = changeTracker;
+        this.recipeCache = recipeCache;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts the backfill once the application is ready, if enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (!enabled) {
+            return;
+        }
+
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                logger.warn("Version backfill failed: {}", e.getMessage());
+            }
+        }, "version-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Sets the version of every recipe that has none.
+     *
+     * @return the number of recipes updated
+     */
+    public long run() {
+        long updated = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L), Recipe.class).getModifiedCount();
+        if (updated > 0) {
+            changeTracker.onBulkWrite();
+            recipeCache.invalidateAll();
+            logger.info("Set the version of {} unversioned recipes", updated);
+        }
+        return updated;
+    }
+}
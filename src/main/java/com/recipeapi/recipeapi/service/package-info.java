@@ -5,9 +5,13 @@
  * of the application. Services act as an intermediary layer between controllers
  * and repositories, encapsulating the core business rules and operations.</p>
  *
- * <p>The main service in this package is:</p>
+ * <p>The main classes in this package are:</p>
  * <ul>
  *   <li>{@link com.recipeapi.recipeapi.service.RecipeService} - Handles recipe-related operations</li>
+ *   <li>{@link com.recipeapi.recipeapi.service.RecipeBulkImporter} - Imports streamed recipes in bulk batches</li>
+ *   <li>{@link com.recipeapi.recipeapi.service.IngredientBackfillJob} - Fills in normalized ingredients for existing recipes</li>
+ *   <li>{@link com.recipeapi.recipeapi.service.VersionBackfillJob} - Gives a version to recipes stored before versioning</li>
+ *   <li>{@link com.recipeapi.recipeapi.service.RecipeChangeStreamListener} - Applies writes made by other instances to the local caches and indexes</li>
  * </ul>
  *
  * <p>Services are responsible for validating input, enforcing business rules,
@@ -0,0 +1,46 @@
+package com.recipeapi.recipeapi.cache;
+import com.recipeapi.recipeapi.model.Recipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RecipeCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecipeCache recipeCache = new RecipeCache(meterRegistry, 100, Duration.ofMinutes(1));
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "recipes", "result", result).functionCounter().count();
+    }
+
+    @Test
+    public void testLoadsOnceAndRecordsHitsAndMisses() {
+        Recipe recipe = new Recipe("Soup", List.of("onion"), "Simmer", 30, "Dinner", "reina");
+
+        assertSame(recipe, recipeCache.get("1", id -> recipe));
+        assertSame(recipe, recipeCache.get("1", id -> null));
+
+        assertEquals(1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    public void testInvalidateReloads() {
+        Recipe before = new Recipe("Soup", List.of("onion"), "Simmer", 30, "Dinner", "reina");
+        Recipe after = new Recipe("Stew", List.of("onion"), "Simmer", 90, "Dinner", "reina");
+        recipeCache.get("1", id -> before);
+
+        recipeCache.invalidate("1");
+
+        assertSame(after, recipeCache.get("1", id -> after));
+        recipeCache.invalidateAll(List.of("1"));
+        assertNull(recipeCache.get("1", id -> null));
+    }
+}
@@ -0,0 +1,42 @@
+package com.recipeapi.recipeapi.cache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeChangeTrackerTest {
+
+    private final RecipeChangeTracker changeTracker = new RecipeChangeTracker();
+
+    @Test
+    public void testETagsAreWeakAndDependOnTheRequest() {
+        String eTag = changeTracker.eTag(null, "/api/recipes&page=0");
+
+        assertTrue(eTag.startsWith("W/\""));
+        assertEquals(eTag, changeTracker.eTag(null, "/api/recipes&page=0"));
+        assertNotEquals(eTag, changeTracker.eTag(null, "/api/recipes&page=1"));
+    }
+
+    @Test
+    public void testWritesChangeOnlyTheCategoriesTheyTouch() {
+        String all = changeTracker.eTag(null, "/api/recipes");
+        String dinner = changeTracker.eTag("Dinner", "/api/recipes/category/Dinner");
+        String lunch = changeTracker.eTag("Lunch", "/api/recipes/category/Lunch");
+
+        changeTracker.onWrite(null, "Dinner");
+
+        assertNotEquals(all, changeTracker.eTag(null, "/api/recipes"));
+        assertNotEquals(dinner, changeTracker.eTag("Dinner", "/api/recipes/category/Dinner"));
+        assertEquals(lunch, changeTracker.eTag("Lunch", "/api/recipes/category/Lunch"));
+    }
+
+    @Test
+    public void testBulkWritesChangeEveryCategory() {
+        String lunch = changeTracker.eTag("Lunch", "/api/recipes/category/Lunch");
+
+        changeTracker.onBulkWrite();
+
+        assertNotEquals(lunch, changeTracker.eTag("Lunch", "/api/recipes/category/Lunch"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.recipeapi.recipeapi.cache;
+import com.recipeapi.recipeapi.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class RecipeCountCacheTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private RecipeCountCache countCache;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        countCache = new RecipeCountCache(recipeRepository, mongoTemplate, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testCategoryCountsAreCachedAndDroppedOnWrites() {
+        when(recipeRepository.countByCategory("Dinner")).thenReturn(10L, 11L);
+        when(recipeRepository.countByCategory("Lunch")).thenReturn(5L);
+        when(recipeRepository.countByCategory("Dessert")).thenReturn(2L);
+        countCache.countByCategory("Dinner");
+        countCache.countByCategory("Lunch");
+        countCache.countByCategory("Dessert");
+
+        countCache.onWrite(null, "Dinner");
+
+        assertEquals(11, countCache.countByCategory("Dinner"));
+        assertEquals(11, countCache.countByCategory("Dinner"));
+        assertEquals(5, countCache.countByCategory("Lunch"));
+        verify(recipeRepository, times(2)).countByCategory("Dinner");
+        verify(recipeRepository, times(1)).countByCategory("Lunch");
+
+        countCache.onWrite("Lunch", "Dessert");
+        countCache.countByCategory("Lunch");
+        countCache.countByCategory("Dessert");
+        verify(recipeRepository, times(2)).countByCategory("Lunch");
+        verify(recipeRepository, times(2)).countByCategory("Dessert");
+    }
+
+    @Test
+    public void testCountInterleavedWithWriteIsNotCached() {
+        // The recipe is saved and its write reported while the first count runs, so the count may include it
+        when(recipeRepository.countByCategory("Dinner")).thenAnswer(invocation -> {
+            countCache.onWrite(null, "Dinner");
+            return 11L;
+        }).thenReturn(11L);
+
+        assertEquals(11, countCache.countByCategory("Dinner"));
+        assertEquals(11, countCache.countByCategory("Dinner"));
+        assertEquals(11, countCache.countByCategory("Dinner"));
+
+        verify(recipeRepository, times(2)).countByCategory("Dinner");
+    }
+
+    @Test
+    public void testCountInterleavedWithWriteToOtherCategoryIsCached() {
+        when(recipeRepository.countByCategory("Dinner")).thenAnswer(invocation -> {
+            countCache.onWrite(null, "Lunch");
+            return 10L;
+        });
+
+        countCache.countByCategory("Dinner");
+        countCache.countByCategory("Dinner");
+
+        verify(recipeRepository, times(1)).countByCategory("Dinner");
+    }
+
+    @Test
+    public void testSearchCountInterleavedWithWriteIsNotCached() {
+        when(recipeRepository.countBySearchTermAndMaxCookingTime("pasta", 30)).thenAnswer(invocation -> {
+            countCache.invalidateAll();
+            return 3L;
+        }).thenReturn(3L);
+
+        countCache.countBySearch("pasta", 30);
+        countCache.countBySearch("pasta", 30);
+        countCache.countBySearch("pasta", 30);
+
+        verify(recipeRepository, times(2)).countBySearchTermAndMaxCookingTime("pasta", 30);
+    }
+
+    @Test
+    public void testSearchCountsAreDroppedOnWrite() {
+        when(recipeRepository.countBySearchTermAndMaxCookingTime("pasta", 30)).thenReturn(3L);
+
+        countCache.countBySearch("pasta", 30);
+        countCache.countBySearch("pasta", 30);
+        countCache.onWrite(null, "Dinner");
+        countCache.countBySearch("pasta", 30);
+
+        verify(recipeRepository, times(2)).countBySearchTermAndMaxCookingTime("pasta", 30);
+    }
+}
@@ -0,0 +1,40 @@
+package com.recipeapi.recipeapi.cache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeWriteLogTest {
+
+    private final RecipeWriteLog writeLog = new RecipeWriteLog(Duration.ofMinutes(1));
+
+    @Test
+    public void testSaveIsConsumedOnceAtItsVersion() {
+        writeLog.onSaved("1", 3L);
+
+        assertFalse(writeLog.consumeSaved("1", 2L));
+        assertFalse(writeLog.consumeSaved("1", null));
+        assertTrue(writeLog.consumeSaved("1", 3L));
+        assertFalse(writeLog.consumeSaved("1", 3L));
+    }
+
+    @Test
+    public void testDeleteIsKeptApartFromSaves() {
+        writeLog.onSaved("1", 0L);
+        writeLog.onDeleted("2");
+
+        assertFalse(writeLog.consumeDeleted("1"));
+        assertFalse(writeLog.consumeSaved("2", 0L));
+        assertTrue(writeLog.consumeDeleted("2"));
+        assertTrue(writeLog.consumeSaved("1", 0L));
+    }
+
+    @Test
+    public void testSaveWithoutVersionIsNotRecorded() {
+        writeLog.onSaved("1", null);
+
+        assertFalse(writeLog.consumeSaved("1", null));
+    }
+}
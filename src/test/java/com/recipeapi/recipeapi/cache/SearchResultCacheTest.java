@@ -0,0 +1,51 @@
+package com.recipeapi.recipeapi.cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SearchResultCacheTest {
+
+    private final SearchResultCache searchCache =
+            new SearchResultCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    public void testRankedSearchesShareNormalizedTerms() {
+        searchCache.put(searchCache.key("Chicken  Soup", true, 30, PageRequest.of(0, 10)), List.of("1", "2"), 2);
+
+        SearchResultCache.CachedSearch cached = searchCache.get(searchCache.key("chicken soup!", true, 30,
+                PageRequest.of(0, 10)));
+
+        assertNotNull(cached);
+        assertEquals(List.of("1", "2"), cached.getRecipeIds());
+        assertEquals(2, cached.getTotal());
+    }
+
+    @Test
+    public void testKeyIncludesEveryParameter() {
+        searchCache.put(searchCache.key("chicken", true, 30, PageRequest.of(0, 10)), List.of("1"), 1);
+
+        assertNull(searchCache.get(searchCache.key("Chicken", false, 30, PageRequest.of(0, 10))));
+        assertNull(searchCache.get(searchCache.key("chicken", true, null, PageRequest.of(0, 10))));
+        assertNull(searchCache.get(searchCache.key("chicken", true, 30, PageRequest.of(1, 10))));
+        assertNull(searchCache.get(searchCache.key("chicken", true, 30, PageRequest.of(0, 20))));
+        assertNull(searchCache.get(searchCache.key("chicken", true, 30, PageRequest.of(0, 10, Sort.by("title")))));
+    }
+
+    @Test
+    public void testResultComputedBeforeAWriteIsNotServed() {
+        SearchResultCache.Key before = searchCache.key("chicken", true, 30, PageRequest.of(0, 10));
+
+        searchCache.invalidateAll();
+        searchCache.put(before, List.of("1"), 1);
+
+        assertNull(searchCache.get(searchCache.key("chicken", true, 30, PageRequest.of(0, 10))));
+    }
+}
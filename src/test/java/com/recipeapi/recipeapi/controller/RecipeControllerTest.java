@@ -1,7 +1,15 @@
 package com.recipeapi.recipeapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeapi.recipeapi.exception.PreconditionFailedException;
+import com.recipeapi.recipeapi.model.BulkImportResult;
+import com.recipeapi.recipeapi.model.CursorPage;
 import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import com.recipeapi.recipeapi.model.RecipePatch;
+import com.recipeapi.recipeapi.model.RecipeSummary;
+import com.recipeapi.recipeapi.service.RecipeBulkImporter;
 import com.recipeapi.recipeapi.service.RecipeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,22 +17,43 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 public class RecipeControllerTest {
 
     @Autowired
@@ -33,6 +62,9 @@ public class RecipeControllerTest {
     @MockBean
     private RecipeService recipeService;
 
+    @MockBean
+    private RecipeBulkImporter bulkImporter;
+
     private Recipe testRecipe;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -58,6 +90,86 @@ public class RecipeControllerTest {
         verify(recipeService, times(1)).getRecipeById("1");
     }
 
+    @Test
+    @WithMockUser
+    public void testGetLegacyRecipeWithoutVersionHasETagZero() throws Exception {
+        testRecipe.setVersion(null);
+        when(recipeService.getRecipeById("1")).thenReturn(testRecipe);
+
+        mockMvc.perform(get("/api/recipes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetRecipeByIdWithETag() throws Exception {
+        testRecipe.setVersion(3L);
+        when(recipeService.getRecipeById("1")).thenReturn(testRecipe);
+
+        mockMvc.perform(get("/api/recipes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(get("/api/recipes/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/recipes/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @Test
+    @WithMockUser
+    public void testConditionalUpdateAndDelete() throws Exception {
+        testRecipe.setVersion(4L);
+        when(recipeService.updateRecipe(eq("1"), any(Recipe.class), eq(3L))).thenReturn(testRecipe);
+
+        mockMvc.perform(put("/api/recipes/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRecipe)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        doThrow(new PreconditionFailedException("Recipe 1 is at version 4, not 3"))
+                .when(recipeService).deleteRecipe("1", 3L);
+        mockMvc.perform(delete("/api/recipes/1").header("If-Match", "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/api/recipes/1").header("If-Match", "W/\"4\""))
+                .andExpect(status().isOk());
+        verify(recipeService, times(1)).deleteRecipe("1", -1L);
+    }
+
+    @Test
+    @WithMockUser
+    public void testSearchRecipesNotModified() throws Exception {
+        when(recipeService.getListETag(isNull(), eq("/api/recipes/search&size=5&term=soup")))
+                .thenReturn("W/\"abc\"");
+
+        mockMvc.perform(get("/api/recipes/search").param("term", "soup").param("size", "5")
+                        .header("If-None-Match", "W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc\""));
+
+        verify(recipeService, never()).searchRecipes(any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    public void testCategoryListModified() throws Exception {
+        when(recipeService.getListETag(eq("Dinner"), any())).thenReturn("W/\"def\"");
+        when(recipeService.getRecipesByCategory(eq("Dinner"), any(Pageable.class), eq(Recipe.class)))
+                .thenReturn(new PageImpl<>(List.of(testRecipe)));
+
+        mockMvc.perform(get("/api/recipes/category/Dinner").header("If-None-Match", "W/\"abc\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"def\""))
+                .andExpect(jsonPath("$.recipes[0].title", is("Test Recipe")));
+    }
+
     @Test
     @WithMockUser
     public void testCreateRecipe() throws Exception {
@@ -71,4 +183,196 @@ public class RecipeControllerTest {
 
         verify(recipeService, times(1)).createRecipe(any(Recipe.class));
     }
+
+    @Test
+    @WithMockUser
+    public void testCreateRecipeWithoutTitle() throws Exception {
+        testRecipe.setTitle(" ");
+
+        mockMvc.perform(post("/api/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRecipe)))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).createRecipe(any(Recipe.class));
+    }
+
+    @Test
+    @WithMockUser
+    public void testPatchRecipe() throws Exception {
+        testRecipe.setCookingTime(45);
+        when(recipeService.patchRecipe(eq("1"), any(RecipePatch.class))).thenReturn(testRecipe);
+
+        mockMvc.perform(patch("/api/recipes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cookingTime\": 45}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cookingTime", is(45)));
+
+        mockMvc.perform(patch("/api/recipes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"2\"}"))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, times(1)).patchRecipe(eq("1"), any(RecipePatch.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testUpdateCategoryAsAdmin() throws Exception {
+        when(recipeService.updateCategory(any(RecipeFilter.class), eq("Dinner"))).thenReturn(3L);
+
+        mockMvc.perform(patch("/api/recipes/admin/category").param("category", "Supper").param("to", "Dinner"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(3)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testDeleteRecipesAsAdmin() throws Exception {
+        when(recipeService.deleteRecipes(any(RecipeFilter.class))).thenReturn(2L);
+
+        mockMvc.perform(delete("/api/recipes/admin").param("createdBy", "spammer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @Test
+    @WithMockUser
+    public void testBulkOperationsAreForbiddenToUsers() throws Exception {
+        mockMvc.perform(delete("/api/recipes/admin").param("createdBy", "spammer"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(patch("/api/recipes/admin/category").param("category", "Supper").param("to", "Dinner"))
+                .andExpect(status().isForbidden());
+
+        verify(recipeService, never()).deleteRecipes(any());
+        verify(recipeService, never()).updateCategory(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    public void testImportRecipes() throws Exception {
+        BulkImportResult result = new BulkImportResult();
+        result.recordReceived();
+        result.recordReceived();
+        result.recordInserted(1);
+        result.recordFailed(1, "title must not be blank");
+        when(bulkImporter.importRecipes(any(InputStream.class))).thenReturn(result);
+
+        mockMvc.perform(post("/api/recipes/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\": \"Pasta\"}\n{\"title\": \"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)));
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetAllRecipesWithCursor() throws Exception {
+        when(recipeService.getAllRecipes(eq("title"), eq(Sort.Direction.ASC), eq(""), eq(10), eq(Recipe.class)))
+                .thenReturn(new CursorPage<>(List.of(testRecipe), "next-token"));
+
+        mockMvc.perform(get("/api/recipes").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recipes[0].title", is("Test Recipe")))
+                .andExpect(jsonPath("$.nextCursor", is("next-token")))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        verify(recipeService, never()).getAllRecipes(any(Pageable.class), any());
+    }
+
+    @Test
+    @WithMockUser
+    public void testSearchRecipesByTitleSummaryView() throws Exception {
+        // A map-backed projection, like the ones read from a projected query
+        RecipeSummary summary = new SpelAwareProxyProjectionFactory().createProjection(RecipeSummary.class,
+                Map.of("id", "1", "title", "Test Recipe", "cookingTime", 30));
+        when(recipeService.searchRecipesByTitle("Test", false, RecipeSummary.class)).thenReturn(List.of(summary));
+
+        mockMvc.perform(get("/api/recipes/search/title").param("title", "Test").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", is("Test Recipe")))
+                .andExpect(jsonPath("$[0].cookingTime", is(30)))
+                .andExpect(jsonPath("$[0].instructions").doesNotExist())
+                .andExpect(jsonPath("$[0].ingredients").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    public void testPantryRejectsLimitAboveMaximum() throws Exception {
+        mockMvc.perform(get("/api/recipes/pantry").param("ingredients", "egg,flour")
+                        .param("limit", String.valueOf(RecipeController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, never()).findRecipesByPantry(any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    public void testAutocompleteRejectsLimitAboveMaximum() throws Exception {
+        when(recipeService.autocomplete("bee", 10)).thenReturn(List.of("beef"));
+
+        mockMvc.perform(get("/api/recipes/autocomplete").param("prefix", "bee"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("beef")));
+        mockMvc.perform(get("/api/recipes/autocomplete").param("prefix", "bee")
+                        .param("limit", String.valueOf(RecipeController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/recipes/autocomplete").param("prefix", "bee").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, times(1)).autocomplete(any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetRecipeByIdWithFields() throws Exception {
+        when(recipeService.getRecipeFields(eq("1"), any(RecipeFields.class)))
+                .thenReturn(Map.of("id", "1", "title", "Test Recipe"));
+
+        mockMvc.perform(get("/api/recipes/1").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Test Recipe")))
+                .andExpect(jsonPath("$.instructions").doesNotExist());
+
+        verify(recipeService, never()).getRecipeById("1");
+    }
+
+    @Test
+    @WithMockUser
+    public void testExportRecipesAsNdjson() throws Exception {
+        Recipe second = new Recipe();
+        second.setId("2");
+        second.setTitle("Second Recipe");
+        doReturn(Stream.of(testRecipe, second)).when(recipeService).streamAllRecipes(null);
+
+        MvcResult result = mockMvc.perform(get("/api/recipes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Second Recipe", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    @Test
+    @WithMockUser
+    public void testRejectsOversizedPages() throws Exception {
+        mockMvc.perform(get("/api/recipes").param("size", "5000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(recipeService);
+    }
+
+    @Test
+    @WithMockUser
+    public void testRejectsUnknownView() throws Exception {
+        mockMvc.perform(get("/api/recipes/search/title").param("title", "Test").param("view", "compact"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(recipeService);
+    }
 }
\ No newline at end of file
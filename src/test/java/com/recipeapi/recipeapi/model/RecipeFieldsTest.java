@@ -0,0 +1,40 @@
+package com.recipeapi.recipeapi.model;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeFieldsTest {
+
+    @Test
+    public void testParsesDistinctFieldsInOrder() {
+        RecipeFields fields = RecipeFields.parse("title, id,,title");
+
+        assertEquals(List.of("title", "id"), fields.getNames());
+        assertTrue(fields.isSummary());
+        assertFalse(RecipeFields.parse("id,instructions").isSummary());
+    }
+
+    @Test
+    public void testRejectsUnknownAndEmptyFieldsets() {
+        assertThrows(IllegalArgumentException.class, () -> RecipeFields.parse("id,password"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeFields.parse(" , "));
+    }
+
+    @Test
+    public void testSelectsOnlyRequestedFields() {
+        Recipe recipe = new Recipe("Soup", List.of("2 onions"), "Simmer", 30, "Dinner", "reina");
+        recipe.setId("1");
+
+        Map<String, Object> selected = RecipeFields.parse("ingredients,id").select(recipe);
+
+        assertEquals(List.of("ingredients", "id"), List.copyOf(selected.keySet()));
+        assertEquals(List.of("2 onions"), selected.get("ingredients"));
+        assertEquals("1", selected.get("id"));
+    }
+}
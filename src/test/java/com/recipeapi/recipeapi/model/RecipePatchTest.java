@@ -0,0 +1,53 @@
+package com.recipeapi.recipeapi.model;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipePatchTest {
+
+    @Test
+    public void testAppliesOnlyChangedFields() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("cookingTime", 45);
+        body.put("category", null);
+        RecipePatch patch = RecipePatch.parse(body);
+        Recipe recipe = new Recipe("Soup", List.of("2 onions"), "Simmer", 30, "Dinner", "reina");
+
+        patch.applyTo(recipe);
+
+        assertEquals(45, recipe.getCookingTime());
+        assertNull(recipe.getCategory());
+        assertEquals("Soup", recipe.getTitle());
+        assertEquals(List.of("2 onions"), recipe.getIngredients());
+        assertTrue(patch.getChanges().containsKey("category"));
+    }
+
+    @Test
+    public void testReadsIngredients() {
+        RecipePatch patch = RecipePatch.parse(Map.of("ingredients", List.of("1 leek")));
+
+        assertTrue(patch.changesIngredients());
+        assertEquals(List.of("1 leek"), patch.getIngredients());
+    }
+
+    @Test
+    public void testRejectsInvalidPatches() {
+        Map<String, Object> noTitle = new HashMap<>();
+        noTitle.put("title", null);
+
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(noTitle));
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(Map.of("title", " ")));
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(Map.of("id", "2")));
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(Map.of("cookingTime", -5)));
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(Map.of("cookingTime", "long")));
+        assertThrows(IllegalArgumentException.class, () -> RecipePatch.parse(Map.of("ingredients", List.of(1))));
+    }
+}
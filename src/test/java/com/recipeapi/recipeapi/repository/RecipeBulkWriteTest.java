@@ -0,0 +1,77 @@
+package com.recipeapi.recipeapi.repository;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the paged bulk writes against a real MongoDB, with a recipe changed
+ * between the read of its ID and the write of its page. Requires Docker: the
+ * tests are skipped, not failed, when no Docker daemon is reachable
+ * ({@code mvn test -Dtest=RecipeBulkWriteTest}).
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+public class RecipeBulkWriteTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    private Recipe spam;
+    private Recipe handedOver;
+
+    @BeforeEach
+    public void setUp() {
+        recipeRepository.deleteAll();
+        spam = recipeRepository.save(new Recipe("Spam", List.of("egg"), "Cook it", 10, "Dinner", "spammer"));
+        handedOver = recipeRepository.save(new Recipe("Stew", List.of("beef"), "Cook it", 90, "Dinner", "spammer"));
+    }
+
+    private List<String> matchingIds(RecipeFilter filter) {
+        try (Stream<String> ids = recipeRepository.streamIdsByFilter(filter, 100)) {
+            return ids.toList();
+        }
+    }
+
+    @Test
+    public void testDeleteSkipsRecipeThatStoppedMatching() {
+        RecipeFilter filter = new RecipeFilter(null, List.of("spammer"), null, null, null);
+        List<String> ids = matchingIds(filter);
+
+        handedOver.setCreatedBy("reina");
+        recipeRepository.save(handedOver);
+
+        assertEquals(1, recipeRepository.deleteByFilterAndIds(filter, ids));
+        assertTrue(recipeRepository.findById(spam.getId()).isEmpty());
+        assertTrue(recipeRepository.findById(handedOver.getId()).isPresent());
+    }
+
+    @Test
+    public void testUpdateCategorySkipsRecipeThatStoppedMatching() {
+        RecipeFilter filter = new RecipeFilter(null, List.of("spammer"), null, null, null);
+        List<String> ids = matchingIds(filter);
+
+        handedOver.setCreatedBy("reina");
+        recipeRepository.save(handedOver);
+
+        assertEquals(1, recipeRepository.updateCategoryByFilterAndIds(filter, ids, "Spam"));
+        assertEquals("Spam", recipeRepository.findById(spam.getId()).orElseThrow().getCategory());
+        assertEquals("Dinner", recipeRepository.findById(handedOver.getId()).orElseThrow().getCategory());
+    }
+}
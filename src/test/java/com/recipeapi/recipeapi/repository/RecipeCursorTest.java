@@ -0,0 +1,43 @@
+package com.recipeapi.recipeapi.repository;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RecipeCursorTest {
+
+    @Test
+    public void testRoundTripsStringSortValue() {
+        Recipe recipe = new Recipe();
+        recipe.setId("6630f0c2a1b2c3d4e5f60718");
+        recipe.setTitle("Pasta\nwith newline");
+
+        RecipeCursor cursor = RecipeCursor.decode(RecipeCursor.after(recipe, "title").encode());
+
+        assertEquals("Pasta\nwith newline", cursor.getSortValue());
+        assertEquals("6630f0c2a1b2c3d4e5f60718", cursor.getId());
+    }
+
+    @Test
+    public void testRoundTripsIntegerAndNullSortValues() {
+        Recipe recipe = new Recipe();
+        recipe.setId("abc");
+        recipe.setCookingTime(45);
+
+        assertEquals(45, RecipeCursor.decode(RecipeCursor.after(recipe, "cookingTime").encode()).getSortValue());
+        assertNull(RecipeCursor.decode(RecipeCursor.after(recipe, "title").encode()).getSortValue());
+    }
+
+    @Test
+    public void testRejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> RecipeCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeCursor.decode("eA"));
+    }
+
+    @Test
+    public void testRejectsUnsupportedSortField() {
+        assertThrows(IllegalArgumentException.class, () -> RecipeCursor.checkSortField("instructions"));
+    }
+}
@@ -0,0 +1,285 @@
+package com.recipeapi.recipeapi.repository;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import com.recipeapi.recipeapi.model.RecipeSummary;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code explain()} on every {@link RecipeRepository} query against a real
+ * MongoDB and fails when a query plan scans the collection or sorts in memory.
+ * Queries on an unanchored, case-insensitive regex are checked to read the
+ * regex field's index over its whole range, since no index can bound them.
+ *
+ * <p>Requires Docker: the tests are skipped, not failed, when no Docker daemon
+ * is reachable, so run them on a machine or CI runner with Docker
+ * ({@code mvn test -Dtest=RecipeQueryPlanTest}).</p>
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+public class RecipeQueryPlanTest {
+
+    private static final Set<String> COMMANDS = Set.of("find", "aggregate", "count", "update", "delete", "findAndModify");
+    // Fields added by the driver that the explain command does not accept
+    private static final Set<String> DRIVER_FIELDS = Set.of(
+            "$db", "lsid", "$clusterTime", "$readPreference", "txnNumber", "apiVersion", "writeConcern");
+
+    // Queries filtering on an unanchored, case-insensitive regex over title or category
+    private static final Set<String> REGEX_QUERIES = Set.of("findByTitleContainingIgnoreCase",
+            "findBySearchTermAndMaxCookingTime", "findSliceBySearchTermAndMaxCookingTime",
+            "countBySearchTermAndMaxCookingTime", "findSearchFacets");
+    private static final Set<String> REGEX_FIELDS = Set.of("title", "category");
+    // The interval of every string key: what an index scan reads for a regex without a fixed prefix
+    private static final String ALL_STRINGS = "[\"\", {})";
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    // Commands sent by the test thread, so that background work cannot interfere
+    private static final List<BsonDocument> sent = new CopyOnWriteArrayList<>();
+    private static volatile Thread recording;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Recipe first;
+
+    @TestConfiguration
+    static class CommandRecorder {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandRecorder() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (Thread.currentThread() == recording && COMMANDS.contains(event.getCommandName())) {
+                        sent.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        recipeRepository.deleteAll();
+
+        // Create exactly the indexes declared on the model
+        IndexOperations indexOps = mongoTemplate.indexOps(Recipe.class);
+        indexOps.dropAllIndexes();
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Recipe.class)
+                .forEach(indexOps::ensureIndex);
+
+        String[] categories = {"Dinner", "Dessert", "Breakfast", "Lunch", "Snack"};
+        String[] ingredients = {"onion", "garlic", "flour", "egg", "butter", "tomato", "rice"};
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Recipe recipe = new Recipe("Recipe " + i,
+                    List.of(ingredients[i % ingredients.length], ingredients[(i * 3 + 1) % ingredients.length]),
+                    "Cook it", 5 + i % 150, categories[i % categories.length], "user" + i % 20);
+            recipe.setNormalizedIngredients(recipe.getIngredients());
+            recipe.setNormalizedIngredientTerms(recipe.getIngredients());
+            recipes.add(recipe);
+        }
+        first = recipeRepository.saveAll(recipes).get(0);
+    }
+
+    // Every query of the repository, keyed by method name and a description of the case
+    private Map<String, Runnable> queries() {
+        PageRequest page = PageRequest.of(1, 10);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByCategory", () -> recipeRepository.findByCategory("Dinner"));
+        queries.put("findByCategory paged", () -> recipeRepository.findByCategory("Dinner", page));
+        queries.put("findSliceByCategory", () -> recipeRepository.findSliceByCategory("Dinner", page, Recipe.class));
+        queries.put("findSliceByCategory summary",
+                () -> recipeRepository.findSliceByCategory("Dinner", page, RecipeSummary.class));
+        queries.put("countByCategory", () -> recipeRepository.countByCategory("Dinner"));
+        queries.put("findByTitleContainingIgnoreCase",
+                () -> recipeRepository.findByTitleContainingIgnoreCase("ipe 4", Limit.of(10), RecipeSummary.class));
+        queries.put("findByAllNormalizedIngredientTerms",
+                () -> recipeRepository.findByAllNormalizedIngredientTerms(List.of("onion"), Limit.of(10), Recipe.class));
+        queries.put("findByIdIn", () -> recipeRepository.findByIdIn(List.of(first.getId()), RecipeSummary.class));
+        queries.put("findFieldsByIdIn",
+                () -> recipeRepository.findFieldsByIdIn(List.of(first.getId()), RecipeFields.parse("id,instructions")));
+        queries.put("findByNormalizedIngredientsIn",
+                () -> recipeRepository.findByNormalizedIngredientsIn(List.of("onion", "rice")));
+        queries.put("findByCookingTimeLessThan", () -> recipeRepository.findByCookingTimeLessThan(30));
+        queries.put("findAllBy by title",
+                () -> recipeRepository.findAllBy(PageRequest.of(1, 10, Sort.by("title")), Recipe.class));
+        queries.put("findAllBy by cooking time",
+                () -> recipeRepository.findAllBy(PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "cookingTime")),
+                        RecipeSummary.class));
+        queries.put("findBySearchTermAndMaxCookingTime",
+                () -> recipeRepository.findBySearchTermAndMaxCookingTime("dinner", 60, page));
+        queries.put("findSliceBySearchTermAndMaxCookingTime",
+                () -> recipeRepository.findSliceBySearchTermAndMaxCookingTime("dinner", 60, page, Recipe.class));
+        queries.put("countBySearchTermAndMaxCookingTime",
+                () -> recipeRepository.countBySearchTermAndMaxCookingTime("dinner", 60));
+        queries.put("findAfter by title", () -> recipeRepository.findAfter(
+                null, "title", Sort.Direction.ASC, RecipeCursor.after(first, "title"), 10, Recipe.class));
+        queries.put("findAfter by cooking time", () -> recipeRepository.findAfter(
+                null, "cookingTime", Sort.Direction.DESC, RecipeCursor.after(first, "cookingTime"), 10,
+                RecipeSummary.class));
+        queries.put("findAfter by id", () -> recipeRepository.findAfter(
+                null, "id", Sort.Direction.ASC, RecipeCursor.after(first, "id"), 10, Recipe.class));
+        queries.put("findAfter in category", () -> recipeRepository.findAfter(
+                "Dinner", "title", Sort.Direction.ASC, RecipeCursor.after(first, "title"), 10, Recipe.class));
+        queries.put("streamAll", () -> {
+            try (Stream<Recipe> recipes = recipeRepository.streamAll(RecipeFields.parse("id,title"), 100)) {
+                recipes.forEach(recipe -> { });
+            }
+        });
+        queries.put("findSearchFacets", () -> recipeRepository.findSearchFacets("dinner", 60, 10));
+        queries.put("findByFilter by category and cooking time", () -> recipeRepository.findByFilter(
+                new RecipeFilter(List.of("Dinner", "Lunch"), null, 10, 40, null), page, Recipe.class));
+        queries.put("findByFilter by creator", () -> recipeRepository.findByFilter(
+                new RecipeFilter(null, List.of("user3"), null, null, null), page, RecipeSummary.class));
+        queries.put("findAndSetById",
+                () -> recipeRepository.findAndSetById(first.getId(), Map.of("cookingTime", 20)));
+        queries.put("streamIdsByFilter", () -> {
+            try (Stream<String> ids = recipeRepository.streamIdsByFilter(
+                    new RecipeFilter(List.of("Dinner"), null, null, null, null), 100)) {
+                ids.forEach(id -> { });
+            }
+        });
+        queries.put("updateCategoryByFilterAndIds", () -> recipeRepository.updateCategoryByFilterAndIds(
+                new RecipeFilter(List.of("Dinner"), null, null, null, null), List.of(first.getId()), "Supper"));
+        queries.put("deleteByFilterAndIds", () -> recipeRepository.deleteByFilterAndIds(
+                new RecipeFilter(null, List.of("user3"), null, null, null), List.of("000000000000000000000000")));
+        queries.put("findByFilter by ingredients", () -> recipeRepository.findByFilter(
+                new RecipeFilter(null, null, null, null, List.of("onion", "garlic")), page, Recipe.class));
+        return queries;
+    }
+
+    @Test
+    public void testEveryQueryIsExplained() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> type : List.of(RecipeRepository.class, RecipeRepositoryCustom.class)) {
+            for (Method method : type.getDeclaredMethods()) {
+                declared.add(method.getName());
+            }
+        }
+
+        Set<String> explained = new TreeSet<>();
+        for (String name : queries().keySet()) {
+            explained.add(name.split(" ")[0]);
+        }
+
+        assertEquals(declared, explained);
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> testQueriesUseIndexes() {
+        return queries().entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertUsesIndexes(query.getValue(),
+                        REGEX_QUERIES.contains(query.getKey().split(" ")[0]))));
+    }
+
+    private void assertUsesIndexes(Runnable query, boolean unanchoredRegex) {
+        sent.clear();
+        recording = Thread.currentThread();
+        try {
+            query.run();
+        } finally {
+            recording = null;
+        }
+        assertFalse(sent.isEmpty(), "The query sent no command");
+
+        for (BsonDocument command : sent) {
+            DRIVER_FIELDS.forEach(command::remove);
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", command).append("verbosity", "queryPlanner"));
+
+            List<Document> stages = new ArrayList<>();
+            collectStages(explain, false, stages);
+            List<String> names = stages.stream().map(stage -> stage.getString("stage")).toList();
+            assertFalse(names.isEmpty(), () -> "No winning plan in " + explain.toJson());
+            assertFalse(names.contains("COLLSCAN"), () -> "Collection scan for " + command.toJson());
+            assertFalse(names.contains("SORT"), () -> "In-memory sort for " + command.toJson());
+            if (unanchoredRegex) {
+                assertFullIndexScanForRegex(stages, command, explain);
+            }
+        }
+    }
+
+    // An unanchored, case-insensitive regex has no prefix to seek on, so an index on its field cannot bound the
+    // scan: it is read over every string key and the regex is tested key by key. Fail if a plan claims otherwise.
+    private static void assertFullIndexScanForRegex(List<Document> stages, BsonDocument command, Document explain) {
+        boolean regexFieldScanned = false;
+        for (Document stage : stages) {
+            if (!"IXSCAN".equals(stage.getString("stage")) || !(stage.get("indexBounds") instanceof Document bounds)) {
+                continue;
+            }
+            for (String field : REGEX_FIELDS) {
+                if (bounds.get(field) instanceof List<?> intervals) {
+                    regexFieldScanned = true;
+                    assertTrue(intervals.contains(ALL_STRINGS), () -> "Expected a full scan of the " + field
+                            + " index for an unanchored regex, got bounds " + intervals + " for " + command.toJson());
+                }
+            }
+        }
+        // Otherwise the plan scans another index, such as cookingTime, and tests the regex on each fetched document
+        if (!regexFieldScanned) {
+            assertTrue(stages.stream().anyMatch(stage -> stage.get("filter") instanceof Document filter
+                            && filter.toJson().contains("$regex")),
+                    () -> "The regex is neither scanned over an index nor filtered in " + explain.toJson());
+        }
+    }
+
+    // Collect the stages of every winning plan, wherever the explain output nests it
+    private static void collectStages(Object node, boolean inPlan, List<Document> stages) {
+        if (node instanceof Document document) {
+            if (inPlan && document.get("stage") instanceof String) {
+                stages.add(document);
+            }
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                collectStages(entry.getValue(), inPlan || "winningPlan".equals(entry.getKey()), stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object element : list) {
+                collectStages(element, inPlan, stages);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AutocompleteIndexTest {
+
+    private AutocompleteIndex autocompleteIndex;
+
+    @BeforeEach
+    public void setup() {
+        autocompleteIndex = new AutocompleteIndex();
+        autocompleteIndex.index(0, new Recipe("Beef Stew", Arrays.asList("beef", "carrots"),
+                "Simmer.", 120, "Dinner", "system"));
+        autocompleteIndex.index(1, new Recipe("Beef Tacos", Arrays.asList("beef", "tortillas"),
+                "Fry.", 20, "Dinner", "system"));
+        autocompleteIndex.index(2, new Recipe("Beetroot Salad", Arrays.asList("beetroot", "carrots"),
+                "Toss.", 10, "Lunch", "system"));
+    }
+
+    @Test
+    public void testCompletionsAreRankedByPopularity() {
+        List<String> completions = autocompleteIndex.complete("Bee", 10);
+
+        assertEquals("beef", completions.get(0));
+        assertEquals(5, completions.size());
+        assertTrue(completions.containsAll(List.of("Beef Stew", "Beef Tacos", "Beetroot Salad", "beetroot")));
+    }
+
+    @Test
+    public void testPrefixEndingInsideAnEdgeAndLimit() {
+        assertEquals(List.of("carrot"), autocompleteIndex.complete("car", 10));
+        assertEquals(List.of("Dinner"), autocompleteIndex.complete("d", 1));
+        assertTrue(autocompleteIndex.complete("x", 10).isEmpty());
+    }
+
+    @Test
+    public void testIngredientsAreCompletedByCanonicalName() {
+        autocompleteIndex.index(3, new Recipe("Soup", List.of("2 cups Chopped Onions"), "Simmer.", 30, "Lunch", "system"));
+        autocompleteIndex.index(4, new Recipe("Salsa", List.of("1 onion, diced"), "Chop.", 5, "Side", "system"));
+
+        assertEquals(List.of("onion"), autocompleteIndex.complete("on", 10));
+        assertTrue(autocompleteIndex.complete("2 cups", 10).isEmpty());
+    }
+
+    @Test
+    public void testTrailingSpaceRequiresAWordBoundary() {
+        List<String> completions = autocompleteIndex.complete("beef ", 10);
+
+        assertEquals(2, completions.size());
+        assertTrue(completions.containsAll(List.of("Beef Stew", "Beef Tacos")));
+    }
+
+    @Test
+    public void testRemovalUpdatesWeightsAndDropsUnusedPhrases() {
+        autocompleteIndex.remove(0);
+        autocompleteIndex.remove(1);
+
+        assertEquals(List.of("beetroot", "Beetroot Salad"), autocompleteIndex.complete("bee", 10));
+        assertTrue(autocompleteIndex.complete("dinner", 10).isEmpty());
+
+        autocompleteIndex.index(1, new Recipe("Beef Tacos", List.of("beef"), "Fry.", 20, "Dinner", "system"));
+        assertEquals(List.of("beef", "Beef Tacos"), autocompleteIndex.complete("beef", 10));
+    }
+}
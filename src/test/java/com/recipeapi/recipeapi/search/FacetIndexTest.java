@@ -0,0 +1,64 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class FacetIndexTest {
+
+    private FacetIndex facetIndex;
+
+    @BeforeEach
+    public void setup() {
+        facetIndex = new FacetIndex();
+        facetIndex.index(0, new Recipe("Beef Stew", Arrays.asList("Beef", "carrots"),
+                "Simmer.", 120, "Dinner", "system"));
+        facetIndex.index(1, new Recipe("Chicken Curry", Arrays.asList("chicken", "Carrots "),
+                "Simmer.", 40, "Dinner", "system"));
+        facetIndex.index(2, new Recipe("Chicken Salad", Arrays.asList("chicken", "lettuce"),
+                "Toss.", 15, "Lunch", "system"));
+    }
+
+    @Test
+    public void testFacetsCountEveryDimension() {
+        RecipeFacets facets = facetIndex.facets(new int[]{0, 1, 2}, 10);
+
+        assertEquals(List.of("Dinner", "Lunch"), List.copyOf(facets.getCategories().keySet()));
+        assertEquals(2L, facets.getCategories().get("Dinner"));
+        assertEquals(1L, facets.getCookingTimes().get("15-30"));
+        assertEquals(1L, facets.getCookingTimes().get("30-60"));
+        assertEquals(1L, facets.getCookingTimes().get("120+"));
+        assertEquals(0L, facets.getCookingTimes().get("0-15"));
+        assertEquals(2L, facets.getIngredients().get("carrot"));
+        assertEquals(2L, facets.getIngredients().get("chicken"));
+    }
+
+    @Test
+    public void testTopIngredientsAreLimitedAndOrderedByCount() {
+        RecipeFacets facets = facetIndex.facets(new int[]{0, 1, 2}, 2);
+
+        assertEquals(List.of("carrot", "chicken"), List.copyOf(facets.getIngredients().keySet()));
+    }
+
+    @Test
+    public void testMatchCookingTime() {
+        assertArrayEquals(new int[]{1, 2}, facetIndex.matchCookingTime(60));
+    }
+
+    @Test
+    public void testRemovedRecipesAreNotCounted() {
+        facetIndex.remove(2);
+
+        RecipeFacets facets = facetIndex.facets(new int[]{0, 1, 2}, 10);
+
+        assertFalse(facets.getCategories().containsKey("Lunch"));
+        assertArrayEquals(new int[]{1}, facetIndex.matchCookingTime(60));
+    }
+}
@@ -0,0 +1,69 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FilterIndexTest {
+
+    private FilterIndex filterIndex;
+
+    @BeforeEach
+    public void setup() {
+        filterIndex = new FilterIndex();
+        filterIndex.index(0, new Recipe("Omelette", Arrays.asList("eggs", "butter"),
+                "Fry.", 10, "Breakfast", "alice"));
+        filterIndex.index(1, new Recipe("Quiche", Arrays.asList("Eggs", "cream"),
+                "Bake.", 45, "Lunch", "bob"));
+        filterIndex.index(2, new Recipe("Beef Stew", Arrays.asList("beef", "carrots"),
+                "Simmer.", 120, "Dinner", "alice"));
+        filterIndex.index(3, new Recipe("Toast", Arrays.asList("bread"),
+                "Toast.", null, "Breakfast", "bob"));
+    }
+
+    @Test
+    public void testEmptyFilterMatchesEverything() {
+        SearchHits hits = filterIndex.filter(new RecipeFilter(null, null, null, null, null), 0, 10);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3}, hits.getDocIds());
+    }
+
+    @Test
+    public void testValuesOfOneAttributeAreAlternatives() {
+        RecipeFilter filter = new RecipeFilter(List.of("Breakfast", "Lunch"), List.of("bob"), null, null, null);
+
+        assertArrayEquals(new int[]{1, 3}, filterIndex.filter(filter, 0, 10).getDocIds());
+    }
+
+    @Test
+    public void testIngredientsMustAllMatch() {
+        RecipeFilter filter = new RecipeFilter(null, null, null, null, List.of("EGGS", "cream"));
+
+        assertArrayEquals(new int[]{1}, filterIndex.filter(filter, 0, 10).getDocIds());
+    }
+
+    @Test
+    public void testCookingTimeRangeChecksCutBuckets() {
+        RecipeFilter filter = new RecipeFilter(null, null, 10, 50, null);
+
+        assertArrayEquals(new int[]{0, 1}, filterIndex.filter(filter, 0, 10).getDocIds());
+        assertArrayEquals(new int[]{2},
+                filterIndex.filter(new RecipeFilter(null, null, 100, null, null), 0, 10).getDocIds());
+    }
+
+    @Test
+    public void testPagingAndRemoval() {
+        filterIndex.remove(0);
+
+        SearchHits hits = filterIndex.filter(new RecipeFilter(null, null, null, null, null), 1, 1);
+
+        assertEquals(3, hits.getTotalHits());
+        assertArrayEquals(new int[]{2}, hits.getDocIds());
+    }
+}
@@ -0,0 +1,66 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FullTextIndexTest {
+
+    private FullTextIndex fullTextIndex;
+
+    @BeforeEach
+    public void setup() {
+        fullTextIndex = new FullTextIndex();
+        fullTextIndex.index(0, new Recipe("Beef Stew", Arrays.asList("beef", "carrots"),
+                "Brown the beef, add chicken stock and simmer.", 120, "Dinner", "system"));
+        fullTextIndex.index(1, new Recipe("Chicken Curry", Arrays.asList("chicken", "curry paste"),
+                "Simmer the chicken in the sauce.", 40, "Dinner", "system"));
+        fullTextIndex.index(2, new Recipe("Chicken Salad", Arrays.asList("chicken", "lettuce"),
+                "Toss everything together.", 15, "Lunch", "system"));
+    }
+
+    @Test
+    public void testTitleMatchesRankAboveInstructionMatches() {
+        SearchHits hits = fullTextIndex.search("chicken", Integer.MAX_VALUE, 0, 10);
+
+        assertEquals(3, hits.getTotalHits());
+        assertEquals(0, hits.getDocIds()[2]);
+    }
+
+    @Test
+    public void testMoreMatchingTermsRankHigher() {
+        SearchHits hits = fullTextIndex.search("chicken curry", Integer.MAX_VALUE, 0, 10);
+
+        assertEquals(1, hits.getDocIds()[0]);
+    }
+
+    @Test
+    public void testCookingTimeFilterIsAppliedDuringLookup() {
+        SearchHits hits = fullTextIndex.search("chicken", 30, 0, 10);
+
+        assertEquals(1, hits.getTotalHits());
+        assertArrayEquals(new int[]{2}, hits.getDocIds());
+    }
+
+    @Test
+    public void testPaging() {
+        SearchHits all = fullTextIndex.search("chicken", Integer.MAX_VALUE, 0, 10);
+        SearchHits second = fullTextIndex.search("chicken", Integer.MAX_VALUE, 1, 1);
+        SearchHits beyond = fullTextIndex.search("chicken", Integer.MAX_VALUE, 5, 1);
+
+        assertEquals(3, second.getTotalHits());
+        assertArrayEquals(new int[]{all.getDocIds()[1]}, second.getDocIds());
+        assertEquals(0, beyond.getDocIds().length);
+    }
+
+    @Test
+    public void testRemovedRecipesNoLongerMatch() {
+        fullTextIndex.remove(1);
+
+        assertEquals(0, fullTextIndex.search("curry", Integer.MAX_VALUE, 0, 10).getTotalHits());
+    }
+}
@@ -0,0 +1,67 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class IngredientIndexTest {
+
+    private IngredientIndex ingredientIndex;
+
+    @BeforeEach
+    public void setup() {
+        ingredientIndex = new IngredientIndex();
+        ingredientIndex.index(0, recipe("2 cups Chopped Onions", "1 tbsp olive oil"));
+        ingredientIndex.index(1, recipe("Olive Oil", "Garlic"));
+        ingredientIndex.index(2, recipe("Garlic", "Butter"));
+    }
+
+    private Recipe recipe(String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setIngredients(Arrays.asList(ingredients));
+        return recipe;
+    }
+
+    @Test
+    public void testSearchIsCaseInsensitive() {
+        assertArrayEquals(new int[]{1, 2}, ingredientIndex.search("GARLIC"));
+    }
+
+    @Test
+    public void testSearchRequiresEveryTerm() {
+        assertArrayEquals(new int[]{0, 1}, ingredientIndex.search("olive oil"));
+        assertArrayEquals(new int[]{0}, ingredientIndex.search("onion oil"));
+        assertArrayEquals(new int[0], ingredientIndex.search("olive butter"));
+    }
+
+    @Test
+    public void testSearchMatchesTermsAcrossIngredients() {
+        // "olive" and "garlic" come from two different ingredients of recipe 1
+        assertArrayEquals(new int[]{1}, ingredientIndex.search("olive garlic"));
+    }
+
+    @Test
+    public void testSearchMatchesNormalizedIngredients() {
+        assertArrayEquals(new int[]{0}, ingredientIndex.search("onion"));
+        assertArrayEquals(new int[]{0}, ingredientIndex.search("3 Onions, diced"));
+    }
+
+    @Test
+    public void testUnknownTermReturnsNothing() {
+        assertArrayEquals(new int[0], ingredientIndex.search("saffron"));
+    }
+
+    @Test
+    public void testRemoveAndReindex() {
+        ingredientIndex.remove(1);
+        assertArrayEquals(new int[]{2}, ingredientIndex.search("garlic"));
+
+        ingredientIndex.index(1, recipe("Garlic", "Saffron"));
+        assertArrayEquals(new int[]{1, 2}, ingredientIndex.search("garlic"));
+        assertArrayEquals(new int[]{1}, ingredientIndex.search("saffron"));
+        assertArrayEquals(new int[]{0}, ingredientIndex.search("olive"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.recipeapi.recipeapi.search;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IngredientNormalizerTest {
+
+    @Test
+    public void testQuantitiesUnitsAndPreparationAreStripped() {
+        assertEquals("onion", IngredientNormalizer.normalize("2 cups Chopped Onions"));
+        assertEquals("flour", IngredientNormalizer.normalize("500g flour"));
+        assertEquals("salt", IngredientNormalizer.normalize("a pinch of salt, to taste"));
+        assertEquals("olive oil", IngredientNormalizer.normalize("1 1/2 tbsp Olive-Oil"));
+        assertEquals("", IngredientNormalizer.normalize("2 cups"));
+    }
+
+    @Test
+    public void testSingularize() {
+        assertEquals("tomato", IngredientNormalizer.singularize("tomatoes"));
+        assertEquals("berry", IngredientNormalizer.singularize("berries"));
+        assertEquals("peach", IngredientNormalizer.singularize("peaches"));
+        assertEquals("egg", IngredientNormalizer.singularize("eggs"));
+        assertEquals("leaf", IngredientNormalizer.singularize("leaves"));
+        assertEquals("pie", IngredientNormalizer.singularize("pies"));
+        assertEquals("couscous", IngredientNormalizer.singularize("couscous"));
+        assertEquals("asparagus", IngredientNormalizer.singularize("asparagus"));
+        assertEquals("glass", IngredientNormalizer.singularize("glass"));
+    }
+
+    @Test
+    public void testNormalizeAllDropsDuplicatesAndEmptyNames() {
+        List<String> normalized = IngredientNormalizer.normalizeAll(
+                Arrays.asList("2 Eggs", "1 egg", "3 cups", null, "Butter"));
+
+        assertEquals(List.of("egg", "butter"), normalized);
+        assertEquals(List.of(), IngredientNormalizer.normalizeAll(null));
+    }
+
+    @Test
+    public void testTermsAreTheDistinctWordsOfTheNames() {
+        assertEquals(List.of("olive", "oil", "black"),
+                IngredientNormalizer.terms(List.of("olive oil", "black olive")));
+        assertEquals(List.of(), IngredientNormalizer.terms(List.of()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PantryIndexTest {
+
+    private PantryIndex pantryIndex;
+
+    @BeforeEach
+    public void setup() {
+        pantryIndex = new PantryIndex();
+        pantryIndex.index(0, new Recipe("Omelette", Arrays.asList("eggs", "butter", "salt"),
+                "Whisk and fry.", 10, "Breakfast", "system"));
+        pantryIndex.index(1, new Recipe("Boiled Eggs", Arrays.asList("Eggs", "salt"),
+                "Boil.", 10, "Breakfast", "system"));
+        pantryIndex.index(2, new Recipe("Pancakes", Arrays.asList("flour", "eggs", "milk", "butter"),
+                "Mix and fry.", 20, "Breakfast", "system"));
+        pantryIndex.index(3, new Recipe("Salad", Arrays.asList("lettuce", "olive oil"),
+                "Toss.", 5, "Lunch", "system"));
+    }
+
+    @Test
+    public void testRecipesAreRankedByCoverage() {
+        SearchHits hits = pantryIndex.rank(List.of("eggs", "salt", "butter"), 10);
+
+        assertArrayEquals(new int[]{0, 1, 2}, hits.getDocIds());
+        assertEquals(1.0f, hits.getScores()[0]);
+        assertEquals(1.0f, hits.getScores()[1]);
+        assertEquals(0.5f, hits.getScores()[2]);
+        assertEquals(3, hits.getTotalHits());
+    }
+
+    @Test
+    public void testLimitKeepsTheBestMatches() {
+        SearchHits hits = pantryIndex.rank(List.of("eggs", "salt"), 1);
+
+        assertArrayEquals(new int[]{1}, hits.getDocIds());
+        assertEquals(3, hits.getTotalHits());
+    }
+
+    @Test
+    public void testIngredientsAreMatchedByKey() {
+        SearchHits hits = pantryIndex.rank(List.of("Olive-Oil"), 10);
+
+        assertArrayEquals(new int[]{3}, hits.getDocIds());
+        assertEquals(0.5f, hits.getScores()[0]);
+    }
+
+    @Test
+    public void testUnknownIngredientsAndRemovedRecipesDoNotMatch() {
+        pantryIndex.remove(3);
+
+        assertEquals(0, pantryIndex.rank(List.of("lettuce", "saffron"), 10).getDocIds().length);
+    }
+}
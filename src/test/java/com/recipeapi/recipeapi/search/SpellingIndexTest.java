@@ -0,0 +1,67 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpellingIndexTest {
+
+    private SpellingIndex spellingIndex;
+
+    @BeforeEach
+    public void setup() {
+        spellingIndex = new SpellingIndex();
+        spellingIndex.index(0, new Recipe("Spaghetti Bolognese", Arrays.asList("500g spaghetti", "tomato sauce"),
+                "Cook.", 30, "Dinner", "system"));
+        spellingIndex.index(1, new Recipe("Tomato Soup", Arrays.asList("tomatoes", "basil"),
+                "Simmer.", 25, "Lunch", "system"));
+        spellingIndex.index(2, new Recipe("Fried Egg", Arrays.asList("egg", "oil"),
+                "Fry.", 5, "Breakfast", "system"));
+    }
+
+    @Test
+    public void testSuggestionsWithinTwoEdits() {
+        assertEquals(List.of("spaghetti"), spellingIndex.suggest("spagetti", 5));
+        assertEquals("tomato", spellingIndex.suggest("tomatoe", 5).get(0));
+    }
+
+    @Test
+    public void testTranspositionCountsAsOneEdit() {
+        assertEquals(List.of("basil"), spellingIndex.suggest("bsail", 5));
+    }
+
+    @Test
+    public void testShortWordsTolerateFewerEdits() {
+        assertTrue(spellingIndex.suggest("ogg", 5).contains("egg"));
+        assertTrue(spellingIndex.suggest("ag", 5).isEmpty());
+        assertFalse(spellingIndex.suggest("fiig", 5).contains("egg"));
+    }
+
+    @Test
+    public void testCorrectReplacesOnlyUnknownWords() {
+        assertEquals("spaghetti bolognese", spellingIndex.correct("Spagetti bolognese"));
+        assertNull(spellingIndex.correct("tomato soup"));
+    }
+
+    @Test
+    public void testRemovedWordsAreNoLongerSuggested() {
+        spellingIndex.remove(2);
+
+        assertFalse(spellingIndex.contains("egg"));
+        assertTrue(spellingIndex.suggest("ogg", 5).isEmpty());
+        assertTrue(spellingIndex.contains("tomato"));
+    }
+
+    @Test
+    public void testDistanceGivesUpAboveMaximum() {
+        assertEquals(1, SpellingIndex.distance("tomato", "tomatoe", 2));
+        assertEquals(3, SpellingIndex.distance("tomato", "basil", 2));
+    }
+}
@@ -0,0 +1,52 @@
+package com.recipeapi.recipeapi.search;
+import com.recipeapi.recipeapi.model.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class TitleTrigramIndexTest {
+
+    private TitleTrigramIndex titleIndex;
+
+    @BeforeEach
+    public void setup() {
+        titleIndex = new TitleTrigramIndex();
+        titleIndex.index(0, recipe("Spaghetti Carbonara"));
+        titleIndex.index(1, recipe("Chicken Curry"));
+        titleIndex.index(2, recipe("Curried Chickpeas"));
+    }
+
+    private Recipe recipe(String title) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        return recipe;
+    }
+
+    @Test
+    public void testSubstringSearchIgnoresCase() {
+        assertArrayEquals(new int[]{1, 2}, titleIndex.search("CHICK"));
+        assertArrayEquals(new int[]{0}, titleIndex.search("ghetti car"));
+    }
+
+    @Test
+    public void testCandidatesAreVerified() {
+        // Both grams of "anab" ("ana", "nab") occur in this title, but not next to each other
+        titleIndex.index(3, recipe("Nabe with Banana"));
+
+        assertArrayEquals(new int[0], titleIndex.search("anab"));
+        assertArrayEquals(new int[]{3}, titleIndex.search("nabe"));
+    }
+
+    @Test
+    public void testShortQueriesScanTitles() {
+        assertArrayEquals(new int[]{1, 2}, titleIndex.search("cu"));
+        assertArrayEquals(new int[]{0, 1, 2}, titleIndex.search(""));
+    }
+
+    @Test
+    public void testRemoveDropsTitle() {
+        titleIndex.remove(1);
+        assertArrayEquals(new int[]{2}, titleIndex.search("chick"));
+    }
+}
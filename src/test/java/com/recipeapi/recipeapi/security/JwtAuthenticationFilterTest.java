@@ -0,0 +1,104 @@
+package com.recipeapi.recipeapi.security;
+import com.recipeapi.recipeapi.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private JwtService jwtService;
+
+    private TokenRevocationList revocationList;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "testSecretKeyForUnitTestingPurposesOnly");
+        ReflectionTestUtils.setField(jwtService, "expiration", 3600000L);
+        revocationList = new TokenRevocationList(mongoTemplate, 3600000L, true, Duration.ofSeconds(30));
+        filter = new JwtAuthenticationFilter(userDetailsService, jwtService, revocationList, true);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String tokenFor(long version) {
+        User user = new User("reina", "hash", "reina@example.com", List.of("USER", "ADMIN"));
+        user.setTokenVersion(version);
+        return jwtService.generateToken(user);
+    }
+
+    @Test
+    public void testAuthenticatesFromClaimsWithoutLoadingUser() throws Exception {
+        Authentication authentication = filter(tokenFor(0));
+
+        assertNotNull(authentication);
+        assertEquals("reina", authentication.getName());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    public void testRejectsRevokedToken() throws Exception {
+        String token = tokenFor(0);
+
+        revocationList.revoke("reina", 1);
+
+        assertNull(filter(token));
+        verify(mongoTemplate).save(any());
+    }
+
+    @Test
+    public void testAcceptsTokenIssuedAfterRevocation() throws Exception {
+        revocationList.revoke("reina", 1);
+
+        assertNotNull(filter(tokenFor(1)));
+    }
+
+    @Test
+    public void testRejectsTokenWithoutClaims() throws Exception {
+        assertNull(filter(jwtService.generateToken("reina")));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -97,4 +98,17 @@ public class JwtServiceTest {
         boolean isValid = jwtService.validateToken(token, wrongUser);
         assertFalse(isValid);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGenerateTokenEmbedsRolesAndVersion() {
+        com.recipeapi.recipeapi.model.User user =
+                new com.recipeapi.recipeapi.model.User(username, "password", "test@example.com", List.of("USER", "ADMIN"));
+        user.setTokenVersion(4);
+
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(user));
+
+        assertEquals(username, claims.getSubject());
+        assertEquals(List.of("USER", "ADMIN"), claims.get(JwtService.ROLES_CLAIM, List.class));
+        assertEquals(4L, claims.get(JwtService.VERSION_CLAIM, Number.class).longValue());
+    }
+}
@@ -0,0 +1,136 @@
+package com.recipeapi.recipeapi.security;
+import com.recipeapi.recipeapi.model.User;
+import com.recipeapi.recipeapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, passwordEncoder, revocationList, meterRegistry, 100, Duration.ofMinutes(1));
+
+        user = new User("reina", "hash", "reina@example.com", List.of("USER"));
+        user.setId("1");
+        when(userRepository.findByUsername("reina")).thenReturn(Optional.of(user));
+        when(userRepository.findById("1")).thenReturn(Optional.of(user));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "users", "result", result).functionCounter().count();
+    }
+
+    @Test
+    public void testLoadUserByUsernameIsCached() {
+        assertSame(user, userService.loadUserByUsername("reina"));
+        assertSame(user, userService.loadUserByUsername("reina"));
+
+        verify(userRepository, times(1)).findByUsername("reina");
+        assertEquals(1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    public void testUnknownUsernameIsNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    public void testDeleteUserEvictsCachedUser() {
+        userService.loadUserByUsername("reina");
+
+        userService.deleteUser("1");
+        when(userRepository.findByUsername("reina")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("reina"));
+    }
+
+    @Test
+    public void testUpdateRolesEvictsCachedUser() {
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.loadUserByUsername("reina");
+
+        userService.updateRoles("1", List.of("USER", "ADMIN"));
+        userService.loadUserByUsername("reina");
+
+        assertEquals(List.of("USER", "ADMIN"), user.getRoles());
+        verify(userRepository, times(2)).findByUsername("reina");
+    }
+
+    @Test
+    public void testUpdateRolesRevokesEarlierTokens() {
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateRoles("1", List.of("USER", "ADMIN"));
+
+        assertEquals(1, user.getTokenVersion());
+        verify(revocationList).revoke("reina", 1);
+    }
+
+    @Test
+    public void testDisablingUserRevokesEarlierTokens() {
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.setEnabled("1", false);
+
+        assertFalse(user.isEnabled());
+        verify(revocationList).revoke("reina", 1);
+    }
+
+    @Test
+    public void testDeleteUserRevokesTokens() {
+        userService.deleteUser("1");
+
+        verify(revocationList).revoke("reina", 1);
+    }
+
+    @Test
+    public void testRegisterUserStartsAtRevokedVersion() {
+        when(userRepository.existsByUsername("reina")).thenReturn(false);
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(revocationList.minimumVersion("reina")).thenReturn(3L);
+
+        User registered = userService.registerUser("reina", "secret", "new@example.com", List.of("USER"));
+
+        assertEquals(3, registered.getTokenVersion());
+    }
+}
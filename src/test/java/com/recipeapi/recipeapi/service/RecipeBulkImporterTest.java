@@ -0,0 +1,144 @@
+package com.recipeapi.recipeapi.service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.cache.RecipeCountCache;
+import com.recipeapi.recipeapi.cache.RecipeWriteLog;
+import com.recipeapi.recipeapi.cache.SearchResultCache;
+import com.recipeapi.recipeapi.model.BulkImportResult;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.search.RecipeIndexManager;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class RecipeBulkImporterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RecipeIndexManager indexManager;
+
+    @Mock
+    private RecipeCountCache countCache;
+
+    @Mock
+    private RecipeChangeTracker changeTracker;
+
+    @Mock
+    private SearchResultCache searchCache;
+
+    @Mock
+    private RecipeWriteLog writeLog;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private RecipeBulkImporter importer;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        importer = new RecipeBulkImporter(mongoTemplate, indexManager, countCache, changeTracker, searchCache, writeLog,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class)).thenReturn(bulkOperations);
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BulkWriteResult inserted(int count) {
+        return BulkWriteResult.acknowledged(count, 0, 0, 0, List.of(), List.of());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportJsonArrayInBatches() throws Exception {
+        when(bulkOperations.execute()).thenReturn(inserted(2), inserted(1));
+
+        BulkImportResult result = importer.importRecipes(body("["
+                + "{\"title\": \"Pasta\", \"ingredients\": [\"2 Tomatoes\"], \"category\": \"Dinner\"},"
+                + "{\"title\": \"Salad\", \"cookingTime\": 5},"
+                + "{\"title\": \"\"},"
+                + "{\"title\": \"Soup\", \"cookingTime\": \"long\"},"
+                + "{\"title\": \"Cake\", \"createdBy\": \"alice\"}"
+                + "]"));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(3, result.getInserted());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getIndex());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("title "));
+        assertEquals(3, result.getErrors().get(1).getIndex());
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("Invalid recipe"));
+
+        ArgumentCaptor<List<Recipe>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(2)).insert(batches.capture());
+        verify(bulkOperations, times(2)).execute();
+        ArgumentCaptor<Recipe> saved = ArgumentCaptor.forClass(Recipe.class);
+        verify(indexManager, times(3)).onSaved(saved.capture());
+        Recipe pasta = saved.getAllValues().get(0);
+        assertNotNull(pasta.getId());
+        assertEquals("system", pasta.getCreatedBy());
+        assertEquals(List.of("tomato"), pasta.getNormalizedIngredients());
+        assertEquals("alice", saved.getAllValues().get(2).getCreatedBy());
+        verify(countCache).onWrite(null, "Dinner");
+        verify(changeTracker).onWrite(null, "Dinner");
+        verify(writeLog).onSaved(pasta.getId(), 0L);
+    }
+
+    @Test
+    public void testImportNdjsonReportsRejectedRecordsAndStopsAtMalformedJson() throws Exception {
+        BulkWriteResult written = inserted(1);
+        BulkOperationException duplicate = mock(BulkOperationException.class);
+        when(duplicate.getResult()).thenReturn(written);
+        when(duplicate.getErrors()).thenReturn(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+        when(bulkOperations.execute()).thenThrow(duplicate);
+
+        BulkImportResult result = importer.importRecipes(body(
+                "{\"title\": \"Pasta\"}\n"
+                        + "{\"id\": \"507f1f77bcf86cd799439011\", \"title\": \"Salad\"}\n"
+                        + "{\"title\": \"Soup\"\n"
+                        + "{\"title\": \"Cake\"}\n"));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getInserted());
+        assertEquals(2, result.getFailed());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("E11000 duplicate key", result.getErrors().get(0).getMessage());
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("Malformed JSON"));
+        verify(bulkOperations, times(1)).insert(anyList());
+        verify(indexManager, times(1)).onSaved(any(Recipe.class));
+    }
+
+    @Test
+    public void testImportEmptyArray() throws Exception {
+        BulkImportResult result = importer.importRecipes(body("[]"));
+
+        assertEquals(0, result.getReceived());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+}
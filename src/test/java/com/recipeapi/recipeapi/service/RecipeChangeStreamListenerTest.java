@@ -0,0 +1,202 @@
+package com.recipeapi.recipeapi.service;
+import com.recipeapi.recipeapi.cache.RecipeCache;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.cache.RecipeCountCache;
+import com.recipeapi.recipeapi.cache.RecipeWriteLog;
+import com.recipeapi.recipeapi.cache.SearchResultCache;
+import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.search.RecipeIndexManager;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the change stream listener against a single-node replica set, which is
+ * what the MongoDB container starts. Requires Docker: the tests are skipped,
+ * not failed, when no Docker daemon is reachable, so run them on a machine or
+ * CI runner with Docker ({@code mvn test -Dtest=RecipeChangeStreamListenerTest}).
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+public class RecipeChangeStreamListenerTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RecipeIndexManager indexManager;
+
+    @Mock
+    private RecipeCache recipeCache;
+
+    @Mock
+    private SearchResultCache searchCache;
+
+    @Mock
+    private RecipeCountCache countCache;
+
+    @Mock
+    private RecipeChangeTracker changeTracker;
+
+    private final RecipeWriteLog writeLog = new RecipeWriteLog(Duration.ofMinutes(1));
+
+    private RecipeChangeStreamListener listener;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        mongoTemplate.dropCollection(Recipe.class);
+        mongoTemplate.dropCollection(RecipeChangeStreamListener.TOKEN_COLLECTION);
+        listener = newListener();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        listener.stop();
+    }
+
+    private RecipeChangeStreamListener newListener() {
+        return new RecipeChangeStreamListener(mongoTemplate, indexManager, recipeCache, searchCache,
+                countCache, changeTracker, writeLog, false, "test-node");
+    }
+
+    private void startAndWait(RecipeChangeStreamListener listener) throws InterruptedException {
+        listener.start();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!listener.isWatching() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(listener.isWatching());
+    }
+
+    private static Recipe recipe(String title) {
+        return new Recipe(title, List.of("onion"), "Cook it", 30, "Dinner", "reina");
+    }
+
+    @Test
+    public void testAppliesWritesMadeElsewhere() throws InterruptedException {
+        startAndWait(listener);
+
+        Recipe soup = mongoTemplate.insert(recipe("Soup"));
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(soup.getId())),
+                new Update().set("title", "Onion Soup"), Recipe.class);
+        mongoTemplate.remove(soup);
+
+        // Inserts carry the document; the update may find it deleted already
+        verify(indexManager, timeout(TIMEOUT_MILLIS)).onSaved(argThat(recipe -> "Soup".equals(recipe.getTitle())));
+        verify(indexManager, timeout(TIMEOUT_MILLIS).atLeastOnce()).onDeleted(soup.getId());
+        verify(recipeCache, timeout(TIMEOUT_MILLIS).times(3)).invalidate(soup.getId());
+        verify(searchCache, timeout(TIMEOUT_MILLIS).times(3)).invalidateAll();
+        // The pre-images give the previous category, so only it is bumped
+        verify(countCache, timeout(TIMEOUT_MILLIS)).onWrite(null, "Dinner");
+        verify(countCache, timeout(TIMEOUT_MILLIS)).onWrite("Dinner", "Dinner");
+        verify(countCache, timeout(TIMEOUT_MILLIS)).onWrite("Dinner", null);
+        verify(countCache, never()).invalidateAll();
+        verify(changeTracker, never()).onBulkWrite();
+    }
+
+    @Test
+    public void testMovingACategoryBumpsBothCategories() throws InterruptedException {
+        Recipe soup = mongoTemplate.insert(recipe("Soup"));
+        startAndWait(listener);
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(soup.getId())),
+                new Update().set("category", "Lunch").inc("version", 1), Recipe.class);
+
+        verify(countCache, timeout(TIMEOUT_MILLIS)).onWrite("Dinner", "Lunch");
+        verify(changeTracker, timeout(TIMEOUT_MILLIS)).onWrite("Dinner", "Lunch");
+    }
+
+    @Test
+    public void testSkipsWritesMadeHere() throws InterruptedException {
+        startAndWait(listener);
+
+        // Recorded first, so that the event cannot be applied before the write is known
+        Recipe local = recipe("Soup");
+        local.setId(new ObjectId().toHexString());
+        writeLog.onSaved(local.getId(), 0L);
+        mongoTemplate.insert(local);
+        writeLog.onDeleted(local.getId());
+        mongoTemplate.remove(local);
+        Recipe foreign = mongoTemplate.insert(recipe("Stew"));
+
+        // Events arrive in order, so once the foreign insert is applied the local writes were seen
+        verify(indexManager, timeout(TIMEOUT_MILLIS)).onSaved(argThat(recipe -> foreign.getId().equals(recipe.getId())));
+        verify(indexManager, never()).onSaved(argThat(recipe -> local.getId().equals(recipe.getId())));
+        verify(indexManager, never()).onDeleted(local.getId());
+        verify(recipeCache, never()).invalidate(local.getId());
+        verify(searchCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    public void testResumesAfterRestart() throws InterruptedException {
+        startAndWait(listener);
+        listener.stop();
+
+        Recipe missed = mongoTemplate.insert(recipe("Stew"));
+
+        listener = newListener();
+        startAndWait(listener);
+        verify(indexManager, timeout(TIMEOUT_MILLIS)).onSaved(argThat(recipe -> missed.getId().equals(recipe.getId())));
+        verify(recipeCache, timeout(TIMEOUT_MILLIS)).invalidate(missed.getId());
+    }
+
+    @Test
+    public void testIdleStreamSavesTokenOnce() throws InterruptedException {
+        startAndWait(listener);
+
+        // The server moves the token about once per second while idle
+        Thread.sleep(3000);
+        Date firstSave = savedAt();
+        Thread.sleep(3000);
+
+        assertNotNull(firstSave);
+        assertEquals(firstSave, savedAt());
+    }
+
+    private Date savedAt() {
+        org.bson.Document saved = mongoTemplate.getCollection(RecipeChangeStreamListener.TOKEN_COLLECTION)
+                .find(new org.bson.Document("_id", "test-node")).first();
+        return saved != null ? saved.getDate("savedAt") : null;
+    }
+
+    @Test
+    public void testDroppingTheCollectionInvalidatesEverything() throws InterruptedException {
+        mongoTemplate.insert(recipe("Soup"));
+        startAndWait(listener);
+
+        mongoTemplate.dropCollection(Recipe.class);
+
+        verify(recipeCache, timeout(TIMEOUT_MILLIS).atLeastOnce()).invalidateAll();
+        verify(indexManager, timeout(TIMEOUT_MILLIS).atLeastOnce()).rebuild();
+    }
+}
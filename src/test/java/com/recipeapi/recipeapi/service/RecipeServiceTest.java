@@ -1,19 +1,62 @@
 package com.recipeapi.recipeapi.service;
+import com.recipeapi.recipeapi.cache.RecipeCache;
+import com.recipeapi.recipeapi.cache.RecipeChangeTracker;
+import com.recipeapi.recipeapi.cache.RecipeCountCache;
+import com.recipeapi.recipeapi.cache.RecipeWriteLog;
+import com.recipeapi.recipeapi.cache.SearchResultCache;
+import com.recipeapi.recipeapi.exception.NotFoundException;
+import com.recipeapi.recipeapi.exception.PreconditionFailedException;
+import com.recipeapi.recipeapi.model.CursorPage;
+import com.recipeapi.recipeapi.model.PantryMatch;
 import com.recipeapi.recipeapi.model.Recipe;
+import com.recipeapi.recipeapi.model.RecipeFacets;
+import com.recipeapi.recipeapi.model.RecipeFields;
+import com.recipeapi.recipeapi.model.RecipeFilter;
+import com.recipeapi.recipeapi.model.RecipePatch;
+import com.recipeapi.recipeapi.model.RecipeSummary;
+import com.recipeapi.recipeapi.repository.RecipeCursor;
 import com.recipeapi.recipeapi.repository.RecipeRepository;
+import com.recipeapi.recipeapi.search.AutocompleteIndex;
+import com.recipeapi.recipeapi.search.FacetIndex;
+import com.recipeapi.recipeapi.search.FilterIndex;
+import com.recipeapi.recipeapi.search.FullTextIndex;
+import com.recipeapi.recipeapi.search.IngredientIndex;
+import com.recipeapi.recipeapi.search.PantryIndex;
+import com.recipeapi.recipeapi.search.RecipeIndexManager;
+import com.recipeapi.recipeapi.search.SearchHits;
+import com.recipeapi.recipeapi.search.SpellingIndex;
+import com.recipeapi.recipeapi.search.TitleTrigramIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 public class RecipeServiceTest {
@@ -21,6 +64,48 @@ public class RecipeServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private RecipeIndexManager indexManager;
+
+    @Mock
+    private IngredientIndex ingredientIndex;
+
+    @Mock
+    private TitleTrigramIndex titleIndex;
+
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private FacetIndex facetIndex;
+
+    @Mock
+    private PantryIndex pantryIndex;
+
+    @Mock
+    private FilterIndex filterIndex;
+
+    @Mock
+    private SpellingIndex spellingIndex;
+
+    @Mock
+    private AutocompleteIndex autocompleteIndex;
+
+    @Mock
+    private RecipeCountCache countCache;
+
+    @Mock
+    private RecipeChangeTracker changeTracker;
+
+    @Mock
+    private RecipeWriteLog writeLog;
+
+    @Spy
+    private RecipeCache recipeCache = new RecipeCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Spy
+    private SearchResultCache searchCache = new SearchResultCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private RecipeService recipeService;
 
@@ -39,14 +124,23 @@ public class RecipeServiceTest {
     }
 
     @Test
-    public void testGetAllRecipes() {
-        when(recipeRepository.findAll()).thenReturn(Arrays.asList(testRecipe));
+    public void testStreamAllRecipes() {
+        when(recipeRepository.streamAll(isNull(), anyInt())).thenReturn(Stream.of(testRecipe));
 
-        List<Recipe> result = recipeService.getAllRecipes();
+        List<?> result = recipeService.streamAllRecipes(null).toList();
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(recipeRepository, times(1)).findAll();
+        assertEquals(List.of(testRecipe), result);
+        verify(recipeRepository, never()).findAll();
+    }
+
+    @Test
+    public void testStreamAllRecipesSelectsFields() {
+        RecipeFields fields = RecipeFields.parse("title");
+        when(recipeRepository.streamAll(eq(fields), anyInt())).thenReturn(Stream.of(testRecipe));
+
+        List<?> result = recipeService.streamAllRecipes(fields).toList();
+
+        assertEquals(List.of(Map.of("title", "Test Recipe")), result);
     }
 
     @Test
@@ -69,5 +163,511 @@ public class RecipeServiceTest {
         assertNotNull(result);
         assertEquals("Test Recipe", result.getTitle());
         verify(recipeRepository, times(1)).save(any(Recipe.class));
+        verify(indexManager, times(1)).onSaved(testRecipe);
+    }
+
+    @Test
+    public void testCreateRecipeStoresNormalizedIngredients() {
+        Recipe recipe = new Recipe("Soup", List.of("2 cups Chopped Onions", "1 tbsp olive oil"),
+                "Simmer.", 30, "Lunch", "user");
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Recipe result = recipeService.createRecipe(recipe);
+
+        assertEquals(List.of("onion", "olive oil"), result.getNormalizedIngredients());
+        assertEquals(List.of("onion", "olive", "oil"), result.getNormalizedIngredientTerms());
+    }
+
+    @Test
+    public void testSearchRecipesByIngredientUsesIndexWhenReady() {
+        int[] docIds = {0};
+        when(indexManager.isReady()).thenReturn(true);
+        when(ingredientIndex.search("ingredient1")).thenReturn(docIds);
+        when(indexManager.recipeIds(docIds)).thenReturn(List.of("1"));
+        when(recipeRepository.findByIdIn(List.of("1"), Recipe.class)).thenReturn(List.of(testRecipe));
+
+        List<Recipe> result = recipeService.searchRecipesByIngredient("ingredient1");
+
+        assertEquals(1, result.size());
+        verify(recipeRepository, never()).findByAllNormalizedIngredientTerms(any(), any(), any());
+    }
+
+    @Test
+    public void testSearchRecipesByIngredientFallsBackWhenIndexNotReady() {
+        when(indexManager.isReady()).thenReturn(false);
+        when(recipeRepository.findByAllNormalizedIngredientTerms(List.of("onion"),
+                Limit.of(RecipeService.MAX_SEARCH_RESULTS), Recipe.class))
+                .thenReturn(List.of(testRecipe));
+
+        List<Recipe> result = recipeService.searchRecipesByIngredient("2 Onions");
+
+        assertEquals(1, result.size());
+        verify(ingredientIndex, never()).search(any());
+    }
+
+    @Test
+    public void testSearchRecipesByIngredientCapsIndexMatches() {
+        int[] docIds = new int[RecipeService.MAX_SEARCH_RESULTS * 2];
+        Arrays.setAll(docIds, i -> i);
+        when(indexManager.isReady()).thenReturn(true);
+        when(ingredientIndex.search("onion")).thenReturn(docIds);
+        when(indexManager.recipeIds(any())).thenAnswer(invocation ->
+                Arrays.stream((int[]) invocation.getArgument(0)).mapToObj(String::valueOf).toList());
+
+        recipeService.searchRecipesByIngredient("onion");
+
+        // Only the first matches are resolved, in pages
+        verify(indexManager, times(1)).recipeIds(argThat(ids -> ids.length == RecipeService.MAX_SEARCH_RESULTS));
+        verify(recipeRepository, times(RecipeService.MAX_SEARCH_RESULTS / RecipeService.BULK_PAGE_SIZE))
+                .findByIdIn(any(), eq(Recipe.class));
+    }
+
+    @Test
+    public void testSearchRecipesByIngredientMatchesTheSameWithAndWithoutIndex() {
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<Recipe> recipes = List.of(
+                recipeService.createRecipe(new Recipe("Dressing", List.of("3 tbsp olive oil"), "Whisk.", 5, "Side", "user")),
+                recipeService.createRecipe(new Recipe("Tapenade", List.of("1 cup black olives"), "Blend.", 10, "Side", "user")),
+                recipeService.createRecipe(new Recipe("Soup", List.of("2 onions"), "Simmer.", 30, "Lunch", "user")));
+        for (int i = 0; i < recipes.size(); i++) {
+            recipes.get(i).setId(String.valueOf(i));
+        }
+
+        // A real index behind the mock, and a repository that evaluates $all over the stored terms
+        IngredientIndex index = new IngredientIndex();
+        for (int i = 0; i < recipes.size(); i++) {
+            index.index(i, recipes.get(i));
+        }
+        when(ingredientIndex.search(any())).thenAnswer(invocation -> index.search(invocation.getArgument(0)));
+        when(indexManager.recipeIds(any())).thenAnswer(invocation ->
+                Arrays.stream((int[]) invocation.getArgument(0)).mapToObj(String::valueOf).toList());
+        when(recipeRepository.findByIdIn(any(), eq(Recipe.class))).thenAnswer(invocation -> recipes.stream()
+                .filter(recipe -> ((List<?>) invocation.getArgument(0)).contains(recipe.getId())).toList());
+        when(recipeRepository.findByAllNormalizedIngredientTerms(any(), any(), eq(Recipe.class))).thenAnswer(invocation ->
+                recipes.stream()
+                        .filter(recipe -> recipe.getNormalizedIngredientTerms().containsAll(invocation.getArgument(0)))
+                        .toList());
+
+        for (String query : List.of("olive", "Olive Oil", "2 Onions", "black olive oil")) {
+            when(indexManager.isReady()).thenReturn(true);
+            List<String> fromIndex = recipeService.searchRecipesByIngredient(query).stream().map(Recipe::getTitle).toList();
+            when(indexManager.isReady()).thenReturn(false);
+            List<String> fromMongo = recipeService.searchRecipesByIngredient(query).stream().map(Recipe::getTitle).toList();
+
+            assertEquals(fromIndex, fromMongo, query);
+        }
+        when(indexManager.isReady()).thenReturn(false);
+        assertEquals(List.of("Dressing", "Tapenade"),
+                recipeService.searchRecipesByIngredient("olive").stream().map(Recipe::getTitle).toList());
+    }
+
+    @Test
+    public void testSearchRecipesByIngredientWithoutIngredientName() {
+        List<Recipe> result = recipeService.searchRecipesByIngredient("500g");
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    public void testFuzzyIngredientSearchRetriesWithCorrectedQuery() {
+        int[] docIds = {0};
+        when(indexManager.isReady()).thenReturn(true);
+        when(ingredientIndex.search("tomatoe")).thenReturn(new int[0]);
+        when(spellingIndex.correct("tomatoe")).thenReturn("tomato");
+        when(ingredientIndex.search("tomato")).thenReturn(docIds);
+        when(indexManager.recipeIds(docIds)).thenReturn(List.of("1"));
+        when(recipeRepository.findByIdIn(List.of("1"), Recipe.class)).thenReturn(List.of(testRecipe));
+
+        List<Recipe> result = recipeService.searchRecipesByIngredient("tomatoe", true);
+
+        assertEquals(List.of(testRecipe), result);
+    }
+
+    @Test
+    public void testGetAllRecipesWithCursorReturnsNextCursor() {
+        Recipe second = new Recipe();
+        second.setId("2");
+        second.setTitle("Second Recipe");
+        when(recipeRepository.findAfter(isNull(), eq("title"), eq(Sort.Direction.ASC), isNull(), eq(2), eq(Recipe.class)))
+                .thenReturn(Arrays.asList(testRecipe, second));
+
+        CursorPage<Recipe> page = recipeService.getAllRecipes("title", Sort.Direction.ASC, "", 1);
+
+        assertEquals(1, page.getContent().size());
+        RecipeCursor next = RecipeCursor.decode(page.getNextCursor());
+        assertEquals("Test Recipe", next.getSortValue());
+        assertEquals("1", next.getId());
+    }
+
+    @Test
+    public void testGetAllRecipesWithCursorOnLastPage() {
+        when(recipeRepository.findAfter(isNull(), eq("title"), eq(Sort.Direction.ASC), any(), eq(11), eq(Recipe.class)))
+                .thenReturn(Arrays.asList(testRecipe));
+
+        CursorPage<Recipe> page = recipeService.getAllRecipes("title", Sort.Direction.ASC,
+                new RecipeCursor("A", "0").encode(), 10);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testGetRecipesByCategoryUsesCachedTotal() {
+        PageRequest pageable = PageRequest.of(0, 1);
+        when(recipeRepository.findSliceByCategory("Dinner", pageable, Recipe.class))
+                .thenReturn(new SliceImpl<>(List.of(testRecipe), pageable, true));
+        when(countCache.countByCategory("Dinner")).thenReturn(42L);
+
+        Page<Recipe> page = recipeService.getRecipesByCategory("Dinner", pageable);
+
+        assertEquals(42, page.getTotalElements());
+        verify(recipeRepository, never()).findByCategory("Dinner", pageable);
+    }
+
+    @Test
+    public void testGetRecipesByCategoryReadsSummaries() {
+        PageRequest pageable = PageRequest.of(0, 1);
+        when(recipeRepository.findSliceByCategory("Dinner", pageable, RecipeSummary.class))
+                .thenReturn(new SliceImpl<>(List.of(testRecipe), pageable, false));
+
+        Slice<RecipeSummary> slice = recipeService.getRecipesByCategorySlice("Dinner", pageable, RecipeSummary.class);
+
+        assertEquals("Test Recipe", slice.getContent().get(0).getTitle());
+        verify(recipeRepository, never()).findSliceByCategory("Dinner", pageable, Recipe.class);
+    }
+
+    @Test
+    public void testSearchRecipesByTitleReadsSummariesOfIndexMatches() {
+        int[] docIds = {0};
+        when(indexManager.isReady()).thenReturn(true);
+        when(titleIndex.search("test")).thenReturn(docIds);
+        when(indexManager.recipeIds(docIds)).thenReturn(List.of("1"));
+        when(recipeRepository.findByIdIn(List.of("1"), RecipeSummary.class)).thenReturn(List.of(testRecipe));
+
+        List<RecipeSummary> result = recipeService.searchRecipesByTitle("test", RecipeSummary.class);
+
+        assertEquals(1, result.size());
+        verify(recipeRepository, never()).findByIdIn(any(), eq(Recipe.class));
+    }
+
+    @Test
+    public void testSearchRecipesByTitleRejectsShortQueries() {
+        assertThrows(IllegalArgumentException.class, () -> recipeService.searchRecipesByTitle(" ab ", Recipe.class));
+        verify(titleIndex, never()).search(any());
+        verify(recipeRepository, never()).findByTitleContainingIgnoreCase(any(), any(), any());
+    }
+
+    @Test
+    public void testSearchRecipesByTitleCapsMatchesAndLoadsThemInPages() {
+        int[] docIds = new int[RecipeService.MAX_SEARCH_RESULTS + 1];
+        Arrays.setAll(docIds, i -> i);
+        when(indexManager.isReady()).thenReturn(true);
+        when(titleIndex.search("soup")).thenReturn(docIds);
+        when(indexManager.recipeIds(any())).thenAnswer(invocation ->
+                Arrays.stream((int[]) invocation.getArgument(0)).mapToObj(String::valueOf).toList());
+        when(recipeRepository.findByIdIn(any(), eq(RecipeSummary.class))).thenAnswer(invocation ->
+                ((List<?>) invocation.getArgument(0)).stream().map(id -> {
+                    Recipe recipe = new Recipe();
+                    recipe.setId((String) id);
+                    return recipe;
+                }).toList());
+
+        List<RecipeSummary> result = recipeService.searchRecipesByTitle("soup", RecipeSummary.class);
+
+        assertEquals(RecipeService.MAX_SEARCH_RESULTS, result.size());
+        assertEquals("0", result.get(0).getId());
+        verify(recipeRepository, times(RecipeService.MAX_SEARCH_RESULTS / RecipeService.BULK_PAGE_SIZE))
+                .findByIdIn(argThat(ids -> ids.size() <= RecipeService.BULK_PAGE_SIZE), eq(RecipeSummary.class));
+    }
+
+    @Test
+    public void testSearchRecipesByTitleLimitsTheFallbackQuery() {
+        when(recipeRepository.findByTitleContainingIgnoreCase("soup", Limit.of(RecipeService.MAX_SEARCH_RESULTS),
+                Recipe.class)).thenReturn(List.of(testRecipe));
+
+        assertEquals(List.of(testRecipe), recipeService.searchRecipesByTitle("soup", Recipe.class));
+    }
+
+    @Test
+    public void testSelectFieldsLoadsMissingFieldsInOrder() {
+        Recipe first = new Recipe();
+        first.setId("1");
+        first.setInstructions("First instructions");
+        Recipe second = new Recipe();
+        second.setId("2");
+        second.setInstructions("Second instructions");
+        RecipeFields fields = RecipeFields.parse("instructions");
+        when(recipeRepository.findFieldsByIdIn(List.of("2", "1"), fields)).thenReturn(List.of(first, second));
+
+        List<Map<String, Object>> result = recipeService.selectFields(List.of(second, first), fields);
+
+        assertEquals(List.of(Map.of("instructions", "Second instructions"), Map.of("instructions", "First instructions")),
+                result);
+    }
+
+    @Test
+    public void testSelectFieldsUsesSummariesWhenTheyHoldEveryField() {
+        List<Map<String, Object>> result = recipeService.selectFields(List.of(testRecipe), RecipeFields.parse("id,title"));
+
+        assertEquals(List.of(Map.of("id", "1", "title", "Test Recipe")), result);
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    public void testUpdateRecipeAdjustsCategoryCounts() {
+        testRecipe.setCategory("Lunch");
+        Recipe details = new Recipe("Test Recipe", List.of("ingredient1"), "Test instructions", 30, "Dinner", null);
+        when(recipeRepository.findById("1")).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        recipeService.updateRecipe("1", details);
+
+        verify(countCache, times(1)).onWrite("Lunch", "Dinner");
+    }
+
+    @Test
+    public void testGetRecipeByIdIsCachedUntilUpdated() {
+        when(recipeRepository.findById("1")).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        recipeService.getRecipeById("1");
+        recipeService.getRecipeById("1");
+        verify(recipeRepository, times(1)).findById("1");
+
+        recipeService.updateRecipe("1", new Recipe("New Title", List.of(), "", 10, "Dinner", null));
+        assertEquals("New Title", recipeService.getRecipeById("1").getTitle());
+        verify(recipeCache, times(1)).invalidate("1");
+        // One read for the update, which bypasses the cache, and one after the invalidation
+        verify(recipeRepository, times(3)).findById("1");
+    }
+
+    @Test
+    public void testMissingRecipeIsNotCached() {
+        when(recipeRepository.findById("2")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> recipeService.getRecipeById("2"));
+        assertThrows(NotFoundException.class, () -> recipeService.getRecipeById("2"));
+        verify(recipeRepository, times(2)).findById("2");
+    }
+
+    @Test
+    public void testUpdateRecipeAtOutdatedVersion() {
+        testRecipe.setVersion(4L);
+        when(recipeRepository.findById("1")).thenReturn(Optional.of(testRecipe));
+
+        assertThrows(PreconditionFailedException.class, () -> recipeService.updateRecipe("1", testRecipe, 3L));
+        assertThrows(PreconditionFailedException.class, () -> recipeService.deleteRecipe("1", 3L));
+        verify(recipeRepository, never()).save(any());
+        verify(recipeRepository, never()).delete(any());
+    }
+
+    @Test
+    public void testUpdateLegacyRecipeWithoutVersion() {
+        // Stored before recipes were versioned, and not backfilled yet
+        testRecipe.setVersion(null);
+        when(recipeRepository.findById("1")).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(PreconditionFailedException.class, () -> recipeService.updateRecipe("1", testRecipe, 1L));
+        verify(recipeRepository, never()).initializeVersion(any());
+
+        recipeService.updateRecipe("1", new Recipe("New Title", List.of(), "", 10, "Dinner", null), 0L);
+
+        verify(recipeRepository, times(1)).initializeVersion("1");
+        // Saved as an update of version 0, not as an insert
+        verify(recipeRepository, times(1)).save(argThat(recipe -> Long.valueOf(0L).equals(recipe.getVersion())));
+    }
+
+    @Test
+    public void testDeleteRecipeAtExpectedVersion() {
+        testRecipe.setVersion(4L);
+        when(recipeRepository.findById("1")).thenReturn(Optional.of(testRecipe));
+
+        recipeService.deleteRecipe("1", 4L);
+
+        verify(recipeRepository, times(1)).delete(testRecipe);
+        verify(indexManager, times(1)).onDeleted("1");
+    }
+
+    @Test
+    public void testCreateRecipeIgnoresClientVersion() {
+        testRecipe.setVersion(7L);
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertNull(recipeService.createRecipe(testRecipe).getVersion());
+    }
+
+    @Test
+    public void testPatchRecipeSetsOnlyChangedFieldsInOneCall() {
+        testRecipe.setCategory("Lunch");
+        testRecipe.setVersion(2L);
+        when(recipeRepository.findAndSetById(eq("1"), any())).thenReturn(testRecipe);
+
+        Recipe result = recipeService.patchRecipe("1",
+                RecipePatch.parse(Map.of("category", "Dinner", "ingredients", List.of("2 Tomatoes"))));
+
+        verify(recipeRepository, times(1)).findAndSetById("1", Map.of("category", "Dinner",
+                "ingredients", List.of("2 Tomatoes"), "normalizedIngredients", List.of("tomato"),
+                "normalizedIngredientTerms", List.of("tomato")));
+        verify(recipeRepository, never()).findById(any());
+        verify(recipeRepository, never()).save(any());
+        assertEquals("Dinner", result.getCategory());
+        assertEquals(List.of("tomato"), result.getNormalizedIngredients());
+        assertEquals(List.of("tomato"), result.getNormalizedIngredientTerms());
+        assertEquals("Test Recipe", result.getTitle());
+        assertEquals(3L, result.getVersion());
+        verify(writeLog, times(1)).onSaved("1", 3L);
+        verify(indexManager, times(1)).onSaved(result);
+        verify(countCache, times(1)).onWrite("Lunch", "Dinner");
+    }
+
+    @Test
+    public void testPatchMissingRecipe() {
+        when(recipeRepository.findAndSetById(eq("2"), any())).thenReturn(null);
+
+        assertThrows(NotFoundException.class,
+                () -> recipeService.patchRecipe("2", RecipePatch.parse(Map.of("cookingTime", 10))));
+        verifyNoInteractions(indexManager);
+    }
+
+    @Test
+    public void testUpdateCategoryReindexesUpdatedRecipes() {
+        RecipeFilter filter = new RecipeFilter(List.of("Supper"), null, null, null, null);
+        testRecipe.setCategory("Dinner");
+        when(recipeRepository.streamIdsByFilter(eq(filter), anyInt())).thenReturn(Stream.of("1"));
+        when(recipeRepository.updateCategoryByFilterAndIds(filter, List.of("1"), "Dinner")).thenReturn(1L);
+        when(recipeRepository.findByIdIn(List.of("1"), Recipe.class)).thenReturn(List.of(testRecipe));
+
+        assertEquals(1, recipeService.updateCategory(filter, "Dinner"));
+        verify(indexManager, times(1)).onSaved(testRecipe);
+        verify(countCache, times(1)).invalidateAll();
+        verify(recipeRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void testDeleteRecipesRemovesThemFromIndexes() {
+        RecipeFilter filter = new RecipeFilter(null, List.of("spammer"), null, null, null);
+        when(recipeRepository.streamIdsByFilter(eq(filter), anyInt())).thenReturn(Stream.of("1", "2"));
+        when(recipeRepository.deleteByFilterAndIds(filter, List.of("1", "2"))).thenReturn(2L);
+
+        assertEquals(2, recipeService.deleteRecipes(filter));
+        verify(recipeCache, times(1)).invalidateAll(List.of("1", "2"));
+        verify(indexManager, times(1)).onDeleted("1");
+        verify(indexManager, times(1)).onDeleted("2");
+        verify(countCache, times(1)).invalidateAll();
+        verify(changeTracker, times(1)).onBulkWrite();
+    }
+
+    @Test
+    public void testDeleteRecipesKeepsRecipesThatStoppedMatching() {
+        RecipeFilter filter = new RecipeFilter(null, List.of("spammer"), null, null, null);
+        when(recipeRepository.streamIdsByFilter(eq(filter), anyInt())).thenReturn(Stream.of("1", "2"));
+        // Recipe 2 was handed to another user after its ID was read, so the filtered delete skips it
+        when(recipeRepository.deleteByFilterAndIds(filter, List.of("1", "2"))).thenReturn(1L);
+        testRecipe.setId("2");
+        when(recipeRepository.findByIdIn(List.of("1", "2"), RecipeSummary.class)).thenReturn(List.of(testRecipe));
+
+        assertEquals(1, recipeService.deleteRecipes(filter));
+        verify(indexManager, times(1)).onDeleted("1");
+        verify(indexManager, never()).onDeleted("2");
+        verify(writeLog, times(1)).onDeleted("1");
+        verify(writeLog, never()).onDeleted("2");
+    }
+
+    @Test
+    public void testUpdateCategoryWritesOnePageOfIdsAtATime() {
+        RecipeFilter filter = new RecipeFilter(List.of("Supper"), null, null, null, null);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= RecipeService.BULK_PAGE_SIZE; i++) {
+            ids.add(String.valueOf(i));
+        }
+        when(recipeRepository.streamIdsByFilter(eq(filter), anyInt())).thenReturn(ids.stream());
+        when(recipeRepository.updateCategoryByFilterAndIds(eq(filter), any(), eq("Dinner")))
+                .thenAnswer(invocation -> (long) ((List<?>) invocation.getArgument(1)).size());
+        when(recipeRepository.findByIdIn(any(), eq(Recipe.class))).thenReturn(List.of());
+
+        assertEquals(ids.size(), recipeService.updateCategory(filter, "Dinner"));
+
+        // Each page is written by ID, with the filter re-applied, and re-read on its own
+        verify(recipeRepository, times(1))
+                .updateCategoryByFilterAndIds(filter, ids.subList(0, RecipeService.BULK_PAGE_SIZE), "Dinner");
+        verify(recipeRepository, times(1))
+                .updateCategoryByFilterAndIds(filter, List.of(String.valueOf(RecipeService.BULK_PAGE_SIZE)), "Dinner");
+        verify(recipeRepository, times(2)).findByIdIn(any(), eq(Recipe.class));
+        verify(countCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    public void testBulkOperationsRequireAFilter() {
+        RecipeFilter filter = new RecipeFilter(null, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> recipeService.updateCategory(filter, "Dinner"));
+        assertThrows(IllegalArgumentException.class, () -> recipeService.deleteRecipes(filter));
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    public void testSearchResultsAreCachedAsIds() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(indexManager.isReady()).thenReturn(true);
+        when(fullTextIndex.search("Chicken ", 30, 0, 10))
+                .thenReturn(new SearchHits(new int[]{4}, new float[]{1f}, 11));
+        when(indexManager.recipeIds(new int[]{4})).thenReturn(List.of("1"));
+        when(recipeRepository.findByIdIn(List.of("1"), Recipe.class)).thenReturn(List.of(testRecipe));
+
+        recipeService.searchRecipes("Chicken ", 30, pageable);
+        Page<Recipe> cached = recipeService.searchRecipes("chicken", 30, pageable);
+        Slice<Recipe> slice = recipeService.searchRecipesSlice("chicken", 30, pageable);
+
+        assertEquals(List.of(testRecipe), cached.getContent());
+        assertEquals(11, cached.getTotalElements());
+        assertTrue(slice.hasNext());
+        verify(fullTextIndex, times(1)).search(any(), anyInt(), anyInt(), anyInt());
+        verify(recipeRepository, times(3)).findByIdIn(List.of("1"), Recipe.class);
+    }
+
+    @Test
+    public void testWritesInvalidateCachedSearchResults() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(indexManager.isReady()).thenReturn(true);
+        when(fullTextIndex.search("chicken", 60, 0, 10))
+                .thenReturn(new SearchHits(new int[0], new float[0], 0));
+        when(recipeRepository.save(any(Recipe.class))).thenReturn(testRecipe);
+
+        recipeService.searchRecipes("chicken", 60, pageable);
+        recipeService.createRecipe(testRecipe);
+        recipeService.searchRecipes("chicken", 60, pageable);
+
+        verify(searchCache, times(1)).invalidateAll();
+        verify(fullTextIndex, times(2)).search("chicken", 60, 0, 10);
+    }
+
+    @Test
+    public void testSearchFacetsUseIndexesOnceReady() {
+        RecipeFacets facets = new RecipeFacets(Map.of(), RecipeFacets.emptyCookingTimes(), Map.of());
+        when(indexManager.isReady()).thenReturn(true);
+        when(fullTextIndex.match("chicken", 30)).thenReturn(new int[]{2});
+        when(facetIndex.facets(any(int[].class), anyInt())).thenReturn(facets);
+
+        assertEquals(facets, recipeService.getSearchFacets("chicken", 30));
+        verify(facetIndex, times(1)).facets(eq(new int[]{2}), anyInt());
+        verify(recipeRepository, never()).findSearchFacets(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testFindRecipesByPantryRanksByCoverageBeforeIndexIsReady() {
+        Recipe partial = new Recipe("Omelette", List.of("eggs", "butter"), "Fry.", 10, "Breakfast", "system");
+        Recipe full = new Recipe("Boiled Eggs", List.of("Eggs"), "Boil.", 10, "Breakfast", "system");
+        when(indexManager.isReady()).thenReturn(false);
+        when(recipeRepository.findByNormalizedIngredientsIn(any())).thenReturn(List.of(partial, full));
+
+        List<PantryMatch> matches = recipeService.findRecipesByPantry(List.of("eggs"), 10);
+
+        assertEquals(2, matches.size());
+        assertEquals(full, matches.get(0).getRecipe());
+        assertEquals(1.0, matches.get(0).getCoverage());
+        assertEquals(List.of("butter"), matches.get(1).getMissingIngredients());
+        verify(pantryIndex, never()).rank(any(), anyInt());
     }
-}
\ No newline at end of file
+}